@@ -0,0 +1,74 @@
+package com.sg.bank_account_api.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.repository.WriteAheadLog.FsyncPolicy;
+
+/**
+ * Débit d'ajout au journal local selon la politique d'écriture sur disque,
+ * avec plusieurs threads qui ajoutent en même temps (chaque ajout est confirmé,
+ * les segments pleins sont donc supprimés au fil de l'eau)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+
+    @Param({ "PER_WRITE", "BATCH", "INTERVAL" })
+    public FsyncPolicy fsyncPolicy;
+
+    private Path directory;
+    private WriteAheadLog wal;
+    private final List<Statement> statements = List.of(
+            new Statement(null, "64b5f0c2a1e4d93b7c0f1a2b", 42L, LocalDateTime.now(), 1_000L, 125_000L));
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-benchmark");
+        wal = new WriteAheadLog(true, directory, DataSize.ofMegabytes(64), fsyncPolicy, 10, null, null);
+        wal.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        wal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        wal.confirm(wal.append("64b5f0c2a1e4d93b7c0f1a2c", statements));
+    }
+}
@@ -0,0 +1,82 @@
+package com.sg.bank_account_api.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Coût d'une transaction (validation, moteur de transactions, mise à jour
+ * conditionnelle) sur un dépôt en mémoire, et des règles de validation du
+ * montant. Le moteur traite les transactions dans le thread appelant pour que
+ * la mesure ne dépende pas de l'ordonnancement
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+    // montants en centimes, tels qu'ils sont stockés
+    private static final long BALANCE_MINOR_UNITS = 100_000_000_000_000L;
+    private static final long AMOUNT_MINOR_UNITS = 1_000L;
+
+    private AccountService accountService;
+    private CreateTransactionDto transaction;
+
+    @Setup
+    public void setUp() {
+        AccountRepository accountRepository = InMemoryAccountRepository
+                .create(new Account("account456", BALANCE_MINOR_UNITS, "client123", LocalDateTime.now(), 0L, 0L));
+        AccountTransactionEngine transactionEngine = new AccountTransactionEngine(accountRepository, Runnable::run,
+                100);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OptimisticRetry optimisticRetry = new OptimisticRetry(meterRegistry, 3, 0, 0);
+        accountService = new AccountService(accountRepository, null, null, null, null, new DtoMapper(),
+                transactionEngine, optimisticRetry, new ConcurrentMapCacheManager(), meterRegistry);
+        transaction = new CreateTransactionDto("client123", "account456", AMOUNT);
+    }
+
+    @Benchmark
+    public StatementDto deposit() {
+        return accountService.performTransaction(transaction, TransactionType.DEPOSIT);
+    }
+
+    @Benchmark
+    public StatementDto withdraw() {
+        return accountService.performTransaction(transaction, TransactionType.WITHDRAW);
+    }
+
+    @Benchmark
+    public void validateDeposit() {
+        AccountService.validateAmount(AMOUNT_MINOR_UNITS, TransactionType.DEPOSIT, BALANCE_MINOR_UNITS);
+    }
+
+    @Benchmark
+    public void validateWithdrawal() {
+        AccountService.validateAmount(AMOUNT_MINOR_UNITS, TransactionType.WITHDRAW, BALANCE_MINOR_UNITS);
+    }
+}
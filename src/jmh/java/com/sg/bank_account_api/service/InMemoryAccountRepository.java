@@ -0,0 +1,66 @@
+package com.sg.bank_account_api.service;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.repository.AccountRepository;
+
+/**
+ * Dépôt de comptes en mémoire pour les benchmarks : seules les opérations
+ * utilisées par les transactions sont implémentées, avec les mêmes règles que
+ * la mise à jour conditionnelle MongoDB (client du compte, solde positif après
+ * chaque retrait)
+ */
+final class InMemoryAccountRepository {
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+
+    private InMemoryAccountRepository() {
+    }
+
+    static AccountRepository create(Account... initialAccounts) {
+        InMemoryAccountRepository store = new InMemoryAccountRepository();
+        for (Account account : initialAccounts) {
+            store.accounts.put(account.id(), account);
+        }
+        return (AccountRepository) Proxy.newProxyInstance(AccountRepository.class.getClassLoader(),
+                new Class<?>[] { AccountRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(store.accounts.get((String) args[0]));
+                    case "applyTransaction" -> store.applyTransactions((String) args[0], (String) args[1],
+                            new long[] { (Long) args[2] }, (LocalDateTime) args[3]).map(List::getFirst);
+                    case "applyTransactions" -> store.applyTransactions((String) args[0], (String) args[1],
+                            (long[]) args[2], (LocalDateTime) args[3]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private Optional<List<Statement>> applyTransactions(String accountId, String clientId, long[] amounts,
+            LocalDateTime date) {
+        List<Statement> statements = new ArrayList<>(amounts.length);
+        Account updated = accounts.computeIfPresent(accountId, (id, account) -> {
+            if (!account.clientId().equals(clientId)) {
+                return account;
+            }
+            long balance = account.balance();
+            long sequence = account.sequence();
+            List<Statement> applied = new ArrayList<>(amounts.length);
+            for (long amount : amounts) {
+                balance = Math.addExact(balance, amount);
+                if (amount < 0 && balance <= 0) {
+                    return account;
+                }
+                applied.add(new Statement(null, id, ++sequence, date, amount, balance));
+            }
+            statements.addAll(applied);
+            return new Account(id, balance, account.clientId(), account.date(), sequence, account.version() + 1);
+        });
+        return updated == null || statements.isEmpty() ? Optional.empty() : Optional.of(statements);
+    }
+}
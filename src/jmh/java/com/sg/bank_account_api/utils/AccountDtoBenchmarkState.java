@@ -0,0 +1,43 @@
+package com.sg.bank_account_api.utils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+
+/**
+ * Compte et historique de taille historySize, partagés par les benchmarks de
+ * mapping et de sérialisation
+ */
+@State(Scope.Benchmark)
+public class AccountDtoBenchmarkState {
+
+    @Param({ "10", "1000", "100000" })
+    public int historySize;
+
+    Account account;
+    Client client;
+    List<Statement> statements;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 9, 0);
+        statements = new ArrayList<>(historySize);
+        long balance = 0;
+        for (int i = 1; i <= historySize; i++) {
+            long amount = i % 3 == 0 ? -525 : 1250;
+            balance += amount;
+            statements.add(new Statement("statement" + i, "account456", i, date.plusMinutes(i), amount, balance));
+        }
+        client = new Client("client123", "Doe", "John", date);
+        account = new Account("account456", balance, client.id(), date, historySize, (long) historySize);
+    }
+}
@@ -0,0 +1,75 @@
+package com.sg.bank_account_api.utils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sg.bank_account_api.dto.AccountDto;
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+
+/**
+ * Compare JSON, CBOR et Smile sur un relevé complet : écriture d'AccountDto et
+ * du relevé de l'API (AccountStatementsDto), lecture d'AccountDto. La taille
+ * du relevé dans chaque format est affichée au démarrage de chaque essai
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountDtoFormatBenchmark {
+
+    @Param({ "json", "cbor", "smile" })
+    public String format;
+
+    private final DtoMapper mapper = new DtoMapper();
+
+    private ObjectMapper objectMapper;
+    private AccountDto accountDto;
+    private AccountStatementsDto accountStatementsDto;
+    private byte[] payload;
+
+    @Setup
+    public void setUp(AccountDtoBenchmarkState state) throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            default -> JsonMapper.builder().findAndAddModules().build();
+        };
+        accountDto = mapper.accountToDto(state.account, state.client, state.statements);
+        accountStatementsDto = mapper.accountToStatementsDto(state.account, state.client, state.statements);
+        payload = objectMapper.writeValueAsBytes(accountDto);
+        System.out.printf("%n%s, %d opérations : %d octets%n", format, state.historySize, payload.length);
+    }
+
+    @Benchmark
+    public byte[] writeAccountDto() throws IOException {
+        return objectMapper.writeValueAsBytes(accountDto);
+    }
+
+    @Benchmark
+    public byte[] writeAccountStatementsDto() throws IOException {
+        return objectMapper.writeValueAsBytes(accountStatementsDto);
+    }
+
+    @Benchmark
+    public AccountDto readAccountDto() throws IOException {
+        return objectMapper.readValue(payload, AccountDto.class);
+    }
+}
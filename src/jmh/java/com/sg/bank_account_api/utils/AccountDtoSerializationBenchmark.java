@@ -0,0 +1,64 @@
+package com.sg.bank_account_api.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sg.bank_account_api.dto.AccountDto;
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+
+/**
+ * Coût de la sérialisation JSON d'un relevé complet (AccountDto), selon la
+ * taille de l'historique. L'ObjectMapper est configuré comme celui de
+ * l'application (modules trouvés sur le classpath). Le relevé de l'API
+ * (AccountStatementsDto, écrit sans DTO intermédiaire) est comparé au mapping
+ * suivi de la sérialisation d'AccountDto ; -prof gc donne les allocations
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountDtoSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private final DtoMapper mapper = new DtoMapper();
+
+    private AccountDto accountDto;
+
+    @Setup
+    public void setUp(AccountDtoBenchmarkState state) {
+        accountDto = mapper.accountToDto(state.account, state.client, state.statements);
+    }
+
+    @Benchmark
+    public byte[] writeAccountDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(accountDto);
+    }
+
+    @Benchmark
+    public byte[] mapAndWriteAccountDto(AccountDtoBenchmarkState state) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapper.accountToDto(state.account, state.client, state.statements));
+    }
+
+    @Benchmark
+    public byte[] writeAccountStatementsDto(AccountDtoBenchmarkState state) throws JsonProcessingException {
+        AccountStatementsDto statements = mapper.accountToStatementsDto(state.account, state.client,
+                state.statements);
+        return objectMapper.writeValueAsBytes(statements);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sg.bank_account_api.utils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sg.bank_account_api.dto.AccountDto;
+import com.sg.bank_account_api.dto.StatementDto;
+
+/**
+ * Coût du mapping d'un compte et de son historique en DTO, selon la taille de
+ * l'historique
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private final DtoMapper mapper = new DtoMapper();
+
+    @Benchmark
+    public AccountDto accountToDto(AccountDtoBenchmarkState state) {
+        return mapper.accountToDto(state.account, state.client, state.statements);
+    }
+
+    @Benchmark
+    public List<StatementDto> toStatementDtoList(AccountDtoBenchmarkState state) {
+        return mapper.toStatementDtoList(state.statements);
+    }
+}
@@ -0,0 +1,76 @@
+package com.sg.bank_account_api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.CodecConfigurer.CustomCodecs;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Formats binaires des réponses : selon l'en-tête Accept, les mêmes points de
+ * terminaison répondent en CBOR (application/cbor) ou en Smile
+ * (application/x-jackson-smile) au lieu de JSON. Les ObjectMapper sont
+ * construits comme celui de l'application (modules, dates, spring.jackson.*) ;
+ * les montants y sont écrits comme des décimaux binaires, sans passer par une
+ * chaîne de caractères
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    static class Servlet {
+
+        // remplacent les convertisseurs par défaut de Spring MVC, construits sans
+        // la configuration Jackson de l'application
+        @Bean
+        public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+        }
+
+        @Bean
+        public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+                Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = Type.REACTIVE)
+    static class Reactive {
+
+        @Bean
+        public CodecCustomizer binaryFormatCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+            ObjectMapper cbor = cborMapper(builder);
+            ObjectMapper smile = smileMapper(builder);
+            return configurer -> {
+                CustomCodecs codecs = configurer.customCodecs();
+                codecs.registerWithDefaultConfig(new Jackson2CborEncoder(cbor, MediaType.APPLICATION_CBOR));
+                codecs.registerWithDefaultConfig(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+                codecs.registerWithDefaultConfig(new Jackson2SmileEncoder(smile));
+                codecs.registerWithDefaultConfig(new Jackson2SmileDecoder(smile));
+            };
+        }
+    }
+}
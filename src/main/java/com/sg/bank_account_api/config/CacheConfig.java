@@ -0,0 +1,18 @@
+package com.sg.bank_account_api.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration des caches (Caffeine, voir spring.cache.* dans
+ * application.properties). spring.cache.type=none désactive les caches
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // comptes, sans leur historique
+    public static final String ACCOUNTS = "accounts";
+
+    public static final String CLIENTS = "clients";
+}
@@ -0,0 +1,26 @@
+package com.sg.bank_account_api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions.BigDecimalRepresentation;
+
+/**
+ * Configuration du mapping MongoDB
+ */
+@Configuration
+public class MongoConfig {
+
+    /**
+     * Les soldes et les montants des comptes et des opérations sont stockés en
+     * centimes (long). Les BigDecimal qui restent dans les documents (réponses
+     * enregistrées des requêtes idempotentes, IdempotencyRecord.response) sont
+     * stockés en Decimal128 plutôt qu'en String
+     *
+     * @return MongoCustomConversions
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return MongoCustomConversions.create(adapter -> adapter.bigDecimal(BigDecimalRepresentation.DECIMAL128));
+    }
+}
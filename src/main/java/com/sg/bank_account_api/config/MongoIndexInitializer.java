@@ -0,0 +1,39 @@
+package com.sg.bank_account_api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Crée au démarrage, avant que l'API ne reçoive des requêtes, les index
+ * déclarés sur les documents (@Indexed, @CompoundIndex) : aucun index n'est à
+ * créer à la main. Les index existants sont laissés tels quels. Le démarrage
+ * échoue si un index ne peut pas être créé (bank.mongodb.create-indexes=false
+ * pour ne pas les créer)
+ */
+@Component
+@ConditionalOnProperty(name = "bank.mongodb.create-indexes", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @PostConstruct
+    public void createIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (entity.isAnnotationPresent(Document.class)) {
+                resolver.resolveIndexForEntity(entity)
+                        .forEach(index -> mongoTemplate.indexOps(index.getCollection()).createIndex(index));
+            }
+        }
+    }
+}
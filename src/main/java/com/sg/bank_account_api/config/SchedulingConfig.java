@@ -0,0 +1,14 @@
+package com.sg.bank_account_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches périodiques (reprise des virements interrompus, archivage
+ * des opérations)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
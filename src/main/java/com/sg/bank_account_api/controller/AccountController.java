@@ -1,31 +1,67 @@
 package com.sg.bank_account_api.controller;
 
-import com.sg.bank_account_api.dto.AccountDto;
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+import com.sg.bank_account_api.dto.AccountPageDto;
+import com.sg.bank_account_api.dto.BalanceDto;
+import com.sg.bank_account_api.dto.BatchAccountResultDto;
+import com.sg.bank_account_api.dto.BatchTransactionDto;
+import com.sg.bank_account_api.dto.BatchTransactionResultDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreateTransferDto;
 import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.RollupDto;
 import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.dto.StatementPageDto;
+import com.sg.bank_account_api.dto.TransferDto;
 import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.RollupGranularity;
+import com.sg.bank_account_api.model.Statement;
 import com.sg.bank_account_api.model.TransactionType;
 import com.sg.bank_account_api.service.IAccountService;
+import com.sg.bank_account_api.service.IClientService;
+import com.sg.bank_account_api.service.IIdempotencyService;
+import com.sg.bank_account_api.service.IRollupService;
+import com.sg.bank_account_api.service.ITransferService;
 import com.sg.bank_account_api.utils.DtoMapper;
+import com.sg.bank_account_api.utils.StatementExporter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/account")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AccountController {
 
+    // clé fournie par le client pour qu'une transaction renvoyée ne soit exécutée qu'une fois
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final IAccountService service;
+    private final IClientService clientService;
+    private final IIdempotencyService idempotencyService;
+    private final ITransferService transferService;
+    private final IRollupService rollupService;
     private final DtoMapper mapper;
+    private final StatementExporter exporter;
 
     /**
      * Endpoint de creation du compte. il faut fournir les nom et/ou prenom du
@@ -40,32 +76,116 @@ public class AccountController {
         return new ResponseEntity<>(createdAccount, HttpStatus.CREATED);
     }
 
+    /**
+     * Endpoint de creation de comptes en masse. il faut fournir les nom et prenom
+     * de chaque client. Le compte créé ou l'erreur de chaque client est renvoyé,
+     * dans l'ordre du lot
+     *
+     * @param dtos
+     * @return
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchAccountResultDto>> createAll(@RequestBody List<CreateClientDto> dtos) {
+        return ResponseEntity.ok(service.createAccounts(dtos));
+    }
+
     /**
      * Endpoint pour effectuer un depot. il faut fournir le numéro du compte,
-     * l'identifiant du client et le montant
+     * l'identifiant du client et le montant. Avec l'en-tête Idempotency-Key, un
+     * dépôt renvoyé avec la même clé n'est exécuté qu'une fois
      *
      * @param dto
+     * @param idempotencyKey
      * @return
      */
     @PostMapping("/deposit")
-    public ResponseEntity<StatementDto> deposit(@RequestBody CreateTransactionDto dto) {
-        StatementDto statement = service.performTransaction(dto, TransactionType.DEPOSIT);
+    public ResponseEntity<StatementDto> deposit(@RequestBody CreateTransactionDto dto,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        StatementDto statement = performTransaction(dto, TransactionType.DEPOSIT, idempotencyKey);
         return new ResponseEntity<>(statement, HttpStatus.OK);
     }
 
     /**
      * Endpoint pour effectuer un retrait. il faut fournir le numéro du compte,
-     * l'identifiant du client et le montant
+     * l'identifiant du client et le montant. Avec l'en-tête Idempotency-Key, un
+     * retrait renvoyé avec la même clé n'est exécuté qu'une fois
      *
      * @param dto
+     * @param idempotencyKey
      * @return
      */
     @PostMapping("/withdraw")
-    public ResponseEntity<StatementDto> withdraw(@RequestBody CreateTransactionDto dto) {
-        StatementDto statement = service.performTransaction(dto, TransactionType.WITHDRAW);
+    public ResponseEntity<StatementDto> withdraw(@RequestBody CreateTransactionDto dto,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        StatementDto statement = performTransaction(dto, TransactionType.WITHDRAW, idempotencyKey);
         return new ResponseEntity<>(statement, HttpStatus.OK);
     }
 
+    /**
+     * Endpoint pour effectuer un virement d'un compte du client vers un autre
+     * compte. il faut fournir l'identifiant du client, les numéros des deux
+     * comptes et le montant
+     *
+     * @param dto
+     * @return
+     */
+    @PostMapping("/transfer")
+    public ResponseEntity<TransferDto> transfer(@RequestBody CreateTransferDto dto) {
+        return ResponseEntity.ok(transferService.transfer(dto));
+    }
+
+    private StatementDto performTransaction(CreateTransactionDto dto, TransactionType type, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return service.performTransaction(dto, type);
+        }
+        return idempotencyService.execute(idempotencyKey, dto, type, () -> service.performTransaction(dto, type));
+    }
+
+    /**
+     * Endpoint pour effectuer un lot de dépôts et de retraits. il faut fournir,
+     * pour chaque transaction, son type, le numéro du compte, l'identifiant du
+     * client et le montant. Le résultat de chaque transaction est renvoyé
+     * (opération ou erreur), dans l'ordre du lot
+     *
+     * @param transactions
+     * @return
+     */
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<List<BatchTransactionResultDto>> batch(@RequestBody List<BatchTransactionDto> transactions) {
+        return ResponseEntity.ok(service.performTransactions(transactions));
+    }
+
+    /**
+     * Endpoint qui permet de retourner le solde courant d'un compte, sans son
+     * historique
+     *
+     * @param accountId
+     * @return
+     */
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<BalanceDto> balance(@PathVariable String accountId) {
+        return ResponseEntity.ok(service.getBalance(accountId));
+    }
+
+    /**
+     * Endpoint qui permet de retourner les cumuls d'un compte par jour ou par mois
+     * (MONTH par défaut) : nombre d'opérations, total des dépôts et des retraits
+     * et solde en fin de période. Les dates de début et de fin sont facultatives
+     *
+     * @param accountId
+     * @param granularity
+     * @param from
+     * @param to
+     * @return
+     */
+    @GetMapping("/{accountId}/rollups")
+    public ResponseEntity<List<RollupDto>> rollups(@PathVariable String accountId,
+            @RequestParam(defaultValue = "MONTH") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(rollupService.getRollups(accountId, granularity, from, to));
+    }
+
     /**
      * Endpoint qui permet de retourner l'état et les informations d'un compte à
      * partir de son numero de compte
@@ -74,9 +194,89 @@ public class AccountController {
      * @return
      */
     @GetMapping("/statement/{accountId}")
-    public ResponseEntity<AccountDto> printStatement(@PathVariable String accountId) {
+    public ResponseEntity<AccountStatementsDto> printStatement(@PathVariable String accountId) {
         Account account = service.getAccountById(accountId);
-        return ResponseEntity.ok(mapper.accountToDto(account));
+        List<Statement> statements = service.getStatements(accountId);
+        // les opérations sont écrites directement dans la réponse, sans StatementDto
+        return ResponseEntity.ok(mapper.accountToStatementsDto(account,
+                clientService.getClientById(account.clientId()), statements));
+    }
+
+    /**
+     * Endpoint qui permet de lister les comptes d'un client (numéro, solde et
+     * date de création) page par page, du plus ancien au plus récent. Pour les
+     * pages suivantes, il faut fournir le curseur renvoyé par la page précédente
+     *
+     * @param clientId
+     * @param size
+     * @param cursor
+     * @return
+     */
+    @GetMapping("/client/{clientId}")
+    public ResponseEntity<AccountPageDto> getAccountsByClient(@PathVariable String clientId,
+            @RequestParam(defaultValue = "20") int size, @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(service.getAccountsByClient(clientId, size, cursor));
+    }
+
+    /**
+     * Endpoint qui permet de parcourir l'historique d'un compte page par page, de
+     * la plus récente à la plus ancienne opération. il faut fournir la taille de
+     * page et, pour les pages suivantes, le curseur renvoyé par la page précédente
+     *
+     * @param accountId
+     * @param size
+     * @param cursor
+     * @return
+     */
+    @GetMapping(value = "/statement/{accountId}", params = "size")
+    public ResponseEntity<StatementPageDto> printStatementPage(@PathVariable String accountId,
+            @RequestParam int size, @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(service.getStatementPage(accountId, size, cursor));
+    }
+
+    /**
+     * Endpoint qui permet de rechercher les opérations d'un compte entre deux
+     * dates (incluses), dans l'ordre. Le type (DEPOSIT ou WITHDRAW) et les bornes
+     * du montant (en valeur absolue) sont facultatifs
+     *
+     * @param accountId
+     * @param from
+     * @param to
+     * @param type
+     * @param minAmount
+     * @param maxAmount
+     * @return
+     */
+    @GetMapping("/statement/{accountId}/search")
+    public ResponseEntity<List<StatementDto>> searchStatements(@PathVariable String accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount) {
+        return ResponseEntity.ok(service.searchStatements(accountId, from, to, type, minAmount, maxAmount));
+    }
+
+    /**
+     * Endpoint qui permet d'exporter tout l'historique d'un compte au format
+     * NDJSON (une opération par ligne). Les opérations sont écrites au fil de la
+     * lecture, la mémoire utilisée ne dépend pas de la taille de l'historique
+     *
+     * @param accountId
+     * @return
+     */
+    @GetMapping(value = "/statement/{accountId}/export", produces = StatementExporter.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportStatement(@PathVariable String accountId) {
+        Stream<Statement> statements = service.streamStatements(accountId);
+        StreamingResponseBody body = out -> {
+            // le curseur est fermé à la fin de l'export ou si le client se déconnecte
+            try (statements) {
+                exporter.writeNdjson(statements, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(StatementExporter.NDJSON_MEDIA_TYPE))
+                .body(body);
     }
 
 }
@@ -0,0 +1,38 @@
+package com.sg.bank_account_api.controller;
+
+import com.sg.bank_account_api.dto.ClientPageDto;
+import com.sg.bank_account_api.service.IClientService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/client")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientController {
+
+    private final IClientService service;
+
+    /**
+     * Endpoint de recherche des clients par début du nom et/ou du prénom, sans
+     * tenir compte des majuscules ni des accents. il faut fournir la taille de
+     * page et, pour les pages suivantes, le curseur renvoyé par la page précédente
+     *
+     * @param lastname
+     * @param firstname
+     * @param size
+     * @param cursor
+     * @return
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ClientPageDto> searchClients(@RequestParam(required = false) String lastname,
+            @RequestParam(required = false) String firstname, @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(service.searchClients(lastname, firstname, size, cursor));
+    }
+}
@@ -0,0 +1,90 @@
+package com.sg.bank_account_api.controller;
+
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+import com.sg.bank_account_api.dto.CreateClientDto;
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.service.IReactiveAccountService;
+import com.sg.bank_account_api.utils.DtoMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+/**
+ * Mêmes endpoints qu'AccountController, en mode réactif (profil reactive) :
+ * aucun thread n'est bloqué pendant les accès à MongoDB
+ */
+@RestController
+@RequestMapping("/account")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountController {
+
+    private final IReactiveAccountService service;
+    private final DtoMapper mapper;
+
+    /**
+     * Endpoint de creation du compte. il faut fournir les nom et prenom du client
+     *
+     * @param dto
+     * @return
+     */
+    @PostMapping()
+    public Mono<ResponseEntity<CreatedAccountDto>> create(@RequestBody CreateClientDto dto) {
+        return service.createAccount(dto)
+                .map(createdAccount -> new ResponseEntity<>(createdAccount, HttpStatus.CREATED));
+    }
+
+    /**
+     * Endpoint pour effectuer un depot. il faut fournir le numéro du compte,
+     * l'identifiant du client et le montant
+     *
+     * @param dto
+     * @return
+     */
+    @PostMapping("/deposit")
+    public Mono<ResponseEntity<StatementDto>> deposit(@RequestBody CreateTransactionDto dto) {
+        return service.performTransaction(dto, TransactionType.DEPOSIT).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint pour effectuer un retrait. il faut fournir le numéro du compte,
+     * l'identifiant du client et le montant
+     *
+     * @param dto
+     * @return
+     */
+    @PostMapping("/withdraw")
+    public Mono<ResponseEntity<StatementDto>> withdraw(@RequestBody CreateTransactionDto dto) {
+        return service.performTransaction(dto, TransactionType.WITHDRAW).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint qui permet de retourner l'état et les informations d'un compte à
+     * partir de son numero de compte
+     *
+     * @param accountId
+     * @return
+     */
+    @GetMapping("/statement/{accountId}")
+    public Mono<ResponseEntity<AccountStatementsDto>> printStatement(@PathVariable String accountId) {
+        // le client est lu après le compte, l'historique en parallèle
+        return service.getAccountById(accountId)
+                .flatMap(account -> service.getClientById(account.clientId())
+                        .map(client -> Tuples.of(account, client)))
+                .zipWith(service.getStatements(accountId).collectList())
+                .map(result -> ResponseEntity.ok(mapper.accountToStatementsDto(result.getT1().getT1(),
+                        result.getT1().getT2(), result.getT2())));
+    }
+}
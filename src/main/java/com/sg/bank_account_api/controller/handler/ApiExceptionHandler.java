@@ -4,41 +4,74 @@ import com.sg.bank_account_api.dto.ErrorResponse;
 import com.sg.bank_account_api.exceptions.AccountNotFoundException;
 import com.sg.bank_account_api.exceptions.AmountException;
 import com.sg.bank_account_api.exceptions.ClientNotFoundException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.exceptions.IdempotencyKeyException;
 import com.sg.bank_account_api.exceptions.TransactionTypeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 /**
- * Classe qui gère les exceptions levées
+ * Classe qui gère les exceptions levées. Chaque exception traitée est comptée
+ * (bank.api.errors, tags exception et status)
  */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class ApiExceptionHandler {
 
+    static final String ERRORS_COUNTER = "bank.api.errors";
+
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(exception = {
             AccountNotFoundException.class,
             ClientNotFoundException.class})
     public ResponseEntity<ErrorResponse> notFoundException(Exception ex) {
-        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getLocalizedMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return errorResponse(HttpStatus.NOT_FOUND, ex);
     }
 
     @ExceptionHandler(exception = {
             TransactionTypeException.class,
             AmountException.class,
             IllegalArgumentException.class,
-            HttpMessageNotReadableException.class
+            HttpMessageNotReadableException.class,
+            MethodArgumentTypeMismatchException.class,
+            MissingServletRequestParameterException.class,
+            ServerWebInputException.class
     })
     public ResponseEntity<ErrorResponse> transactionTypeOrBadAmountException(Exception ex) {
-        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getLocalizedMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return errorResponse(HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(exception = {
+            ConcurrentUpdateException.class,
+            OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> conflictException(Exception ex) {
+        return errorResponse(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(exception = {IdempotencyKeyException.class})
+    public ResponseEntity<ErrorResponse> unprocessableException(Exception ex) {
+        return errorResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex);
     }
 
     @ExceptionHandler(exception = {Exception.class})
     public ResponseEntity<ErrorResponse> anotherException(Exception ex) {
-        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), ex.getLocalizedMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, ex);
+    }
+
+    private ResponseEntity<ErrorResponse> errorResponse(HttpStatus status, Exception ex) {
+        meterRegistry.counter(ERRORS_COUNTER, "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+        ErrorResponse errorResponse = new ErrorResponse(status.value(), ex.getLocalizedMessage());
+        return new ResponseEntity<>(errorResponse, status);
     }
 }
@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.dto;
+
+import java.util.List;
+
+/**
+ * Page des comptes d'un client (du plus ancien au plus récent) et curseur de
+ * la page suivante (null s'il n'y en a plus)
+ */
+public record AccountPageDto(List<BalanceDto> accounts, String nextCursor) {
+
+}
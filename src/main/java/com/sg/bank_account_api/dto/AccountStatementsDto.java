@@ -0,0 +1,19 @@
+package com.sg.bank_account_api.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.utils.AccountStatementsSerializer;
+
+/**
+ * Relevé d'un compte, sérialisé comme {@link AccountDto} mais écrit
+ * directement à partir du compte, du client et des opérations : aucun
+ * StatementDto ni aucune liste intermédiaire n'est créé
+ */
+@JsonSerialize(using = AccountStatementsSerializer.class)
+public record AccountStatementsDto(Account account, Client client, List<Statement> statements) {
+
+}
@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Solde courant d'un compte, sans son historique
+ */
+public record BalanceDto(String accountId, String clientId, BigDecimal balance, LocalDateTime date) {
+
+}
@@ -0,0 +1,9 @@
+package com.sg.bank_account_api.dto;
+
+/**
+ * Résultat d'une ouverture de compte d'un lot : le compte créé ou l'erreur,
+ * index étant la position du client dans le lot
+ */
+public record BatchAccountResultDto(int index, CreatedAccountDto account, ErrorResponse error) {
+
+}
@@ -0,0 +1,13 @@
+package com.sg.bank_account_api.dto;
+
+import java.math.BigDecimal;
+
+import com.sg.bank_account_api.model.TransactionType;
+
+/**
+ * Transaction d'un lot : comme CreateTransactionDto, avec son type (DEPOSIT ou
+ * WITHDRAW)
+ */
+public record BatchTransactionDto(TransactionType type, String clientId, String accountId, BigDecimal amount) {
+
+}
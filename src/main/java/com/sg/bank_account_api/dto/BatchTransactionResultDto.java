@@ -0,0 +1,9 @@
+package com.sg.bank_account_api.dto;
+
+/**
+ * Résultat d'une transaction d'un lot : l'opération enregistrée ou l'erreur,
+ * index étant la position de la transaction dans le lot
+ */
+public record BatchTransactionResultDto(int index, StatementDto statement, ErrorResponse error) {
+
+}
@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.dto;
+
+import java.util.List;
+
+/**
+ * Page de résultats de la recherche de clients et curseur de la page suivante
+ * (null s'il n'y en a plus)
+ */
+public record ClientPageDto(List<ClientDto> clients, String nextCursor) {
+
+}
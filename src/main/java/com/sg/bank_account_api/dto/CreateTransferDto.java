@@ -0,0 +1,7 @@
+package com.sg.bank_account_api.dto;
+
+import java.math.BigDecimal;
+
+public record CreateTransferDto(String clientId, String fromAccountId, String toAccountId, BigDecimal amount) {
+
+}
@@ -0,0 +1,13 @@
+package com.sg.bank_account_api.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Cumul des opérations d'un compte sur une période (yyyy-MM-dd ou yyyy-MM) :
+ * nombre d'opérations, total des dépôts, total des retraits et solde en fin de
+ * période
+ */
+public record RollupDto(String period, long count, BigDecimal deposits, BigDecimal withdrawals,
+        BigDecimal closingBalance) {
+
+}
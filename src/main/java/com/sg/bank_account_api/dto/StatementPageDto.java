@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.dto;
+
+import java.util.List;
+
+/**
+ * Page de relevé : les opérations (de la plus récente à la plus ancienne) et le
+ * curseur de la page suivante (null s'il n'y en a plus)
+ */
+public record StatementPageDto(List<StatementDto> statements, String nextCursor) {
+
+}
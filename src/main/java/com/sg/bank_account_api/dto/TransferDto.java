@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.sg.bank_account_api.model.TransferStatus;
+
+public record TransferDto(String transferId, String fromAccountId, String toAccountId, BigDecimal amount,
+        TransferStatus status, LocalDateTime date) {
+
+}
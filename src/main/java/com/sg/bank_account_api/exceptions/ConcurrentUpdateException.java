@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.exceptions;
+
+/**
+ * Classe qui permet de remonter les modifications concurrentes d'un compte
+ * lorsque les nouvelles tentatives ont échoué
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String cause) {
+        super(cause);
+    }
+}
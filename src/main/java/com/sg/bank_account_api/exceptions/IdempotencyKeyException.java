@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.exceptions;
+
+/**
+ * Classe qui permet de remonter la réutilisation d'une clé d'idempotence pour
+ * une requête différente
+ */
+public class IdempotencyKeyException extends RuntimeException {
+    public IdempotencyKeyException(String cause) {
+        super(cause);
+    }
+}
@@ -1,14 +1,34 @@
 package com.sg.bank_account_api.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-
+/**
+ * Compte bancaire. Le solde est en centimes (voir {@link Money}). Le client
+ * n'est pas embarqué : clientId référence la collection clients, le client
+ * n'est lu que pour les réponses qui le contiennent. L'historique n'est pas
+ * embarqué non plus : sequence est le numéro de la dernière opération
+ * enregistrée dans la collection statements. version est incrémentée à chaque
+ * écriture (verrouillage optimiste). pendingTransfers contient les étapes des
+ * virements en cours déjà appliquées au compte, pour qu'elles ne le soient
+ * qu'une fois
+ */
 @Document(collection = "accounts")
-public record Account(@Id String id, BigDecimal balance, Client client, LocalDateTime date, List<Statement> statements) {
+@CompoundIndex(name = "client_date", def = "{'clientId': 1, 'date': 1}")
+public record Account(@Id String id, long balance, String clientId, LocalDateTime date, long sequence,
+        @Version Long version, List<String> pendingTransfers) {
+
+    @PersistenceCreator
+    public Account {
+    }
 
+    public Account(String id, long balance, String clientId, LocalDateTime date, long sequence, Long version) {
+        this(id, balance, clientId, date, sequence, version, null);
+    }
 }
@@ -1,11 +1,63 @@
 package com.sg.bank_account_api.model;
 
+import java.text.Normalizer;
 import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+/**
+ * Client. searchKey contient le nom et le prénom normalisés (minuscules, sans
+ * accents) pour la recherche par préfixe : il est calculé à la création et
+ * indexé dans les deux ordres (nom puis prénom, prénom puis nom)
+ */
 @Document(collection = "clients")
-public record Client(@Id String id, String lastname, String firstname, LocalDateTime date) {
+@CompoundIndex(name = "search_lastname_firstname", def = "{'searchKey.lastname': 1, 'searchKey.firstname': 1, '_id': 1}")
+@CompoundIndex(name = "search_firstname_lastname", def = "{'searchKey.firstname': 1, 'searchKey.lastname': 1, '_id': 1}")
+public record Client(@Id String id, String lastname, String firstname, LocalDateTime date, SearchKey searchKey) {
 
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    @PersistenceCreator
+    public Client {
+        // les clients enregistrés avant l'ajout de la clé la reçoivent à la lecture
+        if (searchKey == null) {
+            searchKey = SearchKey.of(lastname, firstname);
+        }
+    }
+
+    public Client(String id, String lastname, String firstname, LocalDateTime date) {
+        this(id, lastname, firstname, date, null);
+    }
+
+    /**
+     * Nom et prénom normalisés du client
+     */
+    public record SearchKey(String lastname, String firstname) {
+
+        public static SearchKey of(String lastname, String firstname) {
+            return new SearchKey(normalize(lastname), normalize(firstname));
+        }
+    }
+
+    /**
+     * Forme d'un nom utilisée pour la recherche : sans accents, en minuscules,
+     * les espaces consécutifs réduits à un seul ("  Élodie  Marie" donne
+     * "elodie marie")
+     *
+     * @param name
+     * @return le nom normalisé ("" si name est null)
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutMarks.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,21 @@
+package com.sg.bank_account_api.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.sg.bank_account_api.dto.StatementDto;
+
+/**
+ * Résultat d'une transaction envoyée avec une clé d'idempotence. fingerprint
+ * identifie la requête (type, compte, client et montant) ; response est vide
+ * tant que la transaction est en cours. Le document est supprimé par MongoDB à
+ * expiresAt (index TTL)
+ */
+@Document(collection = "idempotency_keys")
+public record IdempotencyRecord(@Id String key, String fingerprint, StatementDto response,
+        @Indexed(expireAfter = "0s") LocalDateTime expiresAt) {
+
+}
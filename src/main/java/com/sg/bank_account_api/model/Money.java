@@ -0,0 +1,95 @@
+package com.sg.bank_account_api.model;
+
+import java.math.BigDecimal;
+
+import com.sg.bank_account_api.exceptions.AmountException;
+
+/**
+ * Les montants sont stockés en centimes dans un long (int64 dans MongoDB, que
+ * $inc sait incrémenter). Les conversions depuis et vers les montants décimaux
+ * des DTO se font uniquement aux bords de l'API ; les calculs sont vérifiés
+ * (aucun dépassement silencieux)
+ */
+public final class Money {
+
+    // nombre de décimales d'un montant (centimes)
+    public static final int SCALE = 2;
+
+    // nombre maximum de caractères d'un montant écrit par toDecimalChars
+    public static final int DECIMAL_CHARS = 21;
+
+    private Money() {
+    }
+
+    /**
+     * Convertit un montant décimal en centimes
+     *
+     * @param amount
+     * @return le montant en centimes
+     * @throws AmountException si le montant a plus de deux décimales ou ne tient
+     *                         pas dans un long
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new AmountException("Amount must have at most " + SCALE + " decimals and must be <= "
+                    + toDecimal(Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Convertit un montant en centimes en montant décimal (pour les DTO)
+     *
+     * @param minorUnits
+     * @return BigDecimal
+     */
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Ecrit un montant en centimes sous forme décimale ("-12.34"), comme
+     * toDecimal(minorUnits).toString(), sans créer de BigDecimal ni de String
+     *
+     * @param minorUnits
+     * @param buffer     (au moins DECIMAL_CHARS caractères)
+     * @return le nombre de caractères écrits au début de buffer
+     */
+    public static int toDecimalChars(long minorUnits, char[] buffer) {
+        // calcul sur la valeur négative : -Long.MIN_VALUE ne tient pas dans un long
+        long negative = minorUnits < 0 ? minorUnits : -minorUnits;
+        int position = DECIMAL_CHARS;
+        for (int i = 0; i < SCALE; i++) {
+            buffer[--position] = (char) ('0' - negative % 10);
+            negative /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' - negative % 10);
+            negative /= 10;
+        } while (negative != 0);
+        if (minorUnits < 0) {
+            buffer[--position] = '-';
+        }
+        int length = DECIMAL_CHARS - position;
+        System.arraycopy(buffer, position, buffer, 0, length);
+        return length;
+    }
+
+    /**
+     * Additionne deux montants en centimes
+     *
+     * @param a
+     * @param b
+     * @return a + b
+     * @throws AmountException en cas de dépassement de capacité
+     */
+    public static long add(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new AmountException("Amount would overflow the balance");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sg.bank_account_api.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Cumul des opérations d'un compte sur une période (jour ou mois) : nombre
+ * d'opérations, total des dépôts, total des retraits (positif) et solde après
+ * la dernière opération de la période, en centimes. L'identifiant est dérivé
+ * du compte et de la période
+ */
+@Document(collection = "rollups")
+@CompoundIndex(name = "account_granularity_period", def = "{'accountId': 1, 'granularity': 1, 'period': 1}")
+public record Rollup(@Id String id, String accountId, RollupGranularity granularity, String period, long count,
+        long deposits, long withdrawals, Closing closing) {
+
+    /**
+     * Dernière opération de la période et solde après celle-ci. Le numéro est le
+     * premier champ : le plus grand des deux documents est celui de la dernière
+     * opération
+     */
+    public record Closing(long sequence, long balance) {
+    }
+
+    /**
+     * Cumul de la période de l'opération, réduit à cette opération
+     *
+     * @param statement
+     * @param granularity
+     * @return Rollup
+     */
+    public static Rollup of(Statement statement, RollupGranularity granularity) {
+        String period = granularity.period(statement.date());
+        return new Rollup(id(statement.accountId(), period), statement.accountId(), granularity, period, 0L, 0L, 0L,
+                null).plus(statement);
+    }
+
+    public static String id(String accountId, String period) {
+        return accountId + ":" + period;
+    }
+
+    /**
+     * @param statement (de la même période)
+     * @return le cumul, opération comprise
+     */
+    public Rollup plus(Statement statement) {
+        long amount = statement.amount();
+        Closing last = closing == null || statement.sequence() > closing.sequence()
+                ? new Closing(statement.sequence(), statement.balance())
+                : closing;
+        return new Rollup(id, accountId, granularity, period, count + 1,
+                amount > 0 ? Money.add(deposits, amount) : deposits,
+                amount < 0 ? Money.add(withdrawals, -amount) : withdrawals, last);
+    }
+}
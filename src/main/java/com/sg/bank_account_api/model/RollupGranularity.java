@@ -0,0 +1,26 @@
+package com.sg.bank_account_api.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Période des cumuls d'un compte : jour (yyyy-MM-dd) ou mois (yyyy-MM). Les
+ * périodes d'une même granularité se trient dans l'ordre chronologique
+ */
+public enum RollupGranularity {
+    DAY,
+    MONTH;
+
+    /**
+     * @param date
+     * @return la période qui contient la date
+     */
+    public String period(LocalDateTime date) {
+        return period(date.toLocalDate());
+    }
+
+    public String period(LocalDate date) {
+        return this == DAY ? date.toString() : YearMonth.from(date).toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.sg.bank_account_api.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Photographie du solde d'un compte (en centimes) après l'opération numéro
+ * sequence. Le solde courant est celui de la dernière photographie plus les
+ * montants des opérations suivantes. L'identifiant est dérivé du compte et du
+ * numéro d'opération : enregistrer deux fois la même photographie la remplace
+ */
+@Document(collection = "snapshots")
+@CompoundIndex(name = "account_sequence", def = "{'accountId': 1, 'sequence': -1}")
+public record Snapshot(@Id String id, String accountId, long sequence, long balance, LocalDateTime date) {
+
+    /**
+     * Photographie du compte après l'opération
+     *
+     * @param statement
+     * @return Snapshot
+     */
+    public static Snapshot of(Statement statement) {
+        return of(statement.accountId(), statement.sequence(), statement.balance(), statement.date());
+    }
+
+    public static Snapshot of(String accountId, long sequence, long balance, LocalDateTime date) {
+        return new Snapshot(accountId + ":" + sequence, accountId, sequence, balance, date);
+    }
+
+    /**
+     * Indique si une photographie doit être prise après l'opération numéro
+     * sequence
+     *
+     * @param sequence
+     * @param interval (nombre d'opérations entre deux photographies, 0 pour
+     *                 aucune)
+     * @return boolean
+     */
+    public static boolean isDue(long sequence, int interval) {
+        return interval > 0 && sequence > 0 && sequence % interval == 0;
+    }
+}
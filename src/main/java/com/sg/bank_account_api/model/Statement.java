@@ -1,8 +1,20 @@
 package com.sg.bank_account_api.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-public record Statement(LocalDateTime date, BigDecimal amount, BigDecimal balance) {
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Opération d'un compte. Les opérations sont stockées dans leur propre
+ * collection (en ajout seul) et numérotées par compte. Le montant et le solde
+ * après l'opération sont en centimes
+ */
+@Document(collection = "statements")
+@CompoundIndex(name = "account_sequence", def = "{'accountId': 1, 'sequence': 1}", unique = true)
+@CompoundIndex(name = "account_date_sequence", def = "{'accountId': 1, 'date': 1, 'sequence': 1}")
+public record Statement(@Id String id, String accountId, long sequence, LocalDateTime date, long amount,
+        long balance) {
 
 }
@@ -0,0 +1,46 @@
+package com.sg.bank_account_api.model;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.sg.bank_account_api.utils.StatementCodec;
+
+/**
+ * Bloc d'opérations archivées d'un compte : des opérations consécutives d'un
+ * même mois (month, au format yyyy-MM), compressées dans data. L'identifiant
+ * est dérivé du compte et du numéro de la première opération : archiver deux
+ * fois le même bloc le remplace
+ */
+@Document(collection = "statement_archives")
+@CompoundIndex(name = "account_sequence", def = "{'accountId': 1, 'firstSequence': 1}")
+@CompoundIndex(name = "account_last_date", def = "{'accountId': 1, 'lastDate': 1}")
+public record StatementArchive(@Id String id, String accountId, String month, long firstSequence,
+        long lastSequence, LocalDateTime firstDate, LocalDateTime lastDate, int count, byte[] data) {
+
+    /**
+     * Bloc contenant les opérations (consécutives, d'un même mois)
+     *
+     * @param accountId
+     * @param statements
+     * @return StatementArchive
+     */
+    public static StatementArchive of(String accountId, List<Statement> statements) {
+        Statement first = statements.getFirst();
+        Statement last = statements.getLast();
+        return new StatementArchive(accountId + ":" + first.sequence(), accountId,
+                YearMonth.from(first.date()).toString(), first.sequence(), last.sequence(), first.date(),
+                last.date(), statements.size(), StatementCodec.encode(statements));
+    }
+
+    /**
+     * @return les opérations du bloc, dans l'ordre
+     */
+    public List<Statement> statements() {
+        return StatementCodec.decode(accountId, data);
+    }
+}
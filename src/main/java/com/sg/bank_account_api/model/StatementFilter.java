@@ -0,0 +1,25 @@
+package com.sg.bank_account_api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Critères de recherche des opérations d'un compte : période [from, to[, type
+ * (signe du montant, tous si null) et bornes du montant en valeur absolue (en
+ * centimes, incluses, sans borne si null)
+ */
+public record StatementFilter(LocalDateTime from, LocalDateTime to, TransactionType type, Long minAmount,
+        Long maxAmount) {
+
+    /**
+     * @param statement
+     * @return true si l'opération satisfait tous les critères
+     */
+    public boolean matches(Statement statement) {
+        long amount = statement.amount();
+        long absolute = Math.abs(amount);
+        return !statement.date().isBefore(from) && statement.date().isBefore(to)
+                && (type == null || (type == TransactionType.DEPOSIT ? amount > 0 : amount < 0))
+                && (minAmount == null || absolute >= minAmount)
+                && (maxAmount == null || absolute <= maxAmount);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sg.bank_account_api.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Virement d'un compte vers un autre. Le montant est en centimes. Le virement
+ * est enregistré avant d'être appliqué et son état avance à chaque étape : un
+ * virement interrompu est repris à partir de son état. owner identifie
+ * l'exécution qui fait avancer le virement, jusqu'à lockedUntil
+ */
+@Document(collection = "transfers")
+@CompoundIndex(name = "status_date", def = "{'status': 1, 'date': 1}")
+public record Transfer(@Id String id, String fromAccountId, String toAccountId, String clientId, long amount,
+        TransferStatus status, LocalDateTime date, String owner, LocalDateTime lockedUntil) {
+
+    public Transfer withStatus(TransferStatus status) {
+        return new Transfer(id, fromAccountId, toAccountId, clientId, amount, status, date, owner, lockedUntil);
+    }
+
+    /**
+     * Identifiant de l'étape du virement sur un compte (debit, credit ou refund)
+     *
+     * @param step
+     * @return String
+     */
+    public String leg(String step) {
+        return id + ":" + step;
+    }
+}
@@ -0,0 +1,10 @@
+package com.sg.bank_account_api.model;
+
+/**
+ * État d'un virement : PENDING (créé), DEBITED (compte source débité),
+ * COMPLETED (compte cible crédité), FAILED (débit refusé) ou REFUNDED (crédit
+ * impossible, compte source remboursé)
+ */
+public enum TransferStatus {
+    PENDING, DEBITED, COMPLETED, FAILED, REFUNDED
+}
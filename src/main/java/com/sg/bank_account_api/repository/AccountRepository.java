@@ -1,11 +1,23 @@
 package com.sg.bank_account_api.repository;
 
+import java.util.stream.Stream;
+
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.sg.bank_account_api.model.Account;
 
 @Repository
-public interface AccountRepository extends MongoRepository<Account, String> {
+public interface AccountRepository extends MongoRepository<Account, String>, AccountRepositoryCustom {
 
+    /**
+     * permet de parcourir les identifiants de tous les comptes avec un curseur
+     * MongoDB (seul l'id des comptes renvoyés est renseigné). Le flux doit être
+     * fermé après usage
+     *
+     * @return Stream<Account>
+     */
+    @Query(value = "{}", fields = "{ '_id': 1 }")
+    Stream<Account> streamIdsBy();
 }
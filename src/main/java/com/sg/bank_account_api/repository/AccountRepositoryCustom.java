@@ -0,0 +1,142 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Statement;
+
+/**
+ * Opérations sur les comptes qui ne passent pas par le chargement du document
+ */
+public interface AccountRepositoryCustom {
+
+    /**
+     * Applique une transaction sans relire le compte : le solde et le numéro
+     * d'opération sont modifiés par une seule mise à jour conditionnelle côté
+     * serveur, puis l'opération est ajoutée à la collection statements. Un
+     * montant négatif (retrait) n'est appliqué que si le solde reste strictement
+     * positif. Si l'opération ne peut être ni journalisée ni ajoutée, la mise à
+     * jour du compte est compensée avant que l'erreur ne soit propagée. Une
+     * transaction trop grande pour le journal est refusée avant toute écriture.
+     *
+     * @param accountId
+     * @param clientId
+     * @param amount    (en centimes, négatif pour un retrait)
+     * @param date
+     * @return l'opération enregistrée, vide si le compte n'existe pas,
+     *         n'appartient pas au client, si le solde est insuffisant ou s'il
+     *         dépasserait la capacité d'un long
+     */
+    Optional<Statement> applyTransaction(String accountId, String clientId, long amount, LocalDateTime date);
+
+    /**
+     * Applique plusieurs transactions d'un même client sur un compte en une seule
+     * mise à jour conditionnelle, puis ajoute toutes les opérations en une seule
+     * insertion. Les transactions sont appliquées dans l'ordre : le lot n'est
+     * appliqué que si le solde reste strictement positif après chaque retrait.
+     *
+     * @param accountId
+     * @param clientId
+     * @param amounts   (en centimes, négatifs pour les retraits)
+     * @param date
+     * @return les opérations enregistrées, dans l'ordre, vide si le compte
+     *         n'existe pas, n'appartient pas au client, si un retrait n'est pas
+     *         couvert ou si le solde dépasserait la capacité d'un long
+     */
+    Optional<List<Statement>> applyTransactions(String accountId, String clientId, long[] amounts,
+            LocalDateTime date);
+
+    /**
+     * Applique le débit d'un virement comme {@link #applyTransaction}, au plus
+     * une fois : la mise à jour enregistre legId sur le compte et est refusée si
+     * legId y est déjà
+     *
+     * @param legId     (identifiant de l'étape)
+     * @param accountId
+     * @param clientId
+     * @param amount    (en centimes, négatif pour un débit)
+     * @param date
+     * @return l'opération enregistrée, vide si la mise à jour est refusée (y
+     *         compris si l'étape a déjà été appliquée)
+     */
+    Optional<Statement> applyTransferLeg(String legId, String accountId, String clientId, long amount,
+            LocalDateTime date);
+
+    /**
+     * Applique le crédit ou le remboursement d'un virement comme
+     * {@link #applyTransferLeg}, sans vérifier à quel client appartient le
+     * compte : le virement a déjà été validé et le compte source débité
+     *
+     * @param legId     (identifiant de l'étape)
+     * @param accountId
+     * @param amount    (en centimes)
+     * @param date
+     * @return l'opération enregistrée, vide si la mise à jour est refusée (y
+     *         compris si l'étape a déjà été appliquée)
+     */
+    Optional<Statement> applyTransferCredit(String legId, String accountId, long amount, LocalDateTime date);
+
+    /**
+     * Indique si une étape de virement a déjà été appliquée au compte
+     *
+     * @param accountId
+     * @param legId
+     * @return boolean
+     */
+    boolean hasTransferLeg(String accountId, String legId);
+
+    /**
+     * Retire du compte les étapes d'un virement terminé
+     *
+     * @param accountId
+     * @param legIds
+     */
+    void clearTransferLegs(String accountId, String... legIds);
+
+    /**
+     * Remplace le solde et le numéro de la dernière opération d'un compte, si le
+     * compte n'a pas été modifié depuis sa lecture (même version). Utilisé pour
+     * réaligner un compte sur son historique
+     *
+     * @param accountId
+     * @param version   (version lue)
+     * @param balance   (en centimes)
+     * @param sequence
+     * @return true si le compte a été mis à jour
+     */
+    boolean resetBalance(String accountId, long version, long balance, long sequence);
+
+    /**
+     * Lit uniquement le solde, la date et l'identifiant du client d'un compte
+     * (projection) : les autres champs du compte renvoyé ne sont pas renseignés
+     *
+     * @param accountId
+     * @return le compte partiel, vide si le compte n'existe pas
+     */
+    Optional<Account> findBalanceById(String accountId);
+
+    /**
+     * Récupère au plus limit comptes d'un client, du plus ancien au plus récent,
+     * en reprenant strictement après le compte after (date puis identifiant,
+     * index client_date). Seuls le solde, la date et l'identifiant du client sont
+     * lus
+     *
+     * @param clientId
+     * @param after    (dernier compte de la page précédente, null pour la
+     *                 première page)
+     * @param limit
+     * @return List<Account>
+     */
+    List<Account> findByClientId(String clientId, Account after, int limit);
+
+    /**
+     * Remplace le client embarqué des comptes enregistrés avant sa référence par
+     * son identifiant (clientId), en une seule mise à jour côté serveur. Le
+     * client lui-même est déjà dans la collection clients
+     *
+     * @return le nombre de comptes mis à jour
+     */
+    long migrateEmbeddedClients();
+}
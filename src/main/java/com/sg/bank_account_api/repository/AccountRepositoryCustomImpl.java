@@ -0,0 +1,268 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Snapshot;
+import com.sg.bank_account_api.model.Statement;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    // échecs de mise à jour des cumuls, réalignés par la reconstruction des soldes
+    static final String ROLLUP_FAILURES = "bank.rollups.failures";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final WriteAheadLog writeAheadLog;
+
+    private final RollupRepository rollupRepository;
+
+    // nombre d'opérations entre deux photographies du solde d'un compte
+    private final int snapshotInterval;
+
+    private final MeterRegistry meterRegistry;
+
+    public AccountRepositoryCustomImpl(MongoTemplate mongoTemplate, WriteAheadLog writeAheadLog,
+            RollupRepository rollupRepository, @Value("${bank.ledger.snapshot-interval:1000}") int snapshotInterval,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.writeAheadLog = writeAheadLog;
+        this.rollupRepository = rollupRepository;
+        this.snapshotInterval = snapshotInterval;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Optional<Statement> applyTransaction(String accountId, String clientId, long amount, LocalDateTime date) {
+        return applyTransactions(accountId, clientId, new long[] { amount }, date).map(List::getFirst);
+    }
+
+    @Override
+    public Optional<List<Statement>> applyTransactions(String accountId, String clientId, long[] amounts,
+            LocalDateTime date) {
+        return apply(accountId, clientId, true, amounts, date, null);
+    }
+
+    @Override
+    public Optional<Statement> applyTransferLeg(String legId, String accountId, String clientId, long amount,
+            LocalDateTime date) {
+        return apply(accountId, clientId, true, new long[] { amount }, date, legId).map(List::getFirst);
+    }
+
+    @Override
+    public Optional<Statement> applyTransferCredit(String legId, String accountId, long amount, LocalDateTime date) {
+        return apply(accountId, null, false, new long[] { amount }, date, legId).map(List::getFirst);
+    }
+
+    @Override
+    public boolean hasTransferLeg(String accountId, String legId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("id").is(accountId).and("pendingTransfers").is(legId)),
+                Account.class);
+    }
+
+    @Override
+    public void clearTransferLegs(String accountId, String... legIds) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(accountId)),
+                new Update().pullAll("pendingTransfers", legIds), Account.class);
+    }
+
+    /**
+     * Applique des transactions par une mise à jour conditionnelle du compte. Si
+     * checkClient, le compte doit appartenir à clientId (un clientId null ne
+     * correspond à aucun compte). Pour une étape de virement (legId renseigné),
+     * la mise à jour n'a lieu que si l'étape n'est pas déjà enregistrée sur le
+     * compte, et l'y enregistre
+     */
+    private Optional<List<Statement>> apply(String accountId, String clientId, boolean checkClient, long[] amounts,
+            LocalDateTime date, String legId) {
+        // solde cumulé après chaque transaction (relatif au solde actuel)
+        long[] runningDeltas = new long[amounts.length];
+        long delta = 0;
+        // plus petit solde cumulé atteint après un retrait, plus grand solde cumulé
+        long lowestAfterWithdrawal = Long.MAX_VALUE;
+        long highest = 0;
+        try {
+            for (int i = 0; i < amounts.length; i++) {
+                delta = Math.addExact(delta, amounts[i]);
+                runningDeltas[i] = delta;
+                if (amounts[i] < 0) {
+                    lowestAfterWithdrawal = Math.min(lowestAfterWithdrawal, delta);
+                }
+                highest = Math.max(highest, delta);
+            }
+        } catch (ArithmeticException e) {
+            // le lot dépasse la capacité d'un long : il sera appliqué transaction par transaction
+            return Optional.empty();
+        }
+        // les opérations doivent pouvoir être journalisées avant que le compte ne soit modifié
+        if (!writeAheadLog.fits(clientId, accountId, amounts.length)) {
+            if (amounts.length > 1) {
+                // le lot sera appliqué transaction par transaction
+                return Optional.empty();
+            }
+            throw new IllegalArgumentException("Transaction doesn't fit in a write-ahead log segment");
+        }
+
+        // le compte doit exister et appartenir au client (sauf pour le crédit d'un virement)
+        Query query = Query.query(Criteria.where("id").is(accountId));
+        if (checkClient) {
+            query.addCriteria(Criteria.where("clientId").is(clientId));
+        }
+        if (legId != null) {
+            query.addCriteria(Criteria.where("pendingTransfers").ne(legId));
+        }
+        // chaque retrait doit laisser un solde positif
+        Criteria balance = Criteria.where("balance");
+        if (lowestAfterWithdrawal != Long.MAX_VALUE) {
+            balance.gt(-lowestAfterWithdrawal);
+        }
+        // et le solde ne doit jamais dépasser la capacité d'un long
+        if (highest > 0) {
+            balance.lte(Long.MAX_VALUE - highest);
+        }
+        if (lowestAfterWithdrawal != Long.MAX_VALUE || highest > 0) {
+            query.addCriteria(balance);
+        }
+        // on ne renvoie que le solde et le numéro d'opération
+        query.fields().include("balance", "sequence");
+
+        Update update = new Update().inc("balance", delta).inc("sequence", amounts.length).inc("version", 1);
+        if (legId != null) {
+            update.push("pendingTransfers", legId);
+        }
+
+        Account updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Account.class);
+        if (updated == null) {
+            return Optional.empty();
+        }
+
+        // on reconstitue le solde et le numéro de chaque opération à partir du résultat
+        long initialBalance = updated.balance() - delta;
+        long firstSequence = updated.sequence() - amounts.length + 1;
+        List<Statement> statements = new ArrayList<>(amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
+            statements.add(new Statement(null, accountId, firstSequence + i, date, amounts[i],
+                    initialBalance + runningDeltas[i]));
+        }
+
+        WriteAheadLog.Entry entry = null;
+        List<Statement> inserted;
+        try {
+            // les opérations sont d'abord ajoutées au journal local (s'il est activé)
+            entry = writeAheadLog.append(clientId, statements);
+            // puis à l'historique du compte en une seule insertion
+            inserted = new ArrayList<>(mongoTemplate.insert(statements, Statement.class));
+        } catch (RuntimeException e) {
+            if (entry != null) {
+                // le solde est déjà modifié et les opérations sont dans le journal : elles seront réinsérées au
+                // démarrage
+                return Optional.of(statements);
+            }
+            if (undo(accountId, legId, updated.sequence(), delta, statements)) {
+                throw e;
+            }
+            // le compte a été modifié depuis : la mise à jour ne peut plus être annulée
+            inserted = new ArrayList<>(mongoTemplate.insert(statements, Statement.class));
+        }
+        writeAheadLog.confirm(entry);
+        // puis le solde est photographié toutes les snapshotInterval opérations
+        inserted.stream()
+                .filter(statement -> Snapshot.isDue(statement.sequence(), snapshotInterval))
+                .forEach(statement -> mongoTemplate.save(Snapshot.of(statement)));
+        addToRollups(inserted);
+        return Optional.of(inserted);
+    }
+
+    /**
+     * Compense la mise à jour d'un compte dont les opérations n'ont pas pu être
+     * insérées. Les opérations éventuellement insérées (réponse perdue, insertion
+     * partielle) sont supprimées d'abord : tant que le compte n'est pas remis à
+     * sa valeur précédente, leurs numéros ne peuvent pas être attribués à une
+     * autre transaction. Le compte n'est remis à sa valeur précédente que s'il
+     * n'a pas été modifié depuis
+     *
+     * @return true si la mise à jour a été annulée
+     */
+    private boolean undo(String accountId, String legId, long sequence, long delta, List<Statement> statements) {
+        mongoTemplate.remove(Query.query(Criteria.where("accountId").is(accountId).and("sequence")
+                .gte(statements.getFirst().sequence()).lte(statements.getLast().sequence())), Statement.class);
+
+        Query query = Query.query(Criteria.where("id").is(accountId).and("sequence").is(sequence));
+        Update update = new Update().inc("balance", -delta).inc("sequence", -statements.size()).inc("version", 1);
+        if (legId != null) {
+            update.pull("pendingTransfers", legId);
+        }
+        return mongoTemplate.updateFirst(query, update, Account.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Ajoute les opérations aux cumuls journaliers et mensuels. Les cumuls sont
+     * dérivés de l'historique : un échec ne remet pas en cause les opérations
+     * enregistrées, les cumuls sont réalignés par la reconstruction des soldes
+     */
+    private void addToRollups(List<Statement> statements) {
+        try {
+            rollupRepository.addAll(statements);
+        } catch (DataAccessException e) {
+            // cumuls à réaligner
+            log.warn("Rollups of account {} not updated, they will be realigned by the next ledger rebuild",
+                    statements.getFirst().accountId(), e);
+            meterRegistry.counter(ROLLUP_FAILURES).increment();
+        }
+    }
+
+    @Override
+    public boolean resetBalance(String accountId, long version, long balance, long sequence) {
+        Query query = Query.query(Criteria.where("id").is(accountId).and("version").is(version));
+        Update update = new Update().set("balance", balance).set("sequence", sequence).inc("version", 1);
+        return mongoTemplate.updateFirst(query, update, Account.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public Optional<Account> findBalanceById(String accountId) {
+        Query query = Query.query(Criteria.where("id").is(accountId));
+        // seuls le solde, la date et l'identifiant du client sont lus
+        query.fields().include("balance", "date", "clientId");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Account.class));
+    }
+
+    @Override
+    public List<Account> findByClientId(String clientId, Account after, int limit) {
+        Query query = Query.query(Criteria.where("clientId").is(clientId));
+        if (after != null) {
+            query.addCriteria(new Criteria().orOperator(Criteria.where("date").gt(after.date()),
+                    Criteria.where("date").is(after.date()).and("id").gt(after.id())));
+        }
+        query.fields().include("balance", "date", "clientId");
+        return mongoTemplate.find(query.with(Sort.by("date", "id")).limit(limit), Account.class);
+    }
+
+    @Override
+    public long migrateEmbeddedClients() {
+        // pipeline de mise à jour : le champ client n'est plus une propriété du compte
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("clientId").toValue(ConvertOperators.valueOf("client._id").convertToString())
+                .unset("client");
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("client").exists(true)), update,
+                mongoTemplate.getCollectionName(Account.class)).getModifiedCount();
+    }
+}
@@ -0,0 +1,46 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.mongodb.bulk.BulkWriteError;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Insertions en masse, qui n'échouent pas en bloc : chaque document est inséré
+ * indépendamment des autres et les erreurs sont remontées par document
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkInsertRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Insère les documents en écritures groupées non ordonnées (insertMany). Les
+     * identifiants doivent être renseignés avant l'insertion
+     *
+     * @param documents
+     * @param type
+     * @return les erreurs par position dans la liste (vide si tout est inséré)
+     */
+    public <T> Map<Integer, String> insertAll(List<T> documents, Class<T> type) {
+        if (documents.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, type).insert(documents).execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            return e.getErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+        }
+    }
+}
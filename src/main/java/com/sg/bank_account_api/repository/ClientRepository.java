@@ -6,6 +6,6 @@ import org.springframework.stereotype.Repository;
 import com.sg.bank_account_api.model.Client;
 
 @Repository
-public interface ClientRepository extends MongoRepository<Client, String> {
+public interface ClientRepository extends MongoRepository<Client, String>, ClientRepositoryCustom {
 
 }
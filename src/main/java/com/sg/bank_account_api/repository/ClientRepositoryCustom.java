@@ -0,0 +1,35 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.List;
+
+import com.sg.bank_account_api.model.Client;
+
+/**
+ * Recherche des clients par préfixe du nom et/ou du prénom, sur la clé
+ * normalisée (voir {@link Client#normalize(String)})
+ */
+public interface ClientRepositoryCustom {
+
+    /**
+     * Recherche les clients dont le nom et le prénom normalisés commencent par
+     * les préfixes donnés (un préfixe vide n'est pas un critère). Les clients
+     * sont triés par nom, prénom puis identifiant (par prénom, nom puis
+     * identifiant si seul le prénom est donné) : c'est l'ordre de l'index
+     * parcouru, la lecture s'arrête après limit clients
+     *
+     * @param lastname  (préfixe normalisé du nom)
+     * @param firstname (préfixe normalisé du prénom)
+     * @param after     (dernier client de la page précédente, null pour la
+     *                  première page)
+     * @param limit
+     * @return les clients, dans l'ordre
+     */
+    List<Client> findBySearchKeyPrefix(String lastname, String firstname, Client after, int limit);
+
+    /**
+     * Calcule la clé de recherche des clients enregistrés sans elle
+     *
+     * @return le nombre de clients mis à jour
+     */
+    long backfillSearchKeys();
+}
@@ -0,0 +1,93 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sg.bank_account_api.model.Client;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ClientRepositoryCustomImpl implements ClientRepositoryCustom {
+
+    private static final String LASTNAME = "searchKey.lastname";
+    private static final String FIRSTNAME = "searchKey.firstname";
+    private static final int BACKFILL_BATCH_SIZE = 1_000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Client> findBySearchKeyPrefix(String lastname, String firstname, Client after, int limit) {
+        return mongoTemplate.find(searchQuery(lastname, firstname, after).limit(limit), Client.class);
+    }
+
+    @Override
+    public long backfillSearchKeys() {
+        long updated = 0;
+        List<Client> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+        // la clé est calculée à la lecture des clients qui n'en ont pas
+        try (Stream<Client> clients = mongoTemplate.stream(
+                Query.query(Criteria.where("searchKey").exists(false)), Client.class)) {
+            for (Client client : (Iterable<Client>) clients::iterator) {
+                batch.add(client);
+                if (batch.size() == BACKFILL_BATCH_SIZE) {
+                    updated += writeSearchKeys(batch);
+                }
+            }
+        }
+        return updated + writeSearchKeys(batch);
+    }
+
+    /**
+     * Requête de recherche : chaque préfixe devient un intervalle de l'index (du
+     * préfixe au préfixe suivi du plus grand caractère) et la page suivante
+     * reprend strictement après le dernier client lu (pagination par clé, sans
+     * relire les pages précédentes)
+     */
+    static Query searchQuery(String lastname, String firstname, Client after) {
+        // le nom, s'il est donné, fixe l'index parcouru
+        boolean byLastname = !lastname.isEmpty();
+        String first = byLastname ? LASTNAME : FIRSTNAME;
+        String second = byLastname ? FIRSTNAME : LASTNAME;
+
+        Query query = new Query();
+        if (!lastname.isEmpty()) {
+            query.addCriteria(prefix(LASTNAME, lastname));
+        }
+        if (!firstname.isEmpty()) {
+            query.addCriteria(prefix(FIRSTNAME, firstname));
+        }
+        if (after != null) {
+            Object firstValue = byLastname ? after.searchKey().lastname() : after.searchKey().firstname();
+            Object secondValue = byLastname ? after.searchKey().firstname() : after.searchKey().lastname();
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where(first).gt(firstValue),
+                    Criteria.where(first).is(firstValue).and(second).gt(secondValue),
+                    Criteria.where(first).is(firstValue).and(second).is(secondValue).and("id").gt(after.id())));
+        }
+        return query.with(Sort.by(first, second, "id"));
+    }
+
+    private static Criteria prefix(String field, String prefix) {
+        return Criteria.where(field).gte(prefix).lt(prefix + Character.MAX_VALUE);
+    }
+
+    private long writeSearchKeys(List<Client> clients) {
+        if (clients.isEmpty()) {
+            return 0;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Client.class);
+        clients.forEach(client -> operations.updateOne(Query.query(Criteria.where("id").is(client.id())),
+                Update.update("searchKey", client.searchKey())));
+        clients.clear();
+        return operations.execute().getModifiedCount();
+    }
+}
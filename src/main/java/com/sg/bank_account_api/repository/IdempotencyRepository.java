@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRepository extends MongoRepository<IdempotencyRecord, String> {
+
+}
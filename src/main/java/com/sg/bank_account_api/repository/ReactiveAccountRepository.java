@@ -0,0 +1,12 @@
+package com.sg.bank_account_api.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.Account;
+
+@Repository
+public interface ReactiveAccountRepository
+        extends ReactiveMongoRepository<Account, String>, ReactiveAccountRepositoryCustom {
+
+}
@@ -0,0 +1,30 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+
+import com.sg.bank_account_api.model.Statement;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Version non bloquante de {@link AccountRepositoryCustom}
+ */
+public interface ReactiveAccountRepositoryCustom {
+
+    /**
+     * Applique une transaction sans relire le compte, par une seule mise à jour
+     * conditionnelle côté serveur, puis ajoute l'opération à la collection
+     * statements. Un montant négatif (retrait) n'est appliqué que si le solde
+     * reste strictement positif. Si l'opération ne peut pas être ajoutée, la
+     * mise à jour du compte est compensée avant que l'erreur ne soit propagée.
+     *
+     * @param accountId
+     * @param clientId
+     * @param amount    (en centimes, négatif pour un retrait)
+     * @param date
+     * @return l'opération enregistrée, vide si le compte n'existe pas,
+     *         n'appartient pas au client, si le solde est insuffisant ou s'il
+     *         dépasserait la capacité d'un long
+     */
+    Mono<Statement> applyTransaction(String accountId, String clientId, long amount, LocalDateTime date);
+}
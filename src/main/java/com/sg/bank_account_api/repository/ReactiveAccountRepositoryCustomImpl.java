@@ -0,0 +1,88 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Rollup;
+import com.sg.bank_account_api.model.Snapshot;
+import com.sg.bank_account_api.model.Statement;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ReactiveAccountRepositoryCustomImpl implements ReactiveAccountRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    // nombre d'opérations entre deux photographies du solde d'un compte
+    private final int snapshotInterval;
+
+    public ReactiveAccountRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate,
+            @Value("${bank.ledger.snapshot-interval:1000}") int snapshotInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public Mono<Statement> applyTransaction(String accountId, String clientId, long amount, LocalDateTime date) {
+        // le compte doit exister et appartenir au client
+        Query query = Query.query(Criteria.where("id").is(accountId).and("clientId").is(clientId));
+        // un retrait doit laisser un solde positif, un dépôt ne doit pas dépasser la capacité du solde
+        if (amount < 0) {
+            query.addCriteria(Criteria.where("balance").gt(-amount));
+        } else {
+            query.addCriteria(Criteria.where("balance").lte(Long.MAX_VALUE - amount));
+        }
+        // on ne renvoie que le solde et le numéro d'opération
+        query.fields().include("balance", "sequence");
+
+        Update update = new Update().inc("balance", amount).inc("sequence", 1).inc("version", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Account.class)
+                .flatMap(updated -> {
+                    Statement statement = new Statement(null, accountId, updated.sequence(), date, amount,
+                            updated.balance());
+                    return mongoTemplate.insert(statement)
+                            .onErrorResume(DataAccessException.class, e -> undo(statement)
+                                    // le compte a été modifié depuis : la mise à jour ne peut plus être annulée
+                                    .flatMap(undone -> undone ? Mono.error(e) : mongoTemplate.insert(statement)));
+                })
+                // le solde est photographié toutes les snapshotInterval opérations
+                .flatMap(statement -> Snapshot.isDue(statement.sequence(), snapshotInterval)
+                        ? mongoTemplate.save(Snapshot.of(statement)).thenReturn(statement)
+                        : Mono.just(statement))
+                // puis ajouté aux cumuls journaliers et mensuels (réalignés par la reconstruction en cas d'échec)
+                .flatMap(statement -> Flux.fromIterable(RollupRepositoryCustomImpl.upserts(List.of(statement)))
+                        .concatMap(upsert -> mongoTemplate.upsert(upsert.getFirst(), upsert.getSecond(), Rollup.class))
+                        .then(Mono.just(statement))
+                        .onErrorResume(DataAccessException.class, e -> Mono.just(statement)));
+    }
+
+    /**
+     * Compense la mise à jour d'un compte dont l'opération n'a pas pu être
+     * insérée, comme {@link AccountRepositoryCustomImpl} : l'opération
+     * éventuellement insérée est supprimée, puis le compte n'est remis à sa
+     * valeur précédente que s'il n'a pas été modifié depuis
+     *
+     * @return true si la mise à jour a été annulée
+     */
+    private Mono<Boolean> undo(Statement statement) {
+        Query inserted = Query.query(
+                Criteria.where("accountId").is(statement.accountId()).and("sequence").is(statement.sequence()));
+        Query account = Query.query(
+                Criteria.where("id").is(statement.accountId()).and("sequence").is(statement.sequence()));
+        Update update = new Update().inc("balance", -statement.amount()).inc("sequence", -1).inc("version", 1);
+        return mongoTemplate.remove(inserted, Statement.class)
+                .then(mongoTemplate.updateFirst(account, update, Account.class))
+                .map(result -> result.getModifiedCount() > 0);
+    }
+}
@@ -0,0 +1,11 @@
+package com.sg.bank_account_api.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.Client;
+
+@Repository
+public interface ReactiveClientRepository extends ReactiveMongoRepository<Client, String> {
+
+}
@@ -0,0 +1,21 @@
+package com.sg.bank_account_api.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.Statement;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveStatementRepository extends ReactiveMongoRepository<Statement, String> {
+
+    /**
+     * permet de récupérer l'historique d'un compte dans l'ordre des opérations,
+     * au fil de la lecture
+     *
+     * @param accountId
+     * @return Flux<Statement>
+     */
+    Flux<Statement> findByAccountIdOrderBySequenceAsc(String accountId);
+}
@@ -0,0 +1,26 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.Rollup;
+import com.sg.bank_account_api.model.RollupGranularity;
+
+@Repository
+public interface RollupRepository extends MongoRepository<Rollup, String>, RollupRepositoryCustom {
+
+    /**
+     * permet de récupérer les cumuls d'un compte dont la période est dans
+     * l'intervalle, dans l'ordre chronologique
+     *
+     * @param accountId
+     * @param granularity
+     * @param periods
+     * @return List<Rollup>
+     */
+    List<Rollup> findByAccountIdAndGranularityAndPeriodBetweenOrderByPeriodAsc(String accountId,
+            RollupGranularity granularity, Range<String> periods);
+}
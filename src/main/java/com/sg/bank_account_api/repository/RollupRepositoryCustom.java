@@ -0,0 +1,19 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.List;
+
+import com.sg.bank_account_api.model.Statement;
+
+/**
+ * Mise à jour des cumuls sans lecture des documents
+ */
+public interface RollupRepositoryCustom {
+
+    /**
+     * Ajoute les opérations aux cumuls journaliers et mensuels de leur compte, en
+     * une seule écriture groupée (un document par période, créé si besoin)
+     *
+     * @param statements
+     */
+    void addAll(List<Statement> statements);
+}
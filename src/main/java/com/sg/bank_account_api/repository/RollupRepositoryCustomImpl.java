@@ -0,0 +1,66 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import com.sg.bank_account_api.model.Rollup;
+import com.sg.bank_account_api.model.RollupGranularity;
+import com.sg.bank_account_api.model.Statement;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class RollupRepositoryCustomImpl implements RollupRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void addAll(List<Statement> statements) {
+        if (statements.isEmpty()) {
+            return;
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Rollup.class)
+                .upsert(upserts(statements))
+                .execute();
+    }
+
+    /**
+     * Mises à jour des cumuls concernés par les opérations : les compteurs sont
+     * incrémentés et le solde de clôture n'est remplacé que par celui d'une
+     * opération plus récente ($max sur le document (sequence, balance)), quel que
+     * soit l'ordre d'arrivée des écritures
+     *
+     * @param statements
+     * @return une mise à jour (avec création) par période
+     */
+    static List<Pair<Query, Update>> upserts(List<Statement> statements) {
+        // les opérations d'une même période sont cumulées avant l'écriture
+        Map<String, Rollup> rollups = new LinkedHashMap<>();
+        for (Statement statement : statements) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Rollup rollup = Rollup.of(statement, granularity);
+                rollups.merge(rollup.id(), rollup, (current, added) -> current.plus(statement));
+            }
+        }
+        return rollups.values().stream()
+                .map(rollup -> Pair.of(Query.query(Criteria.where("id").is(rollup.id())), new Update()
+                        .setOnInsert("accountId", rollup.accountId())
+                        .setOnInsert("granularity", rollup.granularity())
+                        .setOnInsert("period", rollup.period())
+                        .inc("count", rollup.count())
+                        .inc("deposits", rollup.deposits())
+                        .inc("withdrawals", rollup.withdrawals())
+                        .max("closing", new Document("sequence", rollup.closing().sequence())
+                                .append("balance", rollup.closing().balance()))))
+                .toList();
+    }
+}
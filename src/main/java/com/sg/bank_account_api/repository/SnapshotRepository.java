@@ -0,0 +1,20 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.Snapshot;
+
+@Repository
+public interface SnapshotRepository extends MongoRepository<Snapshot, String> {
+
+    /**
+     * permet de récupérer la dernière photographie du solde d'un compte
+     *
+     * @param accountId
+     * @return Optional<Snapshot>
+     */
+    Optional<Snapshot> findFirstByAccountIdOrderBySequenceDesc(String accountId);
+}
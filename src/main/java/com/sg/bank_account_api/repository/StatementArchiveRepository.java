@@ -0,0 +1,59 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.StatementArchive;
+
+@Repository
+public interface StatementArchiveRepository extends MongoRepository<StatementArchive, String> {
+
+    /**
+     * permet de parcourir les blocs archivés d'un compte dans l'ordre des
+     * opérations. Le flux doit être fermé après usage
+     *
+     * @param accountId
+     * @return Stream<StatementArchive>
+     */
+    Stream<StatementArchive> streamByAccountIdOrderByFirstSequenceAsc(String accountId);
+
+    /**
+     * permet de parcourir les blocs archivés d'un compte qui commencent avant
+     * sequence, du plus récent au plus ancien. Le flux doit être fermé après
+     * usage
+     *
+     * @param accountId
+     * @param sequence
+     * @return Stream<StatementArchive>
+     */
+    Stream<StatementArchive> streamByAccountIdAndFirstSequenceLessThanOrderByFirstSequenceDesc(String accountId,
+            long sequence);
+
+    /**
+     * permet de récupérer le dernier bloc archivé d'un compte qui commence avant
+     * sequence
+     *
+     * @param accountId
+     * @param sequence
+     * @return Optional<StatementArchive>
+     */
+    Optional<StatementArchive> findFirstByAccountIdAndFirstSequenceLessThanOrderByFirstSequenceDesc(
+            String accountId, long sequence);
+
+    /**
+     * permet de récupérer les blocs archivés d'un compte qui contiennent des
+     * opérations de la période [from, to[, dans l'ordre des opérations
+     *
+     * @param accountId
+     * @param to
+     * @param from
+     * @return List<StatementArchive>
+     */
+    List<StatementArchive> findByAccountIdAndFirstDateLessThanAndLastDateGreaterThanEqualOrderByFirstSequenceAsc(
+            String accountId, LocalDateTime to, LocalDateTime from);
+}
@@ -0,0 +1,96 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.Statement;
+
+@Repository
+public interface StatementRepository extends MongoRepository<Statement, String>, StatementRepositoryCustom {
+
+    /**
+     * permet de récupérer l'historique d'un compte dans l'ordre des opérations
+     *
+     * @param accountId
+     * @return List<Statement>
+     */
+    List<Statement> findByAccountIdOrderBySequenceAsc(String accountId);
+
+    /**
+     * permet de parcourir l'historique d'un compte avec un curseur MongoDB, sans
+     * le charger en mémoire. Le flux doit être fermé après usage
+     *
+     * @param accountId
+     * @return Stream<Statement>
+     */
+    Stream<Statement> streamByAccountIdOrderBySequenceAsc(String accountId);
+
+    /**
+     * permet de parcourir les opérations d'un compte postérieures à sequence
+     * (celles qui suivent une photographie du solde), dans l'ordre
+     *
+     * @param accountId
+     * @param sequence
+     * @return Stream<Statement>
+     */
+    Stream<Statement> streamByAccountIdAndSequenceGreaterThanOrderBySequenceAsc(String accountId, long sequence);
+
+    /**
+     * permet de récupérer la plus ancienne opération d'un compte encore présente
+     * dans la collection (les plus anciennes peuvent être archivées)
+     *
+     * @param accountId
+     * @return Optional<Statement>
+     */
+    Optional<Statement> findFirstByAccountIdOrderBySequenceAsc(String accountId);
+
+    /**
+     * permet de récupérer la dernière opération d'un compte
+     *
+     * @param accountId
+     * @return Optional<Statement>
+     */
+    Optional<Statement> findFirstByAccountIdOrderBySequenceDesc(String accountId);
+
+    /**
+     * permet de parcourir les opérations d'un compte jusqu'à sequence (inclus)
+     * antérieures à date, dans l'ordre (opérations à archiver)
+     *
+     * @param accountId
+     * @param sequence
+     * @param date
+     * @return Stream<Statement>
+     */
+    Stream<Statement> streamByAccountIdAndSequenceLessThanEqualAndDateBeforeOrderBySequenceAsc(String accountId,
+            long sequence, LocalDateTime date);
+
+    /**
+     * permet de supprimer les opérations d'un compte dont le numéro est dans
+     * l'intervalle (une fois archivées)
+     *
+     * @param accountId
+     * @param sequences
+     * @return le nombre d'opérations supprimées
+     */
+    long deleteByAccountIdAndSequenceBetween(String accountId, Range<Long> sequences);
+
+    /**
+     * permet de récupérer une page d'historique par recherche sur l'index
+     * (accountId, sequence) : les opérations antérieures à sequence, de la plus
+     * récente à la plus ancienne
+     *
+     * @param accountId
+     * @param sequence
+     * @param limit
+     * @return List<Statement>
+     */
+    List<Statement> findByAccountIdAndSequenceLessThanOrderBySequenceDesc(String accountId, long sequence,
+            Limit limit);
+}
@@ -0,0 +1,25 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.List;
+
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.StatementFilter;
+
+/**
+ * Recherches sur les opérations qui ne s'expriment pas par le nom d'une
+ * méthode
+ */
+public interface StatementRepositoryCustom {
+
+    /**
+     * Recherche les opérations d'un compte par l'index (accountId, date,
+     * sequence) : seules les opérations de la période sont lues, les autres
+     * critères sont appliqués à celles-ci
+     *
+     * @param accountId
+     * @param filter
+     * @param limit     (nombre maximum d'opérations renvoyées)
+     * @return les opérations, dans l'ordre
+     */
+    List<Statement> findByFilter(String accountId, StatementFilter filter, int limit);
+}
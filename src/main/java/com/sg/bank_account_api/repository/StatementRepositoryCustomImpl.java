@@ -0,0 +1,55 @@
+package com.sg.bank_account_api.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.StatementFilter;
+import com.sg.bank_account_api.model.TransactionType;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class StatementRepositoryCustomImpl implements StatementRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Statement> findByFilter(String accountId, StatementFilter filter, int limit) {
+        Query query = Query.query(Criteria.where("accountId").is(accountId)
+                .and("date").gte(filter.from()).lt(filter.to()));
+        amountCriteria(filter).forEach(query::addCriteria);
+        // même ordre que l'index : pas de tri en mémoire
+        query.with(Sort.by("date", "sequence")).limit(limit);
+        return mongoTemplate.find(query, Statement.class);
+    }
+
+    /**
+     * Critères sur le montant : le type fixe le signe, les bornes portent sur la
+     * valeur absolue (dépôts et retraits dans les bornes si le type est absent)
+     */
+    private static List<Criteria> amountCriteria(StatementFilter filter) {
+        if (filter.type() == null && filter.minAmount() == null && filter.maxAmount() == null) {
+            return List.of();
+        }
+        Criteria deposits = Criteria.where("amount").gte(filter.minAmount() == null ? 1L : filter.minAmount());
+        if (filter.maxAmount() != null) {
+            deposits.lte(filter.maxAmount());
+        }
+        Criteria withdrawals = Criteria.where("amount").lte(filter.minAmount() == null ? -1L : -filter.minAmount());
+        if (filter.maxAmount() != null) {
+            withdrawals.gte(-filter.maxAmount());
+        }
+        if (filter.type() == TransactionType.DEPOSIT) {
+            return List.of(deposits);
+        }
+        if (filter.type() == TransactionType.WITHDRAW) {
+            return List.of(withdrawals);
+        }
+        return List.of(new Criteria().orOperator(deposits, withdrawals));
+    }
+}
@@ -0,0 +1,25 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sg.bank_account_api.model.Transfer;
+import com.sg.bank_account_api.model.TransferStatus;
+
+@Repository
+public interface TransferRepository extends MongoRepository<Transfer, String>, TransferRepositoryCustom {
+
+    /**
+     * permet de récupérer les virements interrompus : dans l'un des états donnés
+     * et créés avant date
+     *
+     * @param statuses
+     * @param date
+     * @return List<Transfer>
+     */
+    List<Transfer> findByStatusInAndDateBefore(Collection<TransferStatus> statuses, LocalDateTime date);
+}
@@ -0,0 +1,41 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import com.sg.bank_account_api.model.Transfer;
+import com.sg.bank_account_api.model.TransferStatus;
+
+/**
+ * Changements d'état des virements par mises à jour conditionnelles : une
+ * seule exécution à la fois fait avancer un virement
+ */
+public interface TransferRepositoryCustom {
+
+    /**
+     * Réserve un virement pour le faire avancer : il doit être dans l'un des
+     * états donnés et ne pas être réservé par une autre exécution (ou sa
+     * réservation doit avoir expiré)
+     *
+     * @param transferId
+     * @param statuses
+     * @param owner      (identifiant de l'exécution)
+     * @param until      (fin de la réservation)
+     * @return le virement réservé, vide s'il a changé d'état ou est réservé
+     */
+    Optional<Transfer> claim(String transferId, Collection<TransferStatus> statuses, String owner,
+            LocalDateTime until);
+
+    /**
+     * Fait passer un virement réservé à l'état status (compare-and-set) : la
+     * mise à jour n'a lieu que s'il est toujours dans l'état lu et réservé par
+     * la même exécution. La réservation est prolongée jusqu'à until
+     *
+     * @param transfer (tel que lu par l'exécution qui le fait avancer)
+     * @param status
+     * @param until
+     * @return le virement modifié, vide si une autre exécution l'a repris
+     */
+    Optional<Transfer> advance(Transfer transfer, TransferStatus status, LocalDateTime until);
+}
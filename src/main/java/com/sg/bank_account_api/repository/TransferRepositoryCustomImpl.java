@@ -0,0 +1,42 @@
+package com.sg.bank_account_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.sg.bank_account_api.model.Transfer;
+import com.sg.bank_account_api.model.TransferStatus;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TransferRepositoryCustomImpl implements TransferRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Transfer> claim(String transferId, Collection<TransferStatus> statuses, String owner,
+            LocalDateTime until) {
+        Query query = Query.query(Criteria.where("id").is(transferId).and("status").in(statuses)
+                .orOperator(Criteria.where("lockedUntil").is(null),
+                        Criteria.where("lockedUntil").lt(LocalDateTime.now())));
+        Update update = new Update().set("owner", owner).set("lockedUntil", until);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Transfer.class));
+    }
+
+    @Override
+    public Optional<Transfer> advance(Transfer transfer, TransferStatus status, LocalDateTime until) {
+        Query query = Query.query(Criteria.where("id").is(transfer.id()).and("status").is(transfer.status())
+                .and("owner").is(transfer.owner()));
+        Update update = new Update().set("status", status).set("lockedUntil", until);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Transfer.class));
+    }
+}
@@ -0,0 +1,451 @@
+package com.sg.bank_account_api.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.sg.bank_account_api.model.Statement;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Journal local des transactions acceptées (write-ahead log), optionnel. Les
+ * opérations sont ajoutées à des fichiers projetés en mémoire (segments de
+ * taille fixe) avant d'être insérées dans la collection statements : si
+ * l'insertion échoue, l'opération est réinsérée au prochain démarrage.
+ * <p>
+ * Chaque enregistrement est précédé de sa longueur et de son CRC32C ; la
+ * relecture s'arrête au premier enregistrement incomplet ou corrompu d'un
+ * segment. Un segment plein dont toutes les opérations ont été insérées est
+ * supprimé.
+ */
+@Component
+public final class WriteAheadLog {
+
+    /**
+     * Politique d'écriture sur disque : à chaque ajout, par lots (les ajouts
+     * concurrents partagent la même synchronisation) ou à intervalle régulier
+     * (les ajouts n'attendent pas le disque)
+     */
+    public enum FsyncPolicy {
+        PER_WRITE, BATCH, INTERVAL
+    }
+
+    /**
+     * Ajout au journal, à confirmer une fois les opérations insérées
+     */
+    public static final class Entry {
+        private final Segment segment;
+
+        private Entry(Segment segment) {
+            this.segment = segment;
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        // nombre d'ajouts du segment non encore confirmés
+        private final AtomicInteger unconfirmed = new AtomicInteger();
+        // position jusqu'à laquelle le segment a été écrit sur disque (sous forceLock)
+        private int forced;
+        private volatile boolean sealed;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // longueur et CRC de chaque enregistrement
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    // nombre d'opérations réinsérées en une fois au démarrage
+    private static final int REPLAY_BATCH_SIZE = 1_000;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMs;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final RollupRepository rollupRepository;
+
+    // écriture dans le segment courant et rotation
+    private final Object writeLock = new Object();
+    // écriture sur disque
+    private final Object forceLock = new Object();
+
+    private Segment current;
+    private long nextSegmentIndex;
+    // segments pleins pas encore entièrement écrits sur disque (sous writeLock)
+    private final List<Segment> sealedToForce = new ArrayList<>();
+    // nombre d'octets ajoutés depuis l'ouverture, et écrits sur disque
+    private long written;
+    private volatile long synced;
+
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public WriteAheadLog(@Value("${bank.wal.enabled:false}") boolean enabled,
+            @Value("${bank.wal.directory:wal}") Path directory,
+            @Value("${bank.wal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${bank.wal.fsync:BATCH}") FsyncPolicy fsyncPolicy,
+            @Value("${bank.wal.fsync-interval-ms:10}") long fsyncIntervalMs,
+            BulkInsertRepository bulkInsertRepository, RollupRepository rollupRepository) {
+        if (segmentSize.toBytes() < 4_096 || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between 4KB and 2GB");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Réinsère les opérations des segments existants (les opérations déjà
+     * présentes sont ignorées), supprime ces segments puis ouvre un nouveau
+     * segment
+     */
+    @PostConstruct
+    void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments();
+            for (Path segment : segments) {
+                replay(segment);
+            }
+            nextSegmentIndex = segments.isEmpty() ? 0 : segmentIndex(segments.getLast()) + 1;
+            for (Path segment : segments) {
+                Files.delete(segment);
+            }
+            current = newSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open write-ahead log in " + directory, e);
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().factory());
+            flusher.scheduleWithFixedDelay(this::sync, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (flusher != null) {
+            flusher.close();
+        }
+        if (current != null && fsyncPolicy != FsyncPolicy.PER_WRITE) {
+            sync();
+        }
+    }
+
+    /**
+     * Ajoute au journal les opérations d'une transaction (ou d'un lot de
+     * transactions d'un même client) et attend leur écriture sur disque selon la
+     * politique configurée
+     *
+     * @param clientId
+     * @param statements (sur un même compte)
+     * @return l'ajout, à confirmer une fois les opérations insérées, null si le
+     *         journal est désactivé
+     */
+    public Entry append(String clientId, List<Statement> statements) {
+        if (!enabled) {
+            return null;
+        }
+        if (!fits(clientId, statements.getFirst().accountId(), statements.size())) {
+            throw new IllegalArgumentException("Transactions don't fit in a write-ahead log segment");
+        }
+        byte[] client = bytes(clientId);
+        byte[] account = bytes(statements.getFirst().accountId());
+        int recordSize = recordSize(account, client);
+        int size = recordSize * statements.size();
+
+        Segment segment;
+        long position;
+        synchronized (writeLock) {
+            if (current.buffer.remaining() < size + Integer.BYTES) {
+                rotate();
+            }
+            segment = current;
+            int start = segment.buffer.position();
+            for (Statement statement : statements) {
+                write(segment.buffer, account, client, statement, recordSize);
+            }
+            segment.unconfirmed.incrementAndGet();
+            written += size;
+            position = written;
+            if (fsyncPolicy == FsyncPolicy.PER_WRITE) {
+                segment.buffer.force(start, size);
+            }
+        }
+
+        // avec INTERVAL, les ajouts sont écrits sur disque par le thread de synchronisation
+        if (fsyncPolicy == FsyncPolicy.BATCH) {
+            sync(position);
+        }
+        return new Entry(segment);
+    }
+
+    /**
+     * Indique si count opérations d'un compte tiennent dans un segment, et
+     * peuvent donc être ajoutées ensemble au journal
+     *
+     * @param clientId
+     * @param accountId
+     * @param count
+     * @return true si elles tiennent ou si le journal est désactivé
+     */
+    public boolean fits(String clientId, String accountId, int count) {
+        // un enregistrement de longueur nulle marque la fin du segment
+        return !enabled || (long) recordSize(bytes(accountId), bytes(clientId)) * count + Integer.BYTES <= segmentSize;
+    }
+
+    /**
+     * Indique que les opérations d'un ajout ont été insérées : elles n'ont plus
+     * besoin d'être rejouées
+     *
+     * @param entry (null si le journal est désactivé)
+     */
+    public void confirm(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        if (entry.segment.unconfirmed.decrementAndGet() == 0 && entry.segment.sealed) {
+            delete(entry.segment);
+        }
+    }
+
+    /**
+     * Écrit sur disque tout ce qui a été ajouté jusqu'ici
+     */
+    void sync() {
+        sync(Long.MAX_VALUE);
+    }
+
+    /**
+     * Écrit sur disque les ajouts jusqu'à position (au moins). Un seul des
+     * appelants concurrents écrit, pour tous les autres
+     *
+     * @param position
+     */
+    private void sync(long position) {
+        if (synced >= position) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (synced >= position) {
+                return;
+            }
+            List<Segment> sealed;
+            Segment segment;
+            int end;
+            long target;
+            synchronized (writeLock) {
+                sealed = new ArrayList<>(sealedToForce);
+                sealedToForce.clear();
+                segment = current;
+                end = segment.buffer.position();
+                target = written;
+            }
+            for (Segment full : sealed) {
+                force(full, full.buffer.position());
+            }
+            force(segment, end);
+            synced = target;
+        }
+    }
+
+    private void force(Segment segment, int end) {
+        if (end > segment.forced) {
+            segment.buffer.force(segment.forced, end - segment.forced);
+            segment.forced = end;
+        }
+    }
+
+    private void rotate() {
+        Segment full = current;
+        full.sealed = true;
+        if (fsyncPolicy != FsyncPolicy.PER_WRITE) {
+            sealedToForce.add(full);
+        }
+        try {
+            current = newSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create a write-ahead log segment in " + directory, e);
+        }
+        if (full.unconfirmed.get() == 0) {
+            delete(full);
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + "%020d".formatted(nextSegmentIndex++) + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // la projection reste valide après la fermeture du fichier
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    private void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            // le segment sera rejoué (sans effet) puis supprimé au prochain démarrage
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int recordSize(byte[] account, byte[] client) {
+        return HEADER_SIZE + Short.BYTES * 2 + account.length + client.length + Long.BYTES * 4 + Integer.BYTES;
+    }
+
+    private static void write(ByteBuffer buffer, byte[] account, byte[] client, Statement statement,
+            int recordSize) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.putShort((short) account.length).put(account);
+        buffer.putShort((short) client.length).put(client);
+        buffer.putLong(statement.sequence());
+        buffer.putLong(statement.date().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(statement.date().getNano());
+        buffer.putLong(statement.amount());
+        buffer.putLong(statement.balance());
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_SIZE, recordSize - HEADER_SIZE));
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(start, recordSize - HEADER_SIZE);
+    }
+
+    private void replay(Path path) throws IOException {
+        List<Statement> statements = new ArrayList<>(REPLAY_BATCH_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Statement statement;
+            while ((statement = read(buffer)) != null) {
+                statements.add(statement);
+                if (statements.size() == REPLAY_BATCH_SIZE) {
+                    restore(statements, path);
+                    statements.clear();
+                }
+            }
+        }
+        restore(statements, path);
+    }
+
+    /**
+     * Lit l'enregistrement suivant
+     *
+     * @param buffer
+     * @return l'opération, null à la fin du segment ou sur un enregistrement
+     *         incomplet ou corrompu
+     */
+    static Statement read(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length <= 0 || length > buffer.remaining() - HEADER_SIZE) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_SIZE, length));
+        if ((int) crc.getValue() != buffer.getInt(start + Integer.BYTES)) {
+            return null;
+        }
+
+        buffer.position(start + HEADER_SIZE);
+        String accountId = readString(buffer);
+        // le client est conservé dans le journal mais pas dans l'opération
+        readString(buffer);
+        long sequence = buffer.getLong();
+        LocalDateTime date = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        long amount = buffer.getLong();
+        long balance = buffer.getLong();
+        return new Statement(new ObjectId().toHexString(), accountId, sequence, date, amount, balance);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Réinsère les opérations ; celles déjà présentes (même compte et même
+     * numéro) sont refusées par l'index unique et ignorées. Les opérations
+     * réinsérées sont ajoutées aux cumuls
+     *
+     * @param statements
+     * @param path
+     */
+    private void restore(List<Statement> statements, Path path) {
+        Map<Integer, String> errors = bulkInsertRepository.insertAll(statements, Statement.class);
+        errors.values().stream()
+                .filter(error -> !error.contains("E11000"))
+                .findFirst()
+                .ifPresent(error -> {
+                    throw new IllegalStateException("Unable to replay write-ahead log segment " + path + ": " + error);
+                });
+        List<Statement> restored = new ArrayList<>(statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            if (!errors.containsKey(i)) {
+                restored.add(statements.get(i));
+            }
+        }
+        rollupRepository.addAll(restored);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.sg.bank_account_api.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.sg.bank_account_api.repository.AccountRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outil de migration, lancé au démarrage avec
+ * --bank.accounts.migrate-clients=true : les comptes enregistrés avec une copie
+ * du client la remplacent par l'identifiant du client
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.accounts.migrate-clients", havingValue = "true")
+@RequiredArgsConstructor
+public final class AccountClientMigrationRunner implements ApplicationRunner {
+
+    private final AccountRepository accountRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long migrated = accountRepository.migrateEmbeddedClients();
+        log.info("Account clients migrated in {} ms: {} accounts updated", (System.nanoTime() - start) / 1_000_000,
+                migrated);
+    }
+}
@@ -1,24 +1,60 @@
 package com.sg.bank_account_api.service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
+import org.bson.types.ObjectId;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.sg.bank_account_api.config.CacheConfig;
+import com.sg.bank_account_api.dto.AccountPageDto;
+import com.sg.bank_account_api.dto.BalanceDto;
+import com.sg.bank_account_api.dto.BatchAccountResultDto;
+import com.sg.bank_account_api.dto.BatchTransactionDto;
+import com.sg.bank_account_api.dto.BatchTransactionResultDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.dto.CreateTransactionDto;
 import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.ErrorResponse;
 import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.dto.StatementPageDto;
 import com.sg.bank_account_api.exceptions.AccountNotFoundException;
 import com.sg.bank_account_api.exceptions.AmountException;
 import com.sg.bank_account_api.exceptions.ClientNotFoundException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.exceptions.TransactionTypeException;
 import com.sg.bank_account_api.model.Account;
 import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Money;
 import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.StatementFilter;
 import com.sg.bank_account_api.model.TransactionType;
 import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.BulkInsertRepository;
+import com.sg.bank_account_api.repository.StatementRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -28,107 +64,549 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public final class AccountService implements IAccountService {
 
+    private static final String AMOUNT_ERROR_MESSAGE = "Amount must be > 0 and must be <= balance in the case of a withdrawal";
+
+    // nombre maximum de transactions (ou de comptes à ouvrir) dans un lot
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    // taille maximale d'une page de relevé
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // séparateur de la date et de l'identifiant dans le curseur des comptes d'un client
+    private static final char CURSOR_SEPARATOR = '\n';
+
+    // nombre maximum d'opérations renvoyées par une recherche
+    static final int MAX_SEARCH_SIZE = 10_000;
+
+    // durée de chaque étape d'une transaction (tags phase et type)
+    static final String PHASE_TIMER = "bank.transaction.phase";
+
+    // nombre d'opérations des historiques lus en entier
+    static final String STATEMENTS_SUMMARY = "bank.account.statements";
+
     // Dépendances
     private final AccountRepository accountRepository;
 
+    private final StatementRepository statementRepository;
+
+    private final IStatementArchiveService statementArchiveService;
+
+    private final BulkInsertRepository bulkInsertRepository;
+
     private final ClientService clientService;
 
+    private final DtoMapper mapper;
+
+    private final AccountTransactionEngine transactionEngine;
+
+    private final OptimisticRetry optimisticRetry;
+
+    private final CacheManager cacheManager;
+
+    private final MeterRegistry meterRegistry;
+
     @Override
     public CreatedAccountDto createAccount(CreateClientDto createClientDto) {
         // création du client
         Client createdClient = clientService.createClient(createClientDto);
 
         // Création du compte pour le client
-        Account accountToCreate = new Account(null, BigDecimal.ZERO, createdClient, LocalDateTime.now(),
-                new ArrayList<>());
+        Account accountToCreate = new Account(null, 0L, createdClient.id(), LocalDateTime.now(), 0L, null);
         Account createdAccount = accountRepository.save(accountToCreate);
 
         return new CreatedAccountDto(createdAccount.id(), createdClient.id());
     }
 
     @Override
-    public StatementDto performTransaction(CreateTransactionDto dto, TransactionType type) {
-        // récupération du compte à patir de l'indentifiant
-        Account existingAccount = getAccountById(dto.accountId());
+    public List<BatchAccountResultDto> createAccounts(List<CreateClientDto> createClientDtos) {
+        if (createClientDtos == null || createClientDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch can't be null and must contain at most " + MAX_BATCH_SIZE
+                    + " clients");
+        }
+
+        BatchAccountResultDto[] results = new BatchAccountResultDto[createClientDtos.size()];
+        // tous les clients sont validés avant la moindre écriture
+        List<Integer> indexes = new ArrayList<>();
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < createClientDtos.size(); i++) {
+            try {
+                clients.add(clientService.prepareClient(createClientDtos.get(i)));
+                indexes.add(i);
+            } catch (RuntimeException e) {
+                results[i] = new BatchAccountResultDto(i, null, toErrorResponse(e));
+            }
+        }
+
+        // insertion des clients en masse, puis des comptes des clients insérés
+        Map<Integer, String> clientErrors = bulkInsertRepository.insertAll(clients, Client.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> accountIndexes = new ArrayList<>();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < clients.size(); i++) {
+            int index = indexes.get(i);
+            if (clientErrors.containsKey(i)) {
+                results[index] = new BatchAccountResultDto(index, null,
+                        new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), clientErrors.get(i)));
+            } else {
+                accountIndexes.add(index);
+                accounts.add(new Account(new ObjectId().toHexString(), 0L, clients.get(i).id(), now, 0L, 0L));
+            }
+        }
 
-        // extraction du client
-        Client client = existingAccount.client();
+        Map<Integer, String> accountErrors = bulkInsertRepository.insertAll(accounts, Account.class);
+        for (int i = 0; i < accounts.size(); i++) {
+            int index = accountIndexes.get(i);
+            results[index] = accountErrors.containsKey(i)
+                    ? new BatchAccountResultDto(index, null,
+                            new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), accountErrors.get(i)))
+                    : new BatchAccountResultDto(index,
+                            new CreatedAccountDto(accounts.get(i).id(), accounts.get(i).clientId()), null);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public StatementDto performTransaction(CreateTransactionDto dto, TransactionType type) {
+        // la transaction passe par la file du compte, où elle peut être regroupée avec d'autres
+        AccountTransactionEngine.Request request = toEngineRequest(dto, type);
+        try {
+            Statement statement = phaseTimer("persist", type).record(() -> transactionEngine
+                    .execute(dto.accountId(), request.clientId(), request.amount(), request.fallback()));
+            return mapper.statementToDto(statement);
+        } finally {
+            // le solde a pu changer, le compte en cache n'est plus à jour
+            accountCache().evict(dto.accountId());
+        }
+    }
 
-        // on vérifie qu'on peut effectuer la transaction avec le montant renseigné
-        validateAmount(dto.amount(), type, existingAccount.balance());
+    @Override
+    public List<BatchTransactionResultDto> performTransactions(List<BatchTransactionDto> transactions) {
+        if (transactions == null || transactions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch can't be null and must contain at most " + MAX_BATCH_SIZE
+                    + " transactions");
+        }
 
-        // on vérifie que le compte appartient bien au client
-        validateClientForAccount(dto.clientId(), dto.accountId(), client);
+        BatchTransactionResultDto[] results = new BatchTransactionResultDto[transactions.size()];
+        // transactions valides regroupées par compte, dans l'ordre du lot
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        Map<String, List<AccountTransactionEngine.Request>> requestsByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            BatchTransactionDto transaction = transactions.get(i);
+            try {
+                AccountTransactionEngine.Request request = toEngineRequest(transaction);
+                indexesByAccount.computeIfAbsent(transaction.accountId(), id -> new ArrayList<>()).add(i);
+                requestsByAccount.computeIfAbsent(transaction.accountId(), id -> new ArrayList<>()).add(request);
+            } catch (RuntimeException e) {
+                results[i] = errorResult(i, e);
+            }
+        }
 
-        // On créé la transaction et on l'ajoute au compte
-        Statement statement = createTransactionAndUpdateAccount(type, dto.amount(), existingAccount);
+        // chaque compte reçoit ses transactions en une fois, elles sont enregistrées ensemble
+        Map<Integer, CompletableFuture<Statement>> pending = new HashMap<>();
+        requestsByAccount.forEach((accountId, requests) -> {
+            List<CompletableFuture<Statement>> futures = transactionEngine.submitAll(accountId, requests);
+            List<Integer> indexes = indexesByAccount.get(accountId);
+            for (int i = 0; i < indexes.size(); i++) {
+                pending.put(indexes.get(i), futures.get(i));
+            }
+        });
 
-        return new StatementDto(statement.date(), statement.amount(), statement.balance());
+        pending.forEach((index, future) -> {
+            try {
+                results[index] = new BatchTransactionResultDto(index, mapper.statementToDto(future.join()), null);
+            } catch (CompletionException e) {
+                results[index] = errorResult(index, e.getCause());
+            }
+        });
+        requestsByAccount.keySet().forEach(accountCache()::evict);
+        return Arrays.asList(results);
     }
 
     @Override
     public Account getAccountById(String accountId) {
-        // on renvoi le compte à partir de l'identifiant
-        return accountRepository.findById(accountId)
-                // on lève une erreur une erreur si le compte n'existe pas
-                .orElseThrow(() -> new AccountNotFoundException("Account not found for ID : " + accountId));
+        // lecture au travers du cache
+        Cache cache = accountCache();
+        Account cached = cache.get(accountId, Account.class);
+        if (cached != null) {
+            return cached;
+        }
+        Account account = loadAccount(accountId);
+        cache.put(accountId, account);
+        return account;
+    }
+
+    @Override
+    public BalanceDto getBalance(String accountId) {
+        // un compte en cache évite la lecture ; sinon seuls les champs utiles sont lus
+        Account account = accountCache().get(accountId, Account.class);
+        if (account == null) {
+            account = accountRepository.findBalanceById(accountId)
+                    .orElseThrow(() -> accountNotFound(accountId));
+        }
+        return mapper.balanceToDto(account);
+    }
+
+    @Override
+    public AccountPageDto getAccountsByClient(String clientId, int size, String cursor) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // on lit un compte de plus pour savoir s'il reste une page
+        List<Account> accounts = accountRepository.findByClientId(clientId,
+                cursor == null ? null : decodeAccountCursor(cursor), size + 1);
+        if (accounts.isEmpty() && cursor == null && !clientService.existsById(clientId)) {
+            // un client inconnu est une erreur, un client sans compte une page vide
+            throw new ClientNotFoundException("Client not found for ID : " + clientId);
+        }
+        if (accounts.size() <= size) {
+            return new AccountPageDto(accounts.stream().map(mapper::balanceToDto).toList(), null);
+        }
+        List<Account> page = accounts.subList(0, size);
+        return new AccountPageDto(page.stream().map(mapper::balanceToDto).toList(), encodeCursor(page.getLast()));
+    }
+
+    @Override
+    public List<Statement> getStatements(String accountId) {
+        // opérations récentes de la collection statements, précédées des opérations archivées
+        List<Statement> hot = statementRepository.findByAccountIdOrderBySequenceAsc(accountId);
+        List<Statement> statements = statementArchiveService.getArchivedStatements(accountId,
+                hot.isEmpty() ? Long.MAX_VALUE : hot.getFirst().sequence());
+        if (statements.isEmpty()) {
+            statements = hot;
+        } else {
+            statements.addAll(hot);
+        }
+        DistributionSummary.builder(STATEMENTS_SUMMARY).publishPercentileHistogram().register(meterRegistry)
+                .record(statements.size());
+        return statements;
+    }
+
+    @Override
+    public Stream<Statement> streamStatements(String accountId) {
+        // on vérifie l'existence du compte avant d'ouvrir le curseur
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException("Account not found for ID : " + accountId);
+        }
+        return statementArchiveService.streamStatements(accountId);
+    }
+
+    @Override
+    public StatementPageDto getStatementPage(String accountId, int size, String cursor) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException("Account not found for ID : " + accountId);
+        }
+
+        // on lit un élément de plus pour savoir s'il reste une page
+        long fromSequence = cursor == null ? Long.MAX_VALUE : decodeCursor(cursor);
+        List<Statement> statements = statementRepository.findByAccountIdAndSequenceLessThanOrderBySequenceDesc(
+                accountId, fromSequence, Limit.of(size + 1));
+        if (statements.size() <= size) {
+            // la suite de l'historique est dans les opérations archivées
+            List<Statement> archived = statementArchiveService.getArchivedStatements(accountId,
+                    statements.isEmpty() ? fromSequence : statements.getLast().sequence(),
+                    size + 1 - statements.size());
+            if (!archived.isEmpty()) {
+                statements = new ArrayList<>(statements);
+                statements.addAll(archived);
+            }
+        }
+
+        if (statements.size() <= size) {
+            return new StatementPageDto(mapper.toStatementDtoList(statements), null);
+        }
+        List<Statement> page = statements.subList(0, size);
+        return new StatementPageDto(mapper.toStatementDtoList(page), encodeCursor(page.getLast().sequence()));
+    }
+
+    @Override
+    public List<StatementDto> searchStatements(String accountId, LocalDate from, LocalDate to, TransactionType type,
+            BigDecimal minAmount, BigDecimal maxAmount) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Start and end dates are required and start must be before end");
+        }
+        Long min = toAmountBound(minAmount);
+        Long max = toAmountBound(maxAmount);
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("Minimum amount must be lower than maximum amount");
+        }
+        if (!accountRepository.existsById(accountId)) {
+            throw accountNotFound(accountId);
+        }
+
+        // la période est lue par l'index (accountId, date, sequence), les archives seulement si elles la couvrent
+        StatementFilter filter = new StatementFilter(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), type, min,
+                max);
+        List<Statement> statements = new ArrayList<>(statementArchiveService.getArchivedStatements(accountId, filter));
+        if (statements.size() <= MAX_SEARCH_SIZE) {
+            statements.addAll(statementRepository.findByFilter(accountId, filter,
+                    MAX_SEARCH_SIZE + 1 - statements.size()));
+        }
+        if (statements.size() > MAX_SEARCH_SIZE) {
+            throw new IllegalArgumentException("Search returns more than " + MAX_SEARCH_SIZE
+                    + " statements, please narrow the period");
+        }
+        return mapper.toStatementDtoList(statements);
     }
 
     @Override
     public Account updateAcount(Account account) {
-        // on met à jout le compte
-        return accountRepository.save(account);
+        // on met à jout le compte, une version périmée lève une OptimisticLockingFailureException
+        Account updated = accountRepository.save(account);
+        accountCache().put(updated.id(), updated);
+        return updated;
     }
 
     /**
-     * Methode qui permet de vérifier la validité du montant
+     * Methode qui permet de valider une transaction et de préparer sa soumission
+     * au moteur de transactions
      *
-     * @param amount
+     * @param dto
      * @param type
-     * @param balance
+     * @return AccountTransactionEngine.Request
      */
-    private void validateAmount(BigDecimal amount, TransactionType type, BigDecimal balance) {
-        /**
-         * le montant doit ête positif
-         * dans la cas où c'est un retrait, il doit être inférieur (ou égal) au solde
-         * sinon une exception est levée
-         */
-        if (amount.compareTo(BigDecimal.ZERO) <= 0
-                || (TransactionType.WITHDRAW.equals(type) && amount.compareTo(balance) >= 0)) {
-            throw new AmountException("Amount must be > 0 and must be <= balance in the case of a withdrawal");
+    private AccountTransactionEngine.Request toEngineRequest(CreateTransactionDto dto, TransactionType type) {
+        long transactionAmount = phaseTimer("validate", type).record(() -> toTransactionAmount(dto, type));
+        return new AccountTransactionEngine.Request(dto.clientId(), transactionAmount,
+                () -> applyTransaction(dto, type, transactionAmount));
+    }
+
+    private AccountTransactionEngine.Request toEngineRequest(BatchTransactionDto transaction) {
+        if (transaction == null || transaction.type() == null) {
+            throw new TransactionTypeException("Transaction type must be DEPOSIT or WITHDRAW");
         }
+        return toEngineRequest(
+                new CreateTransactionDto(transaction.clientId(), transaction.accountId(), transaction.amount()),
+                transaction.type());
     }
 
     /**
-     * Methode qui permet de créer un transaction
+     * Methode qui permet de construire le résultat d'une transaction refusée
      *
+     * @param index
+     * @param error
+     * @return BatchTransactionResultDto
+     */
+    private BatchTransactionResultDto errorResult(int index, Throwable error) {
+        return new BatchTransactionResultDto(index, null, toErrorResponse(error));
+    }
+
+    /**
+     * Methode qui permet de décrire l'erreur d'un élément d'un lot, avec le même
+     * code d'erreur que s'il avait été envoyé seul
+     *
+     * @param error
+     * @return ErrorResponse
+     */
+    private ErrorResponse toErrorResponse(Throwable error) {
+        HttpStatus status = switch (error) {
+            case AccountNotFoundException e -> HttpStatus.NOT_FOUND;
+            case ClientNotFoundException e -> HttpStatus.NOT_FOUND;
+            case AmountException e -> HttpStatus.BAD_REQUEST;
+            case TransactionTypeException e -> HttpStatus.BAD_REQUEST;
+            case IllegalArgumentException e -> HttpStatus.BAD_REQUEST;
+            case ConcurrentUpdateException e -> HttpStatus.CONFLICT;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+        return new ErrorResponse(status.value(), error.getLocalizedMessage());
+    }
+
+    /**
+     * Methode qui permet d'appliquer une transaction seule, par une mise à jour
+     * atomique du solde suivie de l'ajout de l'opération, sans relire le compte
+     *
+     * @param dto
+     * @param type
+     * @param transactionAmount (en centimes, négatif pour un retrait)
+     * @return Statement
+     */
+    private Statement applyTransaction(CreateTransactionDto dto, TransactionType type, long transactionAmount) {
+        // si aucune règle n'est enfreinte, le compte a été modifié entre temps et on réessaie
+        return optimisticRetry.execute(type.name().toLowerCase(), dto.accountId(), () -> {
+            Optional<Statement> statement = accountRepository.applyTransaction(dto.accountId(), dto.clientId(),
+                    transactionAmount, LocalDateTime.now());
+            if (statement.isEmpty()) {
+                // la mise à jour a été refusée : on relit le compte pour en connaître la raison
+                explainRejectedTransaction(dto, type, Math.abs(transactionAmount));
+            }
+            return statement;
+        });
+    }
+
+    /**
+     * Methode qui permet de retrouver la raison pour laquelle une transaction a
+     * été refusée (compte inexistant, solde insuffisant, mauvais client). Si
+     * aucune règle n'est enfreinte, le compte a été modifié entre temps et la
+     * transaction peut être rejouée.
+     *
+     * @param dto
+     * @param type
+     * @param amount (en centimes)
+     */
+    private void explainRejectedTransaction(CreateTransactionDto dto, TransactionType type, long amount) {
+        // lecture en base : le compte en cache peut être périmé
+        Account existingAccount = phaseTimer("load", type).record(() -> loadAccount(dto.accountId()));
+        phaseTimer("validate", type).record(() -> {
+            validateAmount(amount, type, existingAccount.balance());
+            validateClientForAccount(dto.clientId(), dto.accountId(), existingAccount.clientId());
+        });
+    }
+
+    /**
+     * Timer d'une étape d'une transaction : load (lecture du compte), validate
+     * (règles de validation) ou persist (file du compte et écriture)
+     *
+     * @param phase
+     * @param type
+     * @return Timer
+     */
+    private Timer phaseTimer(String phase, TransactionType type) {
+        return Timer.builder(PHASE_TIMER)
+                .tag("phase", phase)
+                .tag("type", type.name().toLowerCase())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Account loadAccount(String accountId) {
+        // on renvoi le compte à partir de l'identifiant
+        return accountRepository.findById(accountId)
+                // on lève une erreur une erreur si le compte n'existe pas
+                .orElseThrow(() -> accountNotFound(accountId));
+    }
+
+    static AccountNotFoundException accountNotFound(String accountId) {
+        return new AccountNotFoundException("Account not found for ID : " + accountId);
+    }
+
+    /**
+     * Indique si une transaction a été refusée avant toute écriture (validation,
+     * modifications concurrentes) : les autres erreurs (base de données
+     * indisponible, réponse perdue) ne permettent pas de savoir si le solde a été
+     * modifié
+     *
+     * @param e
+     * @return boolean
+     */
+    static boolean isRejected(RuntimeException e) {
+        return e instanceof AmountException || e instanceof AccountNotFoundException
+                || e instanceof ClientNotFoundException || e instanceof TransactionTypeException
+                || e instanceof ConcurrentUpdateException || e instanceof IllegalArgumentException;
+    }
+
+    private Cache accountCache() {
+        return cacheManager.getCache(CacheConfig.ACCOUNTS);
+    }
+
+    /**
+     * Le curseur est opaque pour l'appelant : c'est le numéro de la dernière
+     * opération de la page, encodé en base64
+     *
+     * @param sequence
+     * @return String
+     */
+    private String encodeCursor(long sequence) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor : " + cursor);
+        }
+    }
+
+    /**
+     * Le curseur des comptes d'un client est la date de création et
+     * l'identifiant du dernier compte de la page, encodés en base64
+     *
+     * @param account
+     * @return String
+     */
+    private String encodeCursor(Account account) {
+        String position = account.date().toString() + CURSOR_SEPARATOR + account.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Account decodeAccountCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(String.valueOf(CURSOR_SEPARATOR), -1);
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor : " + cursor);
+            }
+            return new Account(position[1], 0L, null, LocalDateTime.parse(position[0]), 0L, null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor : " + cursor);
+        }
+    }
+
+    /**
+     * Methode qui permet de valider une transaction avant toute lecture du compte
+     * (règles partagées avec l'API réactive)
+     *
+     * @param dto
      * @param type
-     * @param amount
-     * @param existingAccount
-     * @return
+     * @return le montant à appliquer au solde, en centimes (négatif pour un
+     *         retrait)
      */
-    private Statement createTransactionAndUpdateAccount(TransactionType type, BigDecimal amount,
-            Account existingAccount) {
-        // si c'est un retrait, le montant devient gégatif
-        BigDecimal transactionAmount = TransactionType.WITHDRAW.equals(type) ? amount.negate() : amount;
-        // on met à jour solde
-        BigDecimal newBalance = existingAccount.balance().add(transactionAmount);
-        // création de la transaction
-        Statement statement = new Statement(LocalDateTime.now(), transactionAmount, newBalance);
+    static long toTransactionAmount(CreateTransactionDto dto, TransactionType type) {
+        // le montant doit être positif, inutile d'aller plus loin sinon
+        if (!isPositive(dto.amount())) {
+            throw new AmountException(AMOUNT_ERROR_MESSAGE);
+        }
+        if (dto.accountId() == null) {
+            throw new IllegalArgumentException("Account id can't be null");
+        }
+        // le compte doit toujours appartenir au client de la requête
+        if (dto.clientId() == null) {
+            throw clientNotAssociated(null, dto.accountId());
+        }
 
-        // on met à jour le compte avec le nouveau solde et la nouvelle transaction
-        existingAccount.statements().add(statement);
+        // si c'est un retrait, le montant devient négatif
+        long amount = Money.toMinorUnits(dto.amount());
+        return TransactionType.WITHDRAW.equals(type) ? -amount : amount;
+    }
 
-        Account accountToUpate = new Account(
-                existingAccount.id(),
-                newBalance,
-                existingAccount.client(),
-                existingAccount.date(),
-                existingAccount.statements());
+    /**
+     * Methode qui permet de vérifier la validité du montant
+     *
+     * @param amount  (en centimes)
+     * @param type
+     * @param balance (en centimes)
+     */
+    static void validateAmount(long amount, TransactionType type, long balance) {
+        /**
+         * le montant doit ête positif
+         * dans la cas où c'est un retrait, il doit être inférieur (ou égal) au solde
+         * sinon une exception est levée
+         */
+        if (amount <= 0 || (TransactionType.WITHDRAW.equals(type) && amount >= balance)) {
+            throw new AmountException(AMOUNT_ERROR_MESSAGE);
+        }
+        // dans le cas d'un dépôt, le solde ne doit pas dépasser la capacité d'un long
+        if (TransactionType.DEPOSIT.equals(type)) {
+            Money.add(balance, amount);
+        }
+    }
 
-        updateAcount(accountToUpate);
+    private static Long toAmountBound(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        if (amount.signum() < 0) {
+            throw new AmountException("Amount bounds must be >= 0");
+        }
+        return Money.toMinorUnits(amount);
+    }
 
-        return statement;
+    private static boolean isPositive(BigDecimal amount) {
+        return amount != null && amount.compareTo(BigDecimal.ZERO) > 0;
     }
 
     /**
@@ -136,13 +614,16 @@ public final class AccountService implements IAccountService {
      *
      * @param clientId
      * @param accountId
-     * @param client
+     * @param accountClientId (client du compte)
      */
-    private void validateClientForAccount(String clientId, String accountId, Client client) {
-        if (!client.id().equals(clientId)) {
-            final String msg = String.format("Client with id %s is not associated with account %s", clientId,
-                    accountId);
-            throw new ClientNotFoundException(msg);
+    static void validateClientForAccount(String clientId, String accountId, String accountClientId) {
+        if (!accountClientId.equals(clientId)) {
+            throw clientNotAssociated(clientId, accountId);
         }
     }
+
+    private static ClientNotFoundException clientNotAssociated(String clientId, String accountId) {
+        final String msg = String.format("Client with id %s is not associated with account %s", clientId, accountId);
+        return new ClientNotFoundException(msg);
+    }
 }
@@ -0,0 +1,266 @@
+package com.sg.bank_account_api.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.repository.AccountRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Moteur d'exécution des transactions : chaque compte a sa propre file
+ * d'attente, traitée par un seul thread à la fois. Les transactions en attente
+ * sur un même compte sont regroupées et enregistrées en une seule écriture
+ * (group commit), chaque appelant recevant sa propre opération.
+ */
+@Component
+public final class AccountTransactionEngine {
+
+    /**
+     * Transaction à soumettre. fallback applique la transaction seule, avec ses
+     * propres règles de validation
+     */
+    public record Request(String clientId, long amount, Supplier<Statement> fallback) {
+    }
+
+    /**
+     * Transaction en attente. fallback applique la transaction seule, avec ses
+     * propres règles de validation : il est utilisé lorsqu'elle ne peut pas être
+     * regroupée ou que le lot est refusé
+     */
+    private record PendingTransaction(String accountId, String clientId, long amount,
+            Supplier<Statement> fallback, CompletableFuture<Statement> result) {
+    }
+
+    /**
+     * File d'attente d'un compte. scheduled indique qu'un thread est en train de
+     * la traiter ; il n'est modifié que dans mailboxes.compute
+     */
+    private static final class Mailbox {
+        private final Queue<PendingTransaction> queue = new ConcurrentLinkedQueue<>();
+        private boolean scheduled;
+    }
+
+    private final AccountRepository accountRepository;
+    private final Executor executor;
+    private final int maxBatchSize;
+
+    // une file par compte ayant des transactions en cours, supprimée une fois vide
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AccountTransactionEngine(AccountRepository accountRepository,
+            @Value("${bank.transactions.max-batch-size:100}") int maxBatchSize) {
+        this(accountRepository, Executors.newVirtualThreadPerTaskExecutor(), maxBatchSize);
+    }
+
+    AccountTransactionEngine(AccountRepository accountRepository, Executor executor, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be > 0");
+        }
+        this.accountRepository = accountRepository;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Soumet une transaction et attend son résultat. Les exceptions levées par la
+     * validation sont propagées telles quelles
+     *
+     * @param accountId
+     * @param clientId
+     * @param amount    (en centimes, négatif pour un retrait)
+     * @param fallback  (application de la transaction seule)
+     * @return l'opération enregistrée
+     */
+    public Statement execute(String accountId, String clientId, long amount, Supplier<Statement> fallback) {
+        try {
+            return submit(accountId, clientId, amount, fallback).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Ajoute la transaction à la file du compte et démarre son traitement si
+     * aucun thread ne s'en occupe
+     *
+     * @param accountId
+     * @param clientId
+     * @param amount
+     * @param fallback
+     * @return CompletableFuture<Statement>
+     */
+    public CompletableFuture<Statement> submit(String accountId, String clientId, long amount,
+            Supplier<Statement> fallback) {
+        return submitAll(accountId, List.of(new Request(clientId, amount, fallback))).getFirst();
+    }
+
+    /**
+     * Ajoute plusieurs transactions d'un compte à sa file, en une fois : elles
+     * sont consécutives dans la file et peuvent être enregistrées ensemble
+     *
+     * @param accountId
+     * @param requests  (dans l'ordre d'application)
+     * @return les résultats, dans l'ordre des transactions
+     */
+    public List<CompletableFuture<Statement>> submitAll(String accountId, List<Request> requests) {
+        List<PendingTransaction> pendings = requests.stream()
+                .map(request -> new PendingTransaction(accountId, request.clientId(), request.amount(),
+                        request.fallback(), new CompletableFuture<>()))
+                .toList();
+        boolean[] start = new boolean[1];
+        mailboxes.compute(accountId, (id, mailbox) -> {
+            Mailbox current = mailbox == null ? new Mailbox() : mailbox;
+            current.queue.addAll(pendings);
+            start[0] = !current.scheduled;
+            current.scheduled = true;
+            return current;
+        });
+        if (start[0]) {
+            try {
+                executor.execute(() -> drain(accountId));
+            } catch (RejectedExecutionException e) {
+                // moteur arrêté : la file ne sera jamais traitée
+                abort(accountId, e);
+            }
+        }
+        return pendings.stream().map(PendingTransaction::result).toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.close();
+        }
+    }
+
+    /**
+     * Traite la file d'un compte par lots jusqu'à ce qu'elle soit vide
+     *
+     * @param accountId
+     */
+    private void drain(String accountId) {
+        List<PendingTransaction> batch = new ArrayList<>(maxBatchSize);
+        try {
+            drain(accountId, mailboxes.get(accountId), batch);
+        } catch (Throwable e) {
+            // sortie anormale : le lot en cours et la file sont abandonnés, sinon leurs appelants attendraient indéfiniment
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            abort(accountId, e);
+            throw e;
+        }
+    }
+
+    private void drain(String accountId, Mailbox mailbox, List<PendingTransaction> batch) {
+        while (true) {
+            batch.clear();
+            PendingTransaction next;
+            while (batch.size() < maxBatchSize && (next = mailbox.queue.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                // la file n'est supprimée que si aucune transaction n'a été ajoutée entre temps
+                Mailbox remaining = mailboxes.compute(accountId, (id, current) -> {
+                    if (current.queue.isEmpty()) {
+                        current.scheduled = false;
+                        return null;
+                    }
+                    return current;
+                });
+                if (remaining == null) {
+                    return;
+                }
+                continue;
+            }
+            commit(batch);
+        }
+    }
+
+    /**
+     * Supprime la file d'un compte et termine en erreur les transactions qui y
+     * attendent. Une transaction soumise ensuite crée une nouvelle file
+     *
+     * @param accountId
+     * @param cause
+     */
+    private void abort(String accountId, Throwable cause) {
+        List<PendingTransaction> abandoned = new ArrayList<>();
+        mailboxes.computeIfPresent(accountId, (id, current) -> {
+            current.scheduled = false;
+            abandoned.addAll(current.queue);
+            return null;
+        });
+        abandoned.forEach(pending -> pending.result().completeExceptionally(cause));
+    }
+
+    /**
+     * Enregistre un lot : les transactions consécutives d'un même client sont
+     * écrites ensemble, les autres sont appliquées une à une
+     *
+     * @param batch
+     */
+    private void commit(List<PendingTransaction> batch) {
+        int start = 0;
+        while (start < batch.size()) {
+            String clientId = batch.get(start).clientId();
+            int end = start + 1;
+            while (end < batch.size() && Objects.equals(batch.get(end).clientId(), clientId)) {
+                end++;
+            }
+            commitGroup(batch.subList(start, end));
+            start = end;
+        }
+    }
+
+    private void commitGroup(List<PendingTransaction> group) {
+        if (group.size() > 1) {
+            PendingTransaction first = group.getFirst();
+            Optional<List<Statement>> statements = Optional.empty();
+            try {
+                statements = accountRepository.applyTransactions(first.accountId(), first.clientId(),
+                        group.stream().mapToLong(PendingTransaction::amount).toArray(), LocalDateTime.now());
+            } catch (RuntimeException e) {
+                group.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            }
+            if (statements.isPresent()) {
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).result().complete(statements.get().get(i));
+                }
+                return;
+            }
+        }
+        // lot refusé (ou transaction seule) : chaque transaction est appliquée et validée séparément
+        group.forEach(this::applyAlone);
+    }
+
+    private void applyAlone(PendingTransaction pending) {
+        try {
+            pending.result().complete(pending.fallback().get());
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+}
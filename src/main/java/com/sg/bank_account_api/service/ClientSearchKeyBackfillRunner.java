@@ -0,0 +1,32 @@
+package com.sg.bank_account_api.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outil de migration, lancé au démarrage avec
+ * --bank.clients.backfill-search-keys=true : la clé de recherche est calculée
+ * pour les clients enregistrés avant son ajout, qui ne sont pas trouvés par la
+ * recherche sans elle
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.clients.backfill-search-keys", havingValue = "true")
+@RequiredArgsConstructor
+public final class ClientSearchKeyBackfillRunner implements ApplicationRunner {
+
+    private final ClientService clientService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long updated = clientService.backfillSearchKeys();
+        log.info("Client search keys computed in {} ms: {} clients updated", (System.nanoTime() - start) / 1_000_000,
+                updated);
+    }
+}
@@ -2,14 +2,23 @@ package com.sg.bank_account_api.service;
 
 import static org.apache.logging.log4j.util.Strings.isBlank;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
 
+import org.bson.types.ObjectId;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import com.sg.bank_account_api.config.CacheConfig;
+import com.sg.bank_account_api.dto.ClientPageDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.exceptions.AmountException;
 import com.sg.bank_account_api.model.Client;
 import com.sg.bank_account_api.repository.ClientRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,8 +26,18 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public final class ClientService implements IClientService {
 
+    // taille maximale d'une page de recherche
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // séparateur des éléments du curseur (absent des noms normalisés)
+    private static final char CURSOR_SEPARATOR = '\n';
+
     private final ClientRepository clientRepository;
 
+    private final CacheManager cacheManager;
+
+    private final DtoMapper mapper;
+
     @Override
     public Client createClient(CreateClientDto createClientDto) {
         validate(createClientDto);
@@ -26,10 +45,84 @@ public final class ClientService implements IClientService {
         return clientRepository.save(newClient);
     }
 
+    @Override
+    public Client prepareClient(CreateClientDto createClientDto) {
+        validate(createClientDto);
+        return new Client(new ObjectId().toHexString(), createClientDto.lastname(), createClientDto.firstname(),
+                LocalDateTime.now());
+    }
+
     @Override
     public Client getClientById(String id) {
-        return clientRepository.findById(id)
+        // lecture au travers du cache
+        Cache cache = cacheManager.getCache(CacheConfig.CLIENTS);
+        Client cached = cache.get(id, Client.class);
+        if (cached != null) {
+            return cached;
+        }
+        Client client = clientRepository.findById(id)
                 .orElseThrow(() -> new AmountException("Client not found for ID : " + id));
+        cache.put(id, client);
+        return client;
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        // un client en cache existe
+        return cacheManager.getCache(CacheConfig.CLIENTS).get(id) != null || clientRepository.existsById(id);
+    }
+
+    @Override
+    public ClientPageDto searchClients(String lastname, String firstname, int size, String cursor) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String lastnamePrefix = Client.normalize(lastname);
+        String firstnamePrefix = Client.normalize(firstname);
+        if (lastnamePrefix.isEmpty() && firstnamePrefix.isEmpty()) {
+            throw new IllegalArgumentException("Lastname or firstname is required to search clients");
+        }
+
+        // on lit un client de plus pour savoir s'il reste une page
+        List<Client> clients = clientRepository.findBySearchKeyPrefix(lastnamePrefix, firstnamePrefix,
+                cursor == null ? null : decodeCursor(cursor), size + 1);
+        if (clients.size() <= size) {
+            return new ClientPageDto(clients.stream().map(mapper::clientToDto).toList(), null);
+        }
+        List<Client> page = clients.subList(0, size);
+        return new ClientPageDto(page.stream().map(mapper::clientToDto).toList(), encodeCursor(page.getLast()));
+    }
+
+    @Override
+    public long backfillSearchKeys() {
+        return clientRepository.backfillSearchKeys();
+    }
+
+    /**
+     * Le curseur est opaque pour l'appelant : c'est la clé de recherche et
+     * l'identifiant du dernier client de la page, encodés en base64
+     *
+     * @param client
+     * @return String
+     */
+    private String encodeCursor(Client client) {
+        String position = client.searchKey().lastname() + CURSOR_SEPARATOR + client.searchKey().firstname()
+                + CURSOR_SEPARATOR + client.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Client decodeCursor(String cursor) {
+        String[] position;
+        try {
+            position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(String.valueOf(CURSOR_SEPARATOR), -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor : " + cursor);
+        }
+        if (position.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor : " + cursor);
+        }
+        return new Client(position[2], null, null, null, new Client.SearchKey(position[0], position[1]));
     }
 
     private void validate(CreateClientDto createClientDto) {
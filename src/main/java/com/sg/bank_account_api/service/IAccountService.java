@@ -1,10 +1,22 @@
 package com.sg.bank_account_api.service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.sg.bank_account_api.dto.AccountPageDto;
+import com.sg.bank_account_api.dto.BalanceDto;
+import com.sg.bank_account_api.dto.BatchAccountResultDto;
+import com.sg.bank_account_api.dto.BatchTransactionDto;
+import com.sg.bank_account_api.dto.BatchTransactionResultDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.dto.CreateTransactionDto;
 import com.sg.bank_account_api.dto.CreatedAccountDto;
 import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.dto.StatementPageDto;
 import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Statement;
 import com.sg.bank_account_api.model.TransactionType;
 
 public sealed interface IAccountService permits AccountService {
@@ -17,6 +29,16 @@ public sealed interface IAccountService permits AccountService {
      */
     CreatedAccountDto createAccount(CreateClientDto createClientDto);
 
+    /**
+     * permet d'ouvrir des comptes en masse. Tous les clients sont validés avant
+     * l'insertion, puis les clients et les comptes sont insérés en écritures
+     * groupées
+     *
+     * @param createClientDtos
+     * @return le compte créé ou l'erreur de chaque client, dans l'ordre du lot
+     */
+    List<BatchAccountResultDto> createAccounts(List<CreateClientDto> createClientDtos);
+
     /**
      * Permet d'effectuer une transaction (Retrait ou Dépôt)
      *
@@ -27,7 +49,18 @@ public sealed interface IAccountService permits AccountService {
     StatementDto performTransaction(CreateTransactionDto dto, TransactionType type);
 
     /**
-     * permet de récuperer un compte à partir de son identifiant
+     * Permet d'effectuer un lot de transactions. Les transactions sont regroupées
+     * par compte et appliquées dans l'ordre du lot ; chacune est validée comme si
+     * elle avait été envoyée seule
+     *
+     * @param transactions
+     * @return le résultat de chaque transaction, dans l'ordre du lot
+     */
+    List<BatchTransactionResultDto> performTransactions(List<BatchTransactionDto> transactions);
+
+    /**
+     * permet de récuperer un compte à partir de son identifiant (au travers du
+     * cache des comptes)
      *
      * @param accountId
      * @return Account
@@ -35,7 +68,72 @@ public sealed interface IAccountService permits AccountService {
     Account getAccountById(String accountId);
 
     /**
-     * permet de mettre à jour le compte, notamment après une transaction
+     * permet de récupérer le solde courant d'un compte, sans charger le compte
+     * complet ni son historique
+     *
+     * @param accountId
+     * @return BalanceDto
+     */
+    BalanceDto getBalance(String accountId);
+
+    /**
+     * permet de récupérer une page des soldes des comptes d'un client, du plus
+     * ancien au plus récent (par l'index des comptes sur l'identifiant du client)
+     *
+     * @param clientId
+     * @param size     (nombre de comptes par page)
+     * @param cursor   (curseur renvoyé par la page précédente, null pour la
+     *                 première page)
+     * @return AccountPageDto
+     */
+    AccountPageDto getAccountsByClient(String clientId, int size, String cursor);
+
+    /**
+     * permet de récupérer l'historique des opérations d'un compte
+     *
+     * @param accountId
+     * @return List<Statement>
+     */
+    List<Statement> getStatements(String accountId);
+
+    /**
+     * permet de parcourir tout l'historique d'un compte sans le charger en
+     * mémoire. Le flux doit être fermé après usage
+     *
+     * @param accountId
+     * @return Stream<Statement>
+     */
+    Stream<Statement> streamStatements(String accountId);
+
+    /**
+     * permet de rechercher les opérations d'un compte d'une période, dans l'ordre
+     *
+     * @param accountId
+     * @param from      (premier jour, inclus)
+     * @param to        (dernier jour, inclus)
+     * @param type      (dépôts ou retraits, tous si null)
+     * @param minAmount (montant minimum en valeur absolue, facultatif)
+     * @param maxAmount (montant maximum en valeur absolue, facultatif)
+     * @return List<StatementDto>
+     */
+    List<StatementDto> searchStatements(String accountId, LocalDate from, LocalDate to, TransactionType type,
+            BigDecimal minAmount, BigDecimal maxAmount);
+
+    /**
+     * permet de récupérer une page de l'historique d'un compte, de la plus
+     * récente à la plus ancienne opération
+     *
+     * @param accountId
+     * @param size      (nombre d'opérations par page)
+     * @param cursor    (curseur renvoyé par la page précédente, null pour la
+     *                  première page)
+     * @return StatementPageDto
+     */
+    StatementPageDto getStatementPage(String accountId, int size, String cursor);
+
+    /**
+     * permet de mettre à jour le compte. La mise à jour est refusée si le compte a
+     * été modifié depuis sa lecture (version différente)
      *
      * @param account
      */
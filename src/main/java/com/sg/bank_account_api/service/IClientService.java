@@ -1,5 +1,6 @@
 package com.sg.bank_account_api.service;
 
+import com.sg.bank_account_api.dto.ClientPageDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.model.Client;
 
@@ -13,6 +14,15 @@ public sealed interface IClientService permits ClientService {
      */
     Client createClient(CreateClientDto client);
 
+    /**
+     * permet de valider un nouveau client et de lui attribuer un identifiant,
+     * sans l'enregistrer (pour les insertions en masse)
+     *
+     * @param client
+     * @return Client
+     */
+    Client prepareClient(CreateClientDto client);
+
     /**
      * permet de récuperer un client à partir de son identifiant
      *
@@ -20,4 +30,34 @@ public sealed interface IClientService permits ClientService {
      * @return Client
      */
     Client getClientById(String id);
+
+    /**
+     * permet de savoir si un client existe
+     *
+     * @param id
+     * @return boolean
+     */
+    boolean existsById(String id);
+
+    /**
+     * permet de rechercher les clients par début du nom et/ou du prénom, sans
+     * tenir compte des majuscules ni des accents. Les clients sont triés par
+     * nom puis prénom (par prénom puis nom si seul le prénom est donné)
+     *
+     * @param lastname  (début du nom, facultatif)
+     * @param firstname (début du prénom, facultatif)
+     * @param size      (nombre de clients par page)
+     * @param cursor    (curseur renvoyé par la page précédente, null pour la
+     *                  première page)
+     * @return ClientPageDto
+     */
+    ClientPageDto searchClients(String lastname, String firstname, int size, String cursor);
+
+    /**
+     * permet de calculer la clé de recherche des clients enregistrés avant son
+     * ajout
+     *
+     * @return le nombre de clients mis à jour
+     */
+    long backfillSearchKeys();
 }
@@ -0,0 +1,25 @@
+package com.sg.bank_account_api.service;
+
+import java.util.function.Supplier;
+
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.model.TransactionType;
+
+public sealed interface IIdempotencyService permits IdempotencyService {
+
+    /**
+     * permet d'effectuer une transaction au plus une fois par clé d'idempotence.
+     * Une requête déjà traitée renvoie le résultat d'origine sans toucher au
+     * compte ; une requête identique en cours de traitement est attendue
+     *
+     * @param idempotencyKey
+     * @param dto            (transaction, pour vérifier que la clé n'est pas
+     *                       réutilisée pour une autre requête)
+     * @param type
+     * @param transaction    (exécution de la transaction)
+     * @return StatementDto
+     */
+    StatementDto execute(String idempotencyKey, CreateTransactionDto dto, TransactionType type,
+            Supplier<StatementDto> transaction);
+}
@@ -0,0 +1,76 @@
+package com.sg.bank_account_api.service;
+
+import com.sg.bank_account_api.model.Snapshot;
+
+public sealed interface ILedgerService permits LedgerService {
+
+    /**
+     * Résultat d'une reconstruction des soldes
+     *
+     * @param accounts (nombre de comptes rejoués)
+     * @param events   (nombre d'opérations rejouées)
+     * @param repaired (nombre de comptes dont le solde a été réaligné sur
+     *                 l'historique)
+     * @param failed   (nombre de comptes en erreur ou modifiés pendant leur
+     *                 reconstruction)
+     */
+    record RebuildReport(long accounts, long events, long repaired, long failed) {
+    }
+
+    /**
+     * Résultat d'une vérification des soldes
+     *
+     * @param accounts   (nombre de comptes vérifiés)
+     * @param mismatched (nombre de comptes dont le solde diffère de l'historique
+     *                   ou en erreur)
+     */
+    record CheckReport(long accounts, long mismatched) {
+    }
+
+    /**
+     * permet de calculer l'état courant d'un compte à partir de l'historique :
+     * dernière photographie du solde plus les opérations qui la suivent
+     *
+     * @param accountId
+     * @return le solde et le numéro de la dernière opération (non enregistré)
+     */
+    Snapshot getCurrentState(String accountId);
+
+    /**
+     * permet de vérifier, sans rien modifier, que le solde et le numéro de la
+     * dernière opération d'un compte sont ceux calculés à partir de l'historique
+     * (voir getCurrentState)
+     *
+     * @param accountId
+     * @return true si le compte est cohérent avec son historique
+     */
+    boolean isConsistent(String accountId);
+
+    /**
+     * permet de rejouer tout l'historique d'un compte : les photographies du
+     * solde et les cumuls journaliers et mensuels sont réécrits, et le solde du
+     * compte est réaligné sur l'historique s'il en diffère. Un compte en avance
+     * sur l'historique (opération en cours d'insertion ou encore dans le journal
+     * local) n'est pas réaligné et est compté en échec
+     *
+     * @param accountId
+     * @return le résultat pour ce compte
+     */
+    RebuildReport rebuildAccount(String accountId);
+
+    /**
+     * permet de rejouer l'historique de tous les comptes, plusieurs comptes à la
+     * fois (chaque compte est rejoué par un seul thread)
+     *
+     * @return RebuildReport
+     */
+    RebuildReport rebuild();
+
+    /**
+     * permet de vérifier tous les comptes, plusieurs comptes à la fois : seules la
+     * dernière photographie et les opérations qui la suivent sont lues
+     *
+     * @return CheckReport
+     */
+    CheckReport check();
+}
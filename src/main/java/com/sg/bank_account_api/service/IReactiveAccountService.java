@@ -0,0 +1,62 @@
+package com.sg.bank_account_api.service;
+
+import com.sg.bank_account_api.dto.CreateClientDto;
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.TransactionType;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Version non bloquante de {@link IAccountService}, avec les mêmes règles de
+ * validation
+ */
+public sealed interface IReactiveAccountService permits ReactiveAccountService {
+
+    /**
+     * permet de créer un compte pour un nouveau client
+     *
+     * @param createClientDto
+     * @return Mono<CreatedAccountDto>
+     */
+    Mono<CreatedAccountDto> createAccount(CreateClientDto createClientDto);
+
+    /**
+     * permet d'effectuer une transaction (dépôt ou retrait)
+     *
+     * @param dto
+     * @param type
+     * @return Mono<StatementDto>
+     */
+    Mono<StatementDto> performTransaction(CreateTransactionDto dto, TransactionType type);
+
+    /**
+     * permet de récuperer un compte à partir de son identifiant
+     *
+     * @param accountId
+     * @return Mono<Account>
+     */
+    Mono<Account> getAccountById(String accountId);
+
+    /**
+     * permet de récuperer un client à partir de son identifiant
+     *
+     * @param clientId
+     * @return Mono<Client>
+     */
+    Mono<Client> getClientById(String clientId);
+
+    /**
+     * permet de récupérer l'historique d'un compte (opérations archivées puis
+     * récentes), dans l'ordre des opérations
+     *
+     * @param accountId
+     * @return Flux<Statement>
+     */
+    Flux<Statement> getStatements(String accountId);
+}
@@ -0,0 +1,22 @@
+package com.sg.bank_account_api.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.sg.bank_account_api.dto.RollupDto;
+import com.sg.bank_account_api.model.RollupGranularity;
+
+public sealed interface IRollupService permits RollupService {
+
+    /**
+     * permet de récupérer les cumuls d'un compte, par jour ou par mois, dans
+     * l'ordre chronologique
+     *
+     * @param accountId
+     * @param granularity
+     * @param from        (inclus, premier cumul si null)
+     * @param to          (inclus, dernier cumul si null)
+     * @return les cumuls des périodes qui contiennent au moins une opération
+     */
+    List<RollupDto> getRollups(String accountId, RollupGranularity granularity, LocalDate from, LocalDate to);
+}
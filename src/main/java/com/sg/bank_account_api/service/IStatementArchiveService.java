@@ -0,0 +1,68 @@
+package com.sg.bank_account_api.service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.StatementFilter;
+
+public sealed interface IStatementArchiveService permits StatementArchiveService {
+
+    /**
+     * permet d'archiver les anciennes opérations de tous les comptes
+     *
+     * @return le nombre d'opérations archivées
+     */
+    long archive();
+
+    /**
+     * permet d'archiver les anciennes opérations d'un compte : celles qui ne sont
+     * ni parmi les bank.statements.hot-count dernières, ni plus récentes que
+     * bank.statements.hot-days jours, ni postérieures à la dernière photographie
+     * du solde
+     *
+     * @param accountId
+     * @return le nombre d'opérations archivées
+     */
+    int archiveAccount(String accountId);
+
+    /**
+     * permet de récupérer les opérations archivées d'un compte antérieures à
+     * sequence, dans l'ordre
+     *
+     * @param accountId
+     * @param sequence
+     * @return List<Statement>
+     */
+    List<Statement> getArchivedStatements(String accountId, long sequence);
+
+    /**
+     * permet de récupérer au plus limit opérations archivées d'un compte
+     * antérieures à sequence, de la plus récente à la plus ancienne
+     *
+     * @param accountId
+     * @param sequence
+     * @param limit
+     * @return List<Statement>
+     */
+    List<Statement> getArchivedStatements(String accountId, long sequence, int limit);
+
+    /**
+     * permet de récupérer les opérations archivées d'un compte qui satisfont les
+     * critères, dans l'ordre. Seuls les blocs de la période sont lus
+     *
+     * @param accountId
+     * @param filter
+     * @return List<Statement>
+     */
+    List<Statement> getArchivedStatements(String accountId, StatementFilter filter);
+
+    /**
+     * permet de parcourir tout l'historique d'un compte (opérations archivées puis
+     * récentes), dans l'ordre. Le flux doit être fermé après usage
+     *
+     * @param accountId
+     * @return Stream<Statement>
+     */
+    Stream<Statement> streamStatements(String accountId);
+}
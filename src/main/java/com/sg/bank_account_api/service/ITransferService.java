@@ -0,0 +1,25 @@
+package com.sg.bank_account_api.service;
+
+import com.sg.bank_account_api.dto.CreateTransferDto;
+import com.sg.bank_account_api.dto.TransferDto;
+
+public sealed interface ITransferService permits TransferService {
+
+    /**
+     * permet de virer un montant d'un compte du client vers un autre compte. Le
+     * débit suit les règles d'un retrait, le crédit celles d'un dépôt ; si le
+     * crédit est impossible, le compte source est remboursé
+     *
+     * @param dto
+     * @return TransferDto
+     */
+    TransferDto transfer(CreateTransferDto dto);
+
+    /**
+     * permet de reprendre les virements interrompus (débités mais pas crédités,
+     * ou pas encore débités) depuis plus de bank.transfers.recovery-delay
+     *
+     * @return le nombre de virements repris
+     */
+    int recoverTransfers();
+}
@@ -0,0 +1,192 @@
+package com.sg.bank_account_api.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.exceptions.IdempotencyKeyException;
+import com.sg.bank_account_api.model.IdempotencyRecord;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.repository.IdempotencyRepository;
+
+/**
+ * Classe qui garantit qu'une transaction envoyée avec une clé d'idempotence
+ * n'est exécutée qu'une fois. Les résultats sont gardés en mémoire (nombre de
+ * clés borné) et dans la collection idempotency_keys, d'où ils expirent après
+ * bank.idempotency.ttl. La clé est réservée dans MongoDB avant l'exécution :
+ * une requête identique reçue par une autre instance attend le résultat
+ */
+@Service
+public final class IdempotencyService implements IIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // intervalle de relecture d'une clé réservée par une autre instance
+    private static final long POLL_INTERVAL_MS = 20;
+
+    /**
+     * Requête connue de cette instance : terminée ou en cours
+     */
+    private record Pending(String fingerprint, CompletableFuture<StatementDto> result) {
+    }
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<String, Pending> pendings;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRepository idempotencyRepository,
+            @Value("${bank.idempotency.ttl:24h}") Duration ttl,
+            @Value("${bank.idempotency.wait-timeout:5s}") Duration waitTimeout,
+            @Value("${bank.idempotency.max-keys:100000}") long maxKeys) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.pendings = Caffeine.newBuilder().maximumSize(maxKeys).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public StatementDto execute(String idempotencyKey, CreateTransactionDto dto, TransactionType type,
+            Supplier<StatementDto> transaction) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key can't be blank and must contain at most "
+                    + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(dto, type);
+
+        // une seule exécution par clé dans cette instance : les requêtes identiques attendent la première
+        Pending created = new Pending(fingerprint, new CompletableFuture<>());
+        Pending pending = pendings.asMap().putIfAbsent(idempotencyKey, created);
+        if (pending != null) {
+            checkFingerprint(idempotencyKey, pending.fingerprint(), fingerprint);
+            return join(pending.result());
+        }
+
+        try {
+            StatementDto result = executeOnce(idempotencyKey, fingerprint, transaction);
+            created.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // les erreurs ne sont pas conservées : la requête pourra être renvoyée
+            pendings.asMap().remove(idempotencyKey, created);
+            created.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Exécute la transaction si la clé n'est pas déjà réservée dans MongoDB,
+     * sinon attend le résultat de la requête qui l'a réservée
+     *
+     * @param idempotencyKey
+     * @param fingerprint
+     * @param transaction
+     * @return StatementDto
+     */
+    private StatementDto executeOnce(String idempotencyKey, String fingerprint, Supplier<StatementDto> transaction) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            Optional<IdempotencyRecord> stored = idempotencyRepository.findById(idempotencyKey);
+            if (stored.isPresent()) {
+                checkFingerprint(idempotencyKey, stored.get().fingerprint(), fingerprint);
+                if (stored.get().response() != null) {
+                    return stored.get().response();
+                }
+            } else if (reserve(idempotencyKey, fingerprint)) {
+                return executeReserved(idempotencyKey, fingerprint, transaction);
+            }
+
+            // requête en cours sur une autre instance (ou réservée entre temps)
+            if (System.nanoTime() > deadline) {
+                throw new ConcurrentUpdateException("Request with idempotency key " + idempotencyKey
+                        + " is still in progress or its outcome is unknown, please retry later");
+            }
+            sleep();
+        }
+    }
+
+    private boolean reserve(String idempotencyKey, String fingerprint) {
+        try {
+            idempotencyRepository.insert(new IdempotencyRecord(idempotencyKey, fingerprint, null, expiresAt()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private StatementDto executeReserved(String idempotencyKey, String fingerprint,
+            Supplier<StatementDto> transaction) {
+        StatementDto result;
+        try {
+            result = transaction.get();
+        } catch (RuntimeException e) {
+            if (AccountService.isRejected(e)) {
+                // la transaction n'a pas eu lieu : la clé est libérée
+                idempotencyRepository.deleteById(idempotencyKey);
+            }
+            // sinon le solde a pu être modifié : la clé reste réservée jusqu'à son expiration pour que la
+            // transaction ne puisse pas être appliquée une seconde fois
+            throw e;
+        }
+        idempotencyRepository.save(new IdempotencyRecord(idempotencyKey, fingerprint, result, expiresAt()));
+        return result;
+    }
+
+    private LocalDateTime expiresAt() {
+        return LocalDateTime.now().plus(ttl);
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting for a request in progress");
+        }
+    }
+
+    private static StatementDto join(CompletableFuture<StatementDto> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void checkFingerprint(String idempotencyKey, String expected, String fingerprint) {
+        if (!expected.equals(fingerprint)) {
+            throw new IdempotencyKeyException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+    }
+
+    /**
+     * Identifie une requête : deux requêtes avec la même clé doivent avoir la
+     * même empreinte
+     *
+     * @param dto
+     * @param type
+     * @return String
+     */
+    static String fingerprint(CreateTransactionDto dto, TransactionType type) {
+        String amount = dto.amount() == null ? null : dto.amount().stripTrailingZeros().toPlainString();
+        return type + "|" + dto.accountId() + "|" + dto.clientId() + "|" + amount;
+    }
+}
@@ -0,0 +1,33 @@
+package com.sg.bank_account_api.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.sg.bank_account_api.service.ILedgerService.CheckReport;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outil de vérification des soldes, lancé au démarrage avec
+ * --bank.ledger.check=true : le solde de chaque compte est comparé à sa
+ * dernière photographie plus les opérations qui la suivent, sans rien modifier
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.ledger.check", havingValue = "true")
+@RequiredArgsConstructor
+public final class LedgerCheckRunner implements ApplicationRunner {
+
+    private final LedgerService ledgerService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        CheckReport report = ledgerService.check();
+        log.info("Ledger checked in {} ms: {} accounts, {} mismatched", (System.nanoTime() - start) / 1_000_000,
+                report.accounts(), report.mismatched());
+    }
+}
@@ -0,0 +1,36 @@
+package com.sg.bank_account_api.service;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.sg.bank_account_api.service.ILedgerService.RebuildReport;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outil de reconstruction des soldes, lancé au démarrage avec
+ * --bank.ledger.rebuild=true. Tout l'historique est rejoué une fois les beans
+ * créés (et le journal local réinséré), avant le démarrage du serveur web et
+ * des tâches planifiées : aucune transaction de cette instance ne modifie les
+ * cumuls pendant qu'ils sont réécrits. Les autres instances doivent être
+ * arrêtées pendant la reconstruction
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bank.ledger.rebuild", havingValue = "true")
+@RequiredArgsConstructor
+public final class LedgerRebuildRunner implements SmartInitializingSingleton {
+
+    private final LedgerService ledgerService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        RebuildReport report = ledgerService.rebuild();
+        log.info("Ledger rebuilt in {} ms: {} accounts, {} events, {} repaired, {} failed",
+                (System.nanoTime() - start) / 1_000_000, report.accounts(), report.events(), report.repaired(),
+                report.failed());
+    }
+}
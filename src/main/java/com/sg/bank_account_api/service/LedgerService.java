@@ -0,0 +1,206 @@
+package com.sg.bank_account_api.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Money;
+import com.sg.bank_account_api.model.Rollup;
+import com.sg.bank_account_api.model.RollupGranularity;
+import com.sg.bank_account_api.model.Snapshot;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.RollupRepository;
+import com.sg.bank_account_api.repository.SnapshotRepository;
+import com.sg.bank_account_api.repository.StatementRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Classe qui exploite l'historique des opérations (en ajout seul) comme source
+ * de vérité : calcul du solde à partir de la dernière photographie et
+ * reconstruction ou vérification des soldes de tous les comptes
+ */
+@Slf4j
+@Service
+public final class LedgerService implements ILedgerService {
+
+    // nombre de photographies enregistrées en une fois pendant une reconstruction
+    private static final int SNAPSHOT_BATCH_SIZE = 1_000;
+
+    private final AccountRepository accountRepository;
+    private final StatementRepository statementRepository;
+    private final IStatementArchiveService statementArchiveService;
+    private final SnapshotRepository snapshotRepository;
+    private final RollupRepository rollupRepository;
+    private final int snapshotInterval;
+    private final int parallelism;
+
+    public LedgerService(AccountRepository accountRepository, StatementRepository statementRepository,
+            IStatementArchiveService statementArchiveService, SnapshotRepository snapshotRepository,
+            RollupRepository rollupRepository,
+            @Value("${bank.ledger.snapshot-interval:1000}") int snapshotInterval,
+            @Value("${bank.ledger.rebuild.parallelism:0}") int parallelism) {
+        this.accountRepository = accountRepository;
+        this.statementRepository = statementRepository;
+        this.statementArchiveService = statementArchiveService;
+        this.snapshotRepository = snapshotRepository;
+        this.rollupRepository = rollupRepository;
+        this.snapshotInterval = snapshotInterval;
+        // par défaut, autant de comptes à la fois que de processeurs
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public Snapshot getCurrentState(String accountId) {
+        if (!accountRepository.existsById(accountId)) {
+            throw AccountService.accountNotFound(accountId);
+        }
+        Snapshot snapshot = snapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId)
+                .orElseGet(() -> Snapshot.of(accountId, 0L, 0L, null));
+
+        long sequence = snapshot.sequence();
+        long balance = snapshot.balance();
+        try (Stream<Statement> tail = statementRepository
+                .streamByAccountIdAndSequenceGreaterThanOrderBySequenceAsc(accountId, sequence)) {
+            for (Statement statement : (Iterable<Statement>) tail::iterator) {
+                balance = Money.add(balance, statement.amount());
+                sequence = statement.sequence();
+            }
+        }
+        return Snapshot.of(accountId, sequence, balance, null);
+    }
+
+    @Override
+    public RebuildReport rebuildAccount(String accountId) {
+        // le compte est lu avant l'historique : s'il est modifié pendant le rejeu, sa version change
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> AccountService.accountNotFound(accountId));
+
+        long events = 0;
+        long sequence = 0;
+        long balance = 0;
+        List<Snapshot> snapshots = new ArrayList<>();
+        Map<String, Rollup> rollups = new LinkedHashMap<>();
+        // tout l'historique, opérations archivées comprises
+        try (Stream<Statement> statements = statementArchiveService.streamStatements(accountId)) {
+            for (Statement statement : (Iterable<Statement>) statements::iterator) {
+                balance = Money.add(balance, statement.amount());
+                sequence = statement.sequence();
+                events++;
+                for (RollupGranularity granularity : RollupGranularity.values()) {
+                    Rollup rollup = Rollup.of(statement, granularity);
+                    rollups.merge(rollup.id(), rollup, (current, added) -> current.plus(statement));
+                }
+                if (Snapshot.isDue(sequence, snapshotInterval)) {
+                    snapshots.add(Snapshot.of(accountId, sequence, balance, statement.date()));
+                    if (snapshots.size() >= SNAPSHOT_BATCH_SIZE) {
+                        snapshotRepository.saveAll(snapshots);
+                        snapshots.clear();
+                    }
+                }
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            snapshotRepository.saveAll(snapshots);
+        }
+        if (!rollups.isEmpty()) {
+            rollupRepository.saveAll(rollups.values());
+        }
+
+        if (account.balance() == balance && account.sequence() == sequence) {
+            return new RebuildReport(1, events, 0, 0);
+        }
+        if (account.sequence() > sequence) {
+            // le compte est en avance sur l'historique : une opération est en cours d'insertion ou encore dans le
+            // journal local, le réalignement l'annulerait
+            return new RebuildReport(1, events, 0, 1);
+        }
+        long version = account.version() == null ? 0L : account.version();
+        boolean reset = accountRepository.resetBalance(accountId, version, balance, sequence);
+        return new RebuildReport(1, events, reset ? 1 : 0, reset ? 0 : 1);
+    }
+
+    @Override
+    public boolean isConsistent(String accountId) {
+        // le compte peut être modifié entre les deux lectures : il est relu une fois
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Account account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> AccountService.accountNotFound(accountId));
+            Snapshot state = getCurrentState(accountId);
+            if (account.balance() == state.balance() && account.sequence() == state.sequence()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public RebuildReport rebuild() {
+        LongAdder events = new LongAdder();
+        LongAdder repaired = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long accounts = forEachAccount(accountId -> {
+            RebuildReport report = rebuildAccount(accountId);
+            events.add(report.events());
+            repaired.add(report.repaired());
+            failed.add(report.failed());
+        }, failed);
+        return new RebuildReport(accounts, events.sum(), repaired.sum(), failed.sum());
+    }
+
+    @Override
+    public CheckReport check() {
+        LongAdder mismatched = new LongAdder();
+        long accounts = forEachAccount(accountId -> {
+            if (!isConsistent(accountId)) {
+                log.warn("Account {} differs from its history", accountId);
+                mismatched.increment();
+            }
+        }, mismatched);
+        return new CheckReport(accounts, mismatched.sum());
+    }
+
+    /**
+     * Traite tous les comptes, au plus parallelism à la fois
+     *
+     * @param task
+     * @param failed (incrémenté pour chaque compte en erreur)
+     * @return le nombre de comptes traités
+     */
+    private long forEachAccount(Consumer<String> task, LongAdder failed) {
+        LongAdder accounts = new LongAdder();
+        // au plus parallelism comptes en cours, pour ne pas charger tous les identifiants en mémoire
+        Semaphore permits = new Semaphore(parallelism);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                Stream<Account> ids = accountRepository.streamIdsBy()) {
+            for (Account account : (Iterable<Account>) ids::iterator) {
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        task.accept(account.id());
+                    } catch (RuntimeException e) {
+                        log.warn("Ledger task failed for account {}", account.id(), e);
+                        failed.increment();
+                    } finally {
+                        accounts.increment();
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return accounts.sum();
+    }
+}
@@ -0,0 +1,145 @@
+package com.sg.bank_account_api.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Classe qui rejoue une écriture sur un compte en cas de modification
+ * concurrente, avec un nombre de tentatives borné et une attente aléatoire
+ * croissante entre deux tentatives. Les conflits, les nouvelles tentatives et
+ * les abandons sont comptés par endpoint
+ */
+@Component
+public final class OptimisticRetry {
+
+    static final String CONFLICTS = "bank.account.conflicts";
+    static final String RETRIES = "bank.account.retries";
+    static final String GIVE_UPS = "bank.account.give-ups";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public OptimisticRetry(MeterRegistry meterRegistry,
+            @Value("${bank.transactions.retry.max-attempts:3}") int maxAttempts,
+            @Value("${bank.transactions.retry.backoff-base-ms:5}") long backoffBaseMs,
+            @Value("${bank.transactions.retry.backoff-max-ms:100}") long backoffMaxMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be > 0");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+
+    /**
+     * Exécute l'écriture jusqu'à ce qu'elle réussisse. Une tentative qui renvoie
+     * un résultat vide ou lève une OptimisticLockingFailureException est en
+     * conflit ; les autres exceptions sont propagées immédiatement
+     *
+     * @param endpoint  (pour les métriques)
+     * @param accountId
+     * @param attempt
+     * @return le résultat de la première tentative sans conflit
+     */
+    public <T> T execute(String endpoint, String accountId, Supplier<Optional<T>> attempt) {
+        for (int i = 1; ; i++) {
+            Optional<T> result;
+            try {
+                result = attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                result = Optional.empty();
+            }
+            if (result.isPresent()) {
+                return result.get();
+            }
+
+            counter(CONFLICTS, endpoint).increment();
+            if (i >= maxAttempts) {
+                counter(GIVE_UPS, endpoint).increment();
+                throw new ConcurrentUpdateException(
+                        "Account " + accountId + " was modified concurrently, please retry");
+            }
+            counter(RETRIES, endpoint).increment();
+            backoff(i, accountId);
+        }
+    }
+
+    /**
+     * Version non bloquante de {@link #execute(String, String, Supplier)} : une
+     * tentative qui se termine sans résultat ou par une
+     * OptimisticLockingFailureException est en conflit, et l'attente entre deux
+     * tentatives ne bloque aucun thread
+     *
+     * @param endpoint  (pour les métriques)
+     * @param accountId
+     * @param attempt
+     * @return le résultat de la première tentative sans conflit
+     */
+    public <T> Mono<T> executeReactive(String endpoint, String accountId, Supplier<Mono<T>> attempt) {
+        return attemptReactive(endpoint, accountId, attempt, 1);
+    }
+
+    private <T> Mono<T> attemptReactive(String endpoint, String accountId, Supplier<Mono<T>> attempt, int i) {
+        return Mono.defer(attempt)
+                .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.defer(() -> {
+                    counter(CONFLICTS, endpoint).increment();
+                    if (i >= maxAttempts) {
+                        counter(GIVE_UPS, endpoint).increment();
+                        return Mono.error(new ConcurrentUpdateException(
+                                "Account " + accountId + " was modified concurrently, please retry"));
+                    }
+                    counter(RETRIES, endpoint).increment();
+                    Mono<T> next = attemptReactive(endpoint, accountId, attempt, i + 1);
+                    long delay = backoffDelay(i);
+                    return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).then(next) : next;
+                }));
+    }
+
+    private void backoff(int attempt, String accountId) {
+        long delay = backoffDelay(attempt);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying update of account " + accountId);
+        }
+    }
+
+    /**
+     * Attente aléatoire entre 0 et base * 2^(tentative - 1), plafonnée (full
+     * jitter) pour que les écritures en conflit ne se représentent pas ensemble
+     *
+     * @param attempt
+     * @return la durée d'attente en millisecondes
+     */
+    private long backoffDelay(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Counter counter(String name, String endpoint) {
+        return meterRegistry.counter(name, "endpoint", endpoint);
+    }
+}
@@ -0,0 +1,118 @@
+package com.sg.bank_account_api.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import com.sg.bank_account_api.dto.CreateClientDto;
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.exceptions.ClientNotFoundException;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.repository.ReactiveAccountRepository;
+import com.sg.bank_account_api.repository.ReactiveClientRepository;
+import com.sg.bank_account_api.repository.ReactiveStatementRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Classe qui gère la logique d'un compte sans bloquer de thread : les accès à
+ * MongoDB passent par les dépôts réactifs, les règles de validation sont celles
+ * d'AccountService
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public final class ReactiveAccountService implements IReactiveAccountService {
+
+    // Dépendances
+    private final ReactiveAccountRepository accountRepository;
+
+    private final ReactiveStatementRepository statementRepository;
+
+    private final ReactiveClientRepository clientRepository;
+
+    private final IStatementArchiveService statementArchiveService;
+
+    private final ClientService clientService;
+
+    private final DtoMapper mapper;
+
+    private final OptimisticRetry optimisticRetry;
+
+    @Override
+    public Mono<CreatedAccountDto> createAccount(CreateClientDto createClientDto) {
+        // le client est validé (et son identifiant attribué) avant la moindre écriture
+        return Mono.fromCallable(() -> clientService.prepareClient(createClientDto))
+                .flatMap(clientRepository::insert)
+                .flatMap(client -> accountRepository
+                        .save(new Account(null, 0L, client.id(), LocalDateTime.now(), 0L, null)))
+                .map(account -> new CreatedAccountDto(account.id(), account.clientId()));
+    }
+
+    @Override
+    public Mono<StatementDto> performTransaction(CreateTransactionDto dto, TransactionType type) {
+        return Mono.fromCallable(() -> AccountService.toTransactionAmount(dto, type))
+                .flatMap(amount -> optimisticRetry.executeReactive(type.name().toLowerCase(), dto.accountId(),
+                        () -> accountRepository
+                                .applyTransaction(dto.accountId(), dto.clientId(), amount, LocalDateTime.now())
+                                // la mise à jour a été refusée : on relit le compte pour en connaître la raison
+                                .switchIfEmpty(Mono.defer(() -> explainRejectedTransaction(dto, type,
+                                        Math.abs(amount))))))
+                .map(mapper::statementToDto);
+    }
+
+    @Override
+    public Mono<Account> getAccountById(String accountId) {
+        return accountRepository.findById(accountId)
+                .switchIfEmpty(Mono.error(() -> AccountService.accountNotFound(accountId)));
+    }
+
+    @Override
+    public Mono<Client> getClientById(String clientId) {
+        return clientRepository.findById(clientId)
+                .switchIfEmpty(Mono.error(() -> new ClientNotFoundException("Client not found for ID : " + clientId)));
+    }
+
+    @Override
+    public Flux<Statement> getStatements(String accountId) {
+        // opérations récentes de la collection statements, précédées des opérations
+        // archivées ; le stockage froid est lu par MongoTemplate, hors des threads
+        // de l'event loop
+        return statementRepository.findByAccountIdOrderBySequenceAsc(accountId).collectList()
+                .flatMapMany(hot -> Mono
+                        .fromCallable(() -> statementArchiveService.getArchivedStatements(accountId,
+                                hot.isEmpty() ? Long.MAX_VALUE : hot.getFirst().sequence()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(archived -> archived)
+                        .concatWith(Flux.fromIterable(hot)));
+    }
+
+    /**
+     * Methode qui permet de retrouver la raison pour laquelle une transaction a
+     * été refusée. Si aucune règle n'est enfreinte, le résultat est vide : le
+     * compte a été modifié entre temps et la transaction peut être rejouée.
+     *
+     * @param dto
+     * @param type
+     * @param amount (en centimes)
+     * @return Mono<Statement> (toujours vide ou en erreur)
+     */
+    private Mono<Statement> explainRejectedTransaction(CreateTransactionDto dto, TransactionType type,
+            long amount) {
+        return getAccountById(dto.accountId()).flatMap(account -> {
+            AccountService.validateAmount(amount, type, account.balance());
+            AccountService.validateClientForAccount(dto.clientId(), dto.accountId(), account.clientId());
+            return Mono.empty();
+        });
+    }
+}
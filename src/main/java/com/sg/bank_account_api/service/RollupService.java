@@ -0,0 +1,53 @@
+package com.sg.bank_account_api.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Range.Bound;
+import org.springframework.stereotype.Service;
+
+import com.sg.bank_account_api.dto.RollupDto;
+import com.sg.bank_account_api.model.RollupGranularity;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.RollupRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Classe qui restitue les cumuls journaliers et mensuels des comptes. Les
+ * cumuls sont tenus à jour à chaque opération : un résumé sur plusieurs années
+ * ne lit que quelques dizaines de documents, sans parcourir l'historique
+ */
+@Service
+@RequiredArgsConstructor
+public final class RollupService implements IRollupService {
+
+    private final AccountRepository accountRepository;
+    private final RollupRepository rollupRepository;
+    private final DtoMapper mapper;
+
+    @Override
+    public List<RollupDto> getRollups(String accountId, RollupGranularity granularity, LocalDate from,
+            LocalDate to) {
+        if (granularity == null) {
+            throw new IllegalArgumentException("Granularity must be DAY or MONTH");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        if (!accountRepository.existsById(accountId)) {
+            throw AccountService.accountNotFound(accountId);
+        }
+
+        // les périodes au format ISO se comparent comme des chaînes
+        Range<String> periods = Range.of(
+                from == null ? Bound.unbounded() : Bound.inclusive(granularity.period(from)),
+                to == null ? Bound.unbounded() : Bound.inclusive(granularity.period(to)));
+        return rollupRepository.findByAccountIdAndGranularityAndPeriodBetweenOrderByPeriodAsc(accountId, granularity,
+                periods).stream()
+                .map(mapper::rollupToDto)
+                .toList();
+    }
+}
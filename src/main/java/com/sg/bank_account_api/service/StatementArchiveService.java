@@ -0,0 +1,242 @@
+package com.sg.bank_account_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Snapshot;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.StatementArchive;
+import com.sg.bank_account_api.model.StatementFilter;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.SnapshotRepository;
+import com.sg.bank_account_api.repository.StatementArchiveRepository;
+import com.sg.bank_account_api.repository.StatementRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Classe qui gère l'archivage des opérations : les opérations récentes restent
+ * dans la collection statements, les plus anciennes sont déplacées dans des
+ * blocs compressés (un par mois et par compte) de la collection
+ * statement_archives. Un bloc est enregistré avant que ses opérations ne soient
+ * supprimées : une opération présente dans les deux n'est lue qu'une fois
+ */
+@Slf4j
+@Service
+public final class StatementArchiveService implements IStatementArchiveService {
+
+    // nombre maximum d'opérations dans un bloc
+    static final int MAX_ARCHIVE_SIZE = 10_000;
+
+    // comptes dont l'archivage a échoué, repris au prochain passage
+    static final String ARCHIVE_FAILURES = "bank.archive.failures";
+
+    private final AccountRepository accountRepository;
+    private final StatementRepository statementRepository;
+    private final StatementArchiveRepository statementArchiveRepository;
+    private final SnapshotRepository snapshotRepository;
+    private final int hotDays;
+    private final int hotCount;
+    private final MeterRegistry meterRegistry;
+
+    public StatementArchiveService(AccountRepository accountRepository, StatementRepository statementRepository,
+            StatementArchiveRepository statementArchiveRepository, SnapshotRepository snapshotRepository,
+            @Value("${bank.statements.hot-days:365}") int hotDays,
+            @Value("${bank.statements.hot-count:1000}") int hotCount, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.statementRepository = statementRepository;
+        this.statementArchiveRepository = statementArchiveRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.hotDays = hotDays;
+        this.hotCount = hotCount;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public long archive() {
+        long archived = 0;
+        try (Stream<Account> ids = accountRepository.streamIdsBy()) {
+            for (Account account : (Iterable<Account>) ids::iterator) {
+                try {
+                    archived += archiveAccount(account.id());
+                } catch (RuntimeException e) {
+                    // le compte sera archivé au prochain passage
+                    log.warn("Statements of account {} not archived, they will be archived on the next run",
+                            account.id(), e);
+                    meterRegistry.counter(ARCHIVE_FAILURES).increment();
+                }
+            }
+        }
+        return archived;
+    }
+
+    @Scheduled(cron = "${bank.statements.archive.cron:0 0 3 * * *}")
+    void scheduledArchive() {
+        archive();
+    }
+
+    @Override
+    public int archiveAccount(String accountId) {
+        // le solde courant se calcule à partir de la dernière photographie : les opérations qui la suivent restent
+        Optional<Snapshot> snapshot = snapshotRepository.findFirstByAccountIdOrderBySequenceDesc(accountId);
+        Optional<Statement> last = statementRepository.findFirstByAccountIdOrderBySequenceDesc(accountId);
+        if (snapshot.isEmpty() || last.isEmpty()) {
+            return 0;
+        }
+        long bound = Math.min(snapshot.get().sequence(), last.get().sequence() - hotCount);
+        if (bound <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(hotDays).atStartOfDay();
+
+        int archived = 0;
+        List<Statement> chunk = new ArrayList<>();
+        try (Stream<Statement> statements = statementRepository
+                .streamByAccountIdAndSequenceLessThanEqualAndDateBeforeOrderBySequenceAsc(accountId, bound, cutoff)) {
+            for (Statement statement : (Iterable<Statement>) statements::iterator) {
+                if (!chunk.isEmpty() && !continues(chunk, statement)) {
+                    archived += moveToArchive(accountId, chunk);
+                    chunk.clear();
+                }
+                chunk.add(statement);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            archived += moveToArchive(accountId, chunk);
+        }
+        return archived;
+    }
+
+    @Override
+    public List<Statement> getArchivedStatements(String accountId, long sequence) {
+        List<Statement> statements = new ArrayList<>();
+        try (Stream<StatementArchive> archives = statementArchiveRepository
+                .streamByAccountIdOrderByFirstSequenceAsc(accountId)) {
+            for (StatementArchive archive : (Iterable<StatementArchive>) archives::iterator) {
+                if (archive.firstSequence() >= sequence) {
+                    break;
+                }
+                for (Statement statement : archive.statements()) {
+                    if (statement.sequence() < sequence) {
+                        statements.add(statement);
+                    }
+                }
+            }
+        }
+        return statements;
+    }
+
+    @Override
+    public List<Statement> getArchivedStatements(String accountId, long sequence, int limit) {
+        List<Statement> statements = new ArrayList<>(limit);
+        try (Stream<StatementArchive> archives = statementArchiveRepository
+                .streamByAccountIdAndFirstSequenceLessThanOrderByFirstSequenceDesc(accountId, sequence)) {
+            for (StatementArchive archive : (Iterable<StatementArchive>) archives::iterator) {
+                for (Statement statement : archive.statements().reversed()) {
+                    if (statements.size() == limit) {
+                        return statements;
+                    }
+                    if (statement.sequence() < sequence) {
+                        statements.add(statement);
+                    }
+                }
+            }
+        }
+        return statements;
+    }
+
+    @Override
+    public List<Statement> getArchivedStatements(String accountId, StatementFilter filter) {
+        List<StatementArchive> archives = statementArchiveRepository
+                .findByAccountIdAndFirstDateLessThanAndLastDateGreaterThanEqualOrderByFirstSequenceAsc(accountId,
+                        filter.to(), filter.from());
+        if (archives.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long firstHot = firstHotSequence(accountId);
+        List<Statement> statements = new ArrayList<>();
+        for (StatementArchive archive : archives) {
+            for (Statement statement : archive.statements()) {
+                if (statement.sequence() < firstHot && filter.matches(statement)) {
+                    statements.add(statement);
+                }
+            }
+        }
+        return statements;
+    }
+
+    @Override
+    public Stream<Statement> streamStatements(String accountId) {
+        // les opérations archivées s'arrêtent à la première opération récente
+        long firstHot = firstHotSequence(accountId);
+        Stream<Statement> archived = statementArchiveRepository.streamByAccountIdOrderByFirstSequenceAsc(accountId)
+                .takeWhile(archive -> archive.firstSequence() < firstHot)
+                .flatMap(archive -> archive.statements().stream())
+                .filter(statement -> statement.sequence() < firstHot);
+        return Stream.concat(archived, statementRepository.streamByAccountIdOrderBySequenceAsc(accountId));
+    }
+
+    /**
+     * Numéro de la plus ancienne opération de la collection statements : les
+     * opérations archivées qui la suivent sont encore dans la collection
+     * (archivage en cours) et ne sont lues qu'une fois
+     */
+    private long firstHotSequence(String accountId) {
+        return statementRepository.findFirstByAccountIdOrderBySequenceAsc(accountId)
+                .map(Statement::sequence)
+                .orElse(Long.MAX_VALUE);
+    }
+
+    /**
+     * Indique si l'opération peut rejoindre le bloc en cours : elle suit
+     * directement la dernière opération du bloc, dans le même mois
+     */
+    private static boolean continues(List<Statement> chunk, Statement statement) {
+        return chunk.size() < MAX_ARCHIVE_SIZE
+                && statement.sequence() == chunk.getLast().sequence() + 1
+                && YearMonth.from(statement.date()).equals(YearMonth.from(chunk.getFirst().date()));
+    }
+
+    /**
+     * Enregistre les opérations dans un bloc (en complétant le bloc du même mois
+     * qui les précède directement) puis les supprime de la collection statements
+     *
+     * @param accountId
+     * @param chunk
+     * @return le nombre d'opérations archivées
+     */
+    private int moveToArchive(String accountId, List<Statement> chunk) {
+        Statement first = chunk.getFirst();
+        List<Statement> statements = new ArrayList<>(chunk);
+
+        Optional<StatementArchive> previous = statementArchiveRepository
+                .findFirstByAccountIdAndFirstSequenceLessThanOrderByFirstSequenceDesc(accountId, first.sequence());
+        if (previous.isPresent() && previous.get().lastSequence() >= first.sequence() - 1
+                && previous.get().month().equals(YearMonth.from(first.date()).toString())
+                && first.sequence() - previous.get().firstSequence() + chunk.size() <= MAX_ARCHIVE_SIZE) {
+            // les opérations déjà présentes dans le bloc (archivage interrompu) sont remplacées
+            List<Statement> merged = new ArrayList<>(previous.get().statements().stream()
+                    .filter(statement -> statement.sequence() < first.sequence())
+                    .toList());
+            merged.addAll(statements);
+            statements = merged;
+        }
+
+        statementArchiveRepository.save(StatementArchive.of(accountId, statements));
+        statementRepository.deleteByAccountIdAndSequenceBetween(accountId,
+                Range.closed(first.sequence(), chunk.getLast().sequence()));
+        return chunk.size();
+    }
+}
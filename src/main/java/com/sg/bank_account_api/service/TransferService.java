@@ -0,0 +1,278 @@
+package com.sg.bank_account_api.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sg.bank_account_api.config.CacheConfig;
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreateTransferDto;
+import com.sg.bank_account_api.dto.TransferDto;
+import com.sg.bank_account_api.exceptions.AmountException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.Transfer;
+import com.sg.bank_account_api.model.TransferStatus;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.TransferRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Classe qui gère les virements entre comptes. Un virement est enregistré puis
+ * appliqué en deux étapes (débit du compte source, crédit du compte cible),
+ * chacune par une seule mise à jour conditionnelle d'un compte : aucun verrou
+ * n'est pris sur les deux comptes à la fois, et les crédits concurrents d'un
+ * même compte cible ne se bloquent pas. Chaque étape est enregistrée sur le
+ * compte qu'elle modifie et n'est appliquée qu'une fois, ce qui permet de
+ * reprendre un virement interrompu à partir de son état. Une seule exécution à
+ * la fois fait avancer un virement : elle le réserve, et chaque changement
+ * d'état n'a lieu que si le virement est toujours dans l'état lu et réservé par
+ * elle. Les étapes ne sont retirées des comptes qu'une fois le virement
+ * terminé par l'exécution qui le réserve
+ */
+@Slf4j
+@Service
+public final class TransferService implements ITransferService {
+
+    static final String DEBIT = "debit";
+    static final String CREDIT = "credit";
+    static final String REFUND = "refund";
+
+    // états repris par recoverTransfers
+    private static final List<TransferStatus> INTERRUPTED = List.of(TransferStatus.PENDING, TransferStatus.DEBITED);
+
+    // nom de l'endpoint pour les métriques des nouvelles tentatives
+    private static final String ENDPOINT = "transfer";
+
+    // reprises de virements en échec pour une autre raison qu'un refus
+    static final String RECOVERY_FAILURES = "bank.transfers.recovery.failures";
+
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final OptimisticRetry optimisticRetry;
+    private final DtoMapper mapper;
+    private final CacheManager cacheManager;
+    private final Duration recoveryDelay;
+    private final MeterRegistry meterRegistry;
+
+    public TransferService(AccountRepository accountRepository, TransferRepository transferRepository,
+            OptimisticRetry optimisticRetry, DtoMapper mapper, CacheManager cacheManager,
+            @Value("${bank.transfers.recovery-delay:1m}") Duration recoveryDelay, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.optimisticRetry = optimisticRetry;
+        this.mapper = mapper;
+        this.cacheManager = cacheManager;
+        this.recoveryDelay = recoveryDelay;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public TransferDto transfer(CreateTransferDto dto) {
+        if (dto == null || dto.fromAccountId() == null || dto.toAccountId() == null) {
+            throw new IllegalArgumentException("Transfer can't be null and must have a source and a target account");
+        }
+        if (dto.fromAccountId().equals(dto.toAccountId())) {
+            throw new IllegalArgumentException("Source and target accounts must be different");
+        }
+        // mêmes règles qu'un retrait sur le compte source
+        long amount = -AccountService.toTransactionAmount(
+                new CreateTransactionDto(dto.clientId(), dto.fromAccountId(), dto.amount()), TransactionType.WITHDRAW);
+
+        // le compte cible doit exister et pouvoir être crédité avant tout débit
+        Account target = accountRepository.findBalanceById(dto.toAccountId())
+                .orElseThrow(() -> AccountService.accountNotFound(dto.toAccountId()));
+        AccountService.validateAmount(amount, TransactionType.DEPOSIT, target.balance());
+
+        // le virement est réservé par cette requête dès son enregistrement
+        LocalDateTime now = LocalDateTime.now();
+        Transfer transfer = transferRepository.insert(new Transfer(null, dto.fromAccountId(), dto.toAccountId(),
+                dto.clientId(), amount, TransferStatus.PENDING, now, newOwner(), now.plus(recoveryDelay)));
+        try {
+            return mapper.transferToDto(complete(transfer));
+        } finally {
+            evict(transfer);
+        }
+    }
+
+    @Override
+    public int recoverTransfers() {
+        List<Transfer> interrupted = transferRepository.findByStatusInAndDateBefore(INTERRUPTED,
+                LocalDateTime.now().minus(recoveryDelay));
+        for (Transfer transfer : interrupted) {
+            try {
+                // un virement réservé par une autre exécution (requête encore en cours, autre instance) est ignoré
+                transferRepository.claim(transfer.id(), INTERRUPTED, newOwner(),
+                        LocalDateTime.now().plus(recoveryDelay)).ifPresent(this::complete);
+            } catch (RuntimeException e) {
+                if (AccountService.isRejected(e)) {
+                    // virement refusé (son état est enregistré) ou repris par une autre exécution
+                    log.info("Transfer {} not completed: {}", transfer.id(), e.getMessage());
+                } else {
+                    // virement à reprendre au prochain passage
+                    log.warn("Transfer {} not recovered, it will be retried on the next run", transfer.id(), e);
+                    meterRegistry.counter(RECOVERY_FAILURES).increment();
+                }
+            } finally {
+                evict(transfer);
+            }
+        }
+        return interrupted.size();
+    }
+
+    @Scheduled(initialDelayString = "${bank.transfers.recovery-interval:1m}",
+            fixedDelayString = "${bank.transfers.recovery-interval:1m}")
+    void scheduledRecovery() {
+        recoverTransfers();
+    }
+
+    /**
+     * Applique les étapes restantes d'un virement réservé, selon son état
+     *
+     * @param transfer
+     * @return le virement terminé
+     */
+    private Transfer complete(Transfer transfer) {
+        if (transfer.status() == TransferStatus.PENDING) {
+            try {
+                debit(transfer);
+            } catch (RuntimeException e) {
+                debitFailed(transfer, e);
+                throw e;
+            }
+            transfer = advance(transfer, TransferStatus.DEBITED);
+        }
+        if (transfer.status() == TransferStatus.DEBITED) {
+            if (!credit(transfer.leg(CREDIT), transfer.toAccountId(), transfer.amount())) {
+                refund(transfer);
+            }
+            transfer = advance(transfer, TransferStatus.COMPLETED);
+            accountRepository.clearTransferLegs(transfer.fromAccountId(), transfer.leg(DEBIT));
+            accountRepository.clearTransferLegs(transfer.toAccountId(), transfer.leg(CREDIT));
+        }
+        return transfer;
+    }
+
+    /**
+     * Enregistre l'état d'un virement dont le débit a échoué. Seul un débit
+     * refusé (validation, modifications concurrentes) fait échouer le virement.
+     * Après une autre erreur (base de données indisponible, réponse perdue), le
+     * débit a pu être appliqué : le virement est marqué débité si l'étape est sur
+     * le compte source, sinon il reste en attente, et il sera repris
+     *
+     * @param transfer
+     * @param e
+     */
+    private void debitFailed(Transfer transfer, RuntimeException e) {
+        try {
+            if (AccountService.isRejected(e)) {
+                advance(transfer, TransferStatus.FAILED);
+            } else if (accountRepository.hasTransferLeg(transfer.fromAccountId(), transfer.leg(DEBIT))) {
+                advance(transfer, TransferStatus.DEBITED);
+            }
+        } catch (RuntimeException stateError) {
+            e.addSuppressed(stateError);
+        }
+    }
+
+    /**
+     * Fait passer le virement à l'état status, s'il est toujours dans l'état lu
+     * et réservé par cette exécution, et prolonge la réservation
+     *
+     * @param transfer
+     * @param status
+     * @return le virement modifié
+     */
+    private Transfer advance(Transfer transfer, TransferStatus status) {
+        return transferRepository.advance(transfer, status, LocalDateTime.now().plus(recoveryDelay))
+                .orElseThrow(() -> new ConcurrentUpdateException(
+                        "Transfer " + transfer.id() + " is being completed by another request"));
+    }
+
+    /**
+     * Débite le compte source avec les règles d'un retrait. Si le débit est
+     * refusé sans qu'aucune règle ne soit enfreinte, le compte a été modifié entre
+     * temps et on réessaie
+     *
+     * @param transfer
+     */
+    private void debit(Transfer transfer) {
+        optimisticRetry.execute(ENDPOINT, transfer.fromAccountId(), () -> {
+            if (applied(transfer.leg(DEBIT), transfer.fromAccountId(), accountRepository.applyTransferLeg(
+                    transfer.leg(DEBIT), transfer.fromAccountId(), transfer.clientId(), -transfer.amount(),
+                    LocalDateTime.now()))) {
+                return Optional.of(transfer);
+            }
+            Account source = loadAccount(transfer.fromAccountId());
+            AccountService.validateAmount(transfer.amount(), TransactionType.WITHDRAW, source.balance());
+            AccountService.validateClientForAccount(transfer.clientId(), transfer.fromAccountId(), source.clientId());
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Rembourse le compte source lorsque le compte cible ne peut pas être
+     * crédité, puis lève l'erreur correspondante
+     *
+     * @param transfer
+     */
+    private void refund(Transfer transfer) {
+        if (!credit(transfer.leg(REFUND), transfer.fromAccountId(), transfer.amount())) {
+            // le virement reste débité et sera repris
+            throw new ConcurrentUpdateException(
+                    "Transfer " + transfer.id() + " could not be credited nor refunded, it will be retried");
+        }
+        advance(transfer, TransferStatus.REFUNDED);
+        accountRepository.clearTransferLegs(transfer.fromAccountId(), transfer.leg(DEBIT), transfer.leg(REFUND));
+
+        Account target = loadAccount(transfer.toAccountId());
+        AccountService.validateAmount(transfer.amount(), TransactionType.DEPOSIT, target.balance());
+        throw new AmountException("Account " + transfer.toAccountId() + " could not be credited");
+    }
+
+    /**
+     * Crédite un compte (crédit ou remboursement) au plus une fois, sans vérifier
+     * à quel client il appartient
+     *
+     * @return true si l'étape est appliquée (maintenant ou auparavant)
+     */
+    private boolean credit(String legId, String accountId, long amount) {
+        return applied(legId, accountId,
+                accountRepository.applyTransferCredit(legId, accountId, amount, LocalDateTime.now()));
+    }
+
+    /**
+     * @return true si l'étape vient d'être appliquée ou l'avait déjà été
+     */
+    private boolean applied(String legId, String accountId, Optional<Statement> statement) {
+        return statement.isPresent() || accountRepository.hasTransferLeg(accountId, legId);
+    }
+
+    private Account loadAccount(String accountId) {
+        return accountRepository.findById(accountId).orElseThrow(() -> AccountService.accountNotFound(accountId));
+    }
+
+    private static String newOwner() {
+        return UUID.randomUUID().toString();
+    }
+
+    private void evict(Transfer transfer) {
+        // les soldes ont pu changer, les comptes en cache ne sont plus à jour
+        Cache cache = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        cache.evict(transfer.fromAccountId());
+        cache.evict(transfer.toAccountId());
+    }
+}
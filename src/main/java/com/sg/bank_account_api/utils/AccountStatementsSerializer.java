@@ -0,0 +1,87 @@
+package com.sg.bank_account_api.utils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Money;
+import com.sg.bank_account_api.model.Statement;
+
+/**
+ * Ecrit un relevé avec le générateur Jackson, champ par champ, dans le flux de
+ * la réponse. Le résultat est celui de la sérialisation d'AccountDto (mêmes
+ * champs, même ordre) ; les dates passent par le sérialiseur configuré de
+ * l'ObjectMapper, recherché une seule fois par relevé. En JSON, les montants
+ * sont écrits depuis les centimes sans BigDecimal intermédiaire
+ */
+public class AccountStatementsSerializer extends StdSerializer<AccountStatementsDto> {
+
+    public AccountStatementsSerializer() {
+        super(AccountStatementsDto.class);
+    }
+
+    @Override
+    public void serialize(AccountStatementsDto value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        JsonSerializer<Object> dates = provider.findValueSerializer(LocalDateTime.class);
+        char[] amount = new char[Money.DECIMAL_CHARS];
+
+        generator.writeStartObject();
+        generator.writeFieldName("client");
+        writeClient(value.client(), generator, provider, dates);
+        generator.writeFieldName("balance");
+        writeAmount(value.account().balance(), generator, amount);
+        generator.writeFieldName("date");
+        writeDate(value.account().date(), generator, provider, dates);
+
+        generator.writeArrayFieldStart("statements");
+        if (value.statements() != null) {
+            for (Statement statement : value.statements()) {
+                generator.writeStartObject();
+                generator.writeFieldName("date");
+                writeDate(statement.date(), generator, provider, dates);
+                generator.writeFieldName("amount");
+                writeAmount(statement.amount(), generator, amount);
+                generator.writeFieldName("balance");
+                writeAmount(statement.balance(), generator, amount);
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeClient(Client client, JsonGenerator generator, SerializerProvider provider,
+            JsonSerializer<Object> dates) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", client.id());
+        generator.writeStringField("lastname", client.lastname());
+        generator.writeStringField("firstname", client.firstname());
+        generator.writeFieldName("date");
+        writeDate(client.date(), generator, provider, dates);
+        generator.writeEndObject();
+    }
+
+    private static void writeAmount(long minorUnits, JsonGenerator generator, char[] buffer) throws IOException {
+        if (generator.canWriteBinaryNatively()) {
+            // format binaire : le montant est encodé comme un décimal
+            generator.writeNumber(Money.toDecimal(minorUnits));
+        } else {
+            generator.writeNumber(buffer, 0, Money.toDecimalChars(minorUnits, buffer));
+        }
+    }
+
+    private static void writeDate(LocalDateTime date, JsonGenerator generator, SerializerProvider provider,
+            JsonSerializer<Object> dates) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+        } else {
+            dates.serialize(date, generator, provider);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.sg.bank_account_api.utils;
 
 import com.sg.bank_account_api.dto.AccountDto;
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+import com.sg.bank_account_api.dto.BalanceDto;
 import com.sg.bank_account_api.dto.ClientDto;
+import com.sg.bank_account_api.dto.RollupDto;
 import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.dto.TransferDto;
 import com.sg.bank_account_api.model.Account;
 import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Money;
+import com.sg.bank_account_api.model.Rollup;
 import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.Transfer;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -15,18 +22,31 @@ import java.util.stream.Collectors;
 @Component
 public class DtoMapper {
 
-    public AccountDto accountToDto(Account account) {
+    public AccountDto accountToDto(Account account, Client client, List<Statement> statements) {
         validate(account, Account.class);
         return new AccountDto(
-                clientToDto(account.client()),
-                account.balance(),
+                clientToDto(client),
+                Money.toDecimal(account.balance()),
                 account.date(),
-                toStatementDtoList(account.statements()));
+                toStatementDtoList(statements));
+    }
+
+    public AccountStatementsDto accountToStatementsDto(Account account, Client client, List<Statement> statements) {
+        validate(account, Account.class);
+        validate(client, Client.class);
+        return new AccountStatementsDto(account, client, statements);
+    }
+
+    public BalanceDto balanceToDto(Account account) {
+        validate(account, Account.class);
+        return new BalanceDto(account.id(), account.clientId(), Money.toDecimal(account.balance()),
+                account.date());
     }
 
     public StatementDto statementToDto(Statement statement) {
         validate(statement, Statement.class);
-        return new StatementDto(statement.date(), statement.amount(), statement.balance());
+        return new StatementDto(statement.date(), Money.toDecimal(statement.amount()),
+                Money.toDecimal(statement.balance()));
     }
 
     public List<StatementDto> toStatementDtoList(List<Statement> statements) {
@@ -36,6 +56,18 @@ public class DtoMapper {
         return statements.stream().map(this::statementToDto).collect(Collectors.toList());
     }
 
+    public TransferDto transferToDto(Transfer transfer) {
+        validate(transfer, Transfer.class);
+        return new TransferDto(transfer.id(), transfer.fromAccountId(), transfer.toAccountId(),
+                Money.toDecimal(transfer.amount()), transfer.status(), transfer.date());
+    }
+
+    public RollupDto rollupToDto(Rollup rollup) {
+        validate(rollup, Rollup.class);
+        return new RollupDto(rollup.period(), rollup.count(), Money.toDecimal(rollup.deposits()),
+                Money.toDecimal(rollup.withdrawals()), Money.toDecimal(rollup.closing().balance()));
+    }
+
     public ClientDto clientToDto(Client client) {
         validate(client, Client.class);
         return new ClientDto(client.id(), client.lastname(), client.firstname(), client.date());
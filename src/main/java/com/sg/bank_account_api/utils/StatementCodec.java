@@ -0,0 +1,114 @@
+package com.sg.bank_account_api.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.sg.bank_account_api.model.Statement;
+
+/**
+ * Encodage compact des opérations archivées d'un compte : chaque champ est
+ * écrit en différence avec l'opération précédente (entiers de taille
+ * variable), puis le bloc est compressé (deflate). Le compte n'est pas répété
+ * et l'identifiant des opérations n'est pas conservé
+ */
+public final class StatementCodec {
+
+    private StatementCodec() {
+    }
+
+    /**
+     * @param statements (d'un même compte, dans l'ordre)
+     * @return le bloc compressé
+     */
+    public static byte[] encode(List<Statement> statements) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_COMPRESSION)))) {
+            writeVarLong(out, statements.size());
+            Statement previous = null;
+            for (Statement statement : statements) {
+                long seconds = statement.date().toEpochSecond(ZoneOffset.UTC);
+                writeVarLong(out, zigZag(statement.sequence() - (previous == null ? 0 : previous.sequence())));
+                writeVarLong(out, zigZag(seconds - (previous == null ? 0 : previous.date().toEpochSecond(ZoneOffset.UTC))));
+                writeVarLong(out, statement.date().getNano());
+                writeVarLong(out, zigZag(statement.amount()));
+                writeVarLong(out, zigZag(statement.balance() - (previous == null ? 0 : previous.balance())));
+                previous = statement;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param accountId
+     * @param data      (bloc compressé)
+     * @return les opérations, dans l'ordre
+     */
+    public static List<Statement> decode(String accountId, byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int count = (int) readVarLong(in);
+            List<Statement> statements = new ArrayList<>(count);
+            long sequence = 0;
+            long seconds = 0;
+            long balance = 0;
+            for (int i = 0; i < count; i++) {
+                sequence += unZigZag(readVarLong(in));
+                seconds += unZigZag(readVarLong(in));
+                int nanos = (int) readVarLong(in);
+                long amount = unZigZag(readVarLong(in));
+                balance += unZigZag(readVarLong(in));
+                statements.add(new Statement(null, accountId, sequence,
+                        LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), amount, balance));
+            }
+            return statements;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Truncated statement archive");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed statement archive");
+    }
+}
@@ -0,0 +1,58 @@
+package com.sg.bank_account_api.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.model.Statement;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Classe qui écrit un historique au format NDJSON (un StatementDto par ligne)
+ * au fur et à mesure de la lecture, sans le charger en mémoire
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementExporter {
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    // nombre de lignes écrites entre deux envois au client
+    static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final DtoMapper mapper;
+
+    /**
+     * Ecrit les opérations dans le flux. Une IOException (client déconnecté)
+     * interrompt l'export, le flux d'opérations doit être fermé par l'appelant
+     *
+     * @param statements
+     * @param out
+     * @throws IOException
+     */
+    public void writeNdjson(Stream<Statement> statements, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(StatementDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            int written = 0;
+            Iterator<Statement> iterator = statements.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, mapper.statementToDto(iterator.next()));
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+}
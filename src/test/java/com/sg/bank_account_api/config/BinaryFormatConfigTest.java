@@ -0,0 +1,97 @@
+package com.sg.bank_account_api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sg.bank_account_api.dto.AccountDto;
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+class BinaryFormatConfigTest {
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final DtoMapper mapper = new DtoMapper();
+
+    private Account account;
+    private Client client;
+    private List<Statement> statements;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 9, 0);
+        client = new Client("client123", "Doe", "John", date);
+        account = new Account("account456", 72_500L, client.id(), date, 2L, 2L);
+        statements = List.of(new Statement("statement1", "account456", 1L, date.plusMinutes(1), 125_050L, 125_050L),
+                new Statement("statement2", "account456", 2L, date.plusMinutes(2), -52_550L, 72_500L));
+    }
+
+    @Test
+    @DisplayName("Should write the statement in CBOR with decimal amounts")
+    void shouldWriteStatementInCbor() throws Exception {
+        BinaryFormatConfig.Servlet config = new BinaryFormatConfig.Servlet();
+
+        assertBinaryStatement(config.cborHttpMessageConverter(new Jackson2ObjectMapperBuilder()), CBOR);
+    }
+
+    @Test
+    @DisplayName("Should write the statement in Smile with decimal amounts")
+    void shouldWriteStatementInSmile() throws Exception {
+        BinaryFormatConfig.Servlet config = new BinaryFormatConfig.Servlet();
+
+        assertBinaryStatement(config.smileHttpMessageConverter(new Jackson2ObjectMapperBuilder()), SMILE);
+    }
+
+    @Test
+    @DisplayName("Should register the CBOR and Smile codecs of the reactive API")
+    void shouldRegisterReactiveCodecs() {
+        CodecCustomizer customizer = new BinaryFormatConfig.Reactive()
+                .binaryFormatCodecCustomizer(new Jackson2ObjectMapperBuilder());
+        ServerCodecConfigurer configurer = ServerCodecConfigurer.create();
+
+        customizer.customize(configurer);
+
+        ResolvableType type = ResolvableType.forClass(AccountStatementsDto.class);
+        assertThat(configurer.getWriters()).anyMatch(writer -> writer.canWrite(type, CBOR));
+        assertThat(configurer.getWriters()).anyMatch(writer -> writer.canWrite(type, SMILE));
+        assertThat(configurer.getReaders())
+                .anyMatch(reader -> reader.canRead(ResolvableType.forClass(AccountDto.class), CBOR));
+    }
+
+    private void assertBinaryStatement(AbstractJackson2HttpMessageConverter converter, MediaType mediaType)
+            throws Exception {
+        assertThat(converter.canWrite(AccountStatementsDto.class, mediaType)).isTrue();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(mapper.accountToStatementsDto(account, client, statements), mediaType, output);
+
+        ObjectMapper objectMapper = converter.getObjectMapper();
+        byte[] body = output.getBodyAsBytes();
+        assertThat(objectMapper.readValue(body, AccountDto.class))
+                .isEqualTo(mapper.accountToDto(account, client, statements));
+        // un montant écrit en chaîne serait lu comme un TextNode
+        JsonNode tree = objectMapper.readTree(body);
+        assertThat(tree.get("balance").isBigDecimal()).isTrue();
+        assertThat(tree.get("statements").get(1).get("amount").decimalValue())
+                .isEqualByComparingTo(new BigDecimal("-525.50"));
+    }
+}
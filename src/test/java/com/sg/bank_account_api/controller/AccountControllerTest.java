@@ -1,22 +1,49 @@
 package com.sg.bank_account_api.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.sg.bank_account_api.controller.handler.ApiExceptionHandler;
-import com.sg.bank_account_api.dto.AccountDto;
-import com.sg.bank_account_api.dto.ClientDto;
+import com.sg.bank_account_api.dto.AccountStatementsDto;
+import com.sg.bank_account_api.dto.AccountPageDto;
+import com.sg.bank_account_api.dto.BalanceDto;
+import com.sg.bank_account_api.dto.BatchAccountResultDto;
+import com.sg.bank_account_api.dto.BatchTransactionDto;
+import com.sg.bank_account_api.dto.BatchTransactionResultDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreateTransferDto;
 import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.RollupDto;
+import com.sg.bank_account_api.dto.ErrorResponse;
 import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.dto.StatementPageDto;
+import com.sg.bank_account_api.dto.TransferDto;
 import com.sg.bank_account_api.exceptions.AccountNotFoundException;
 import com.sg.bank_account_api.exceptions.AmountException;
 import com.sg.bank_account_api.exceptions.ClientNotFoundException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.exceptions.IdempotencyKeyException;
 import com.sg.bank_account_api.model.Account;
 import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.RollupGranularity;
+import com.sg.bank_account_api.model.Statement;
 import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.model.TransferStatus;
 import com.sg.bank_account_api.service.AccountService;
+import com.sg.bank_account_api.service.ClientService;
 import com.sg.bank_account_api.service.IAccountService;
+import com.sg.bank_account_api.service.IClientService;
+import com.sg.bank_account_api.service.IIdempotencyService;
+import com.sg.bank_account_api.service.IRollupService;
+import com.sg.bank_account_api.service.ITransferService;
+import com.sg.bank_account_api.service.IdempotencyService;
+import com.sg.bank_account_api.service.RollupService;
+import com.sg.bank_account_api.service.TransferService;
 import com.sg.bank_account_api.utils.DtoMapper;
+import com.sg.bank_account_api.utils.StatementExporter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,28 +52,41 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class AccountControllerTest {
 
     private final IAccountService accountService = Mockito.mock(AccountService.class);
+    private final IClientService clientService = Mockito.mock(ClientService.class);
+    private final IIdempotencyService idempotencyService = Mockito.mock(IdempotencyService.class);
+    private final ITransferService transferService = Mockito.mock(TransferService.class);
+    private final IRollupService rollupService = Mockito.mock(RollupService.class);
     private final DtoMapper dtoMapper = Mockito.mock(DtoMapper.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private MockMvc mockMvc;
 
@@ -54,14 +94,17 @@ class AccountControllerTest {
     private CreatedAccountDto createdAccountDto;
     private CreateTransactionDto createTransactionDto;
     private StatementDto statementDto;
+    private Client testClient;
     private Account testAccount;
-    private AccountDto accountDto;
 
     @BeforeEach
     void setUp() {
-        AccountController accountController = new AccountController(accountService, dtoMapper);
+        StatementExporter exporter = new StatementExporter(JsonMapper.builder().findAndAddModules().build(),
+                new DtoMapper());
+        AccountController accountController = new AccountController(accountService, clientService,
+                idempotencyService, transferService, rollupService, dtoMapper, exporter);
         mockMvc = MockMvcBuilders.standaloneSetup(accountController)
-                .setControllerAdvice(new ApiExceptionHandler())
+                .setControllerAdvice(new ApiExceptionHandler(meterRegistry))
                 .build();
 
         createClientDto = new CreateClientDto("Doe", "John");
@@ -69,11 +112,8 @@ class AccountControllerTest {
         createTransactionDto = new CreateTransactionDto("client456", "account123", BigDecimal.valueOf(100));
         statementDto = new StatementDto(LocalDateTime.now(), BigDecimal.valueOf(100), BigDecimal.valueOf(100));
 
-        Client testClient = new Client("client456", "Doe", "John", LocalDateTime.now());
-        testAccount = new Account("account123", BigDecimal.valueOf(100), testClient, LocalDateTime.now(),
-                new ArrayList<>());
-        accountDto = new AccountDto(new ClientDto("client456", "Doe", "John", LocalDateTime.now()),
-                BigDecimal.valueOf(100), LocalDateTime.now(), Collections.emptyList());
+        testClient = new Client("client456", "Doe", "John", LocalDateTime.now());
+        testAccount = new Account("account123", 10000L, testClient.id(), LocalDateTime.now(), 0L, 0L);
     }
 
     @Test
@@ -106,6 +146,22 @@ class AccountControllerTest {
                         "Client can't be null and should have either lastname or fisrtname"));
     }
 
+    @Test
+    @DisplayName("Should create accounts in bulk and return per-item results")
+    void shouldCreateAccountsInBulk() throws Exception {
+        when(accountService.createAccounts(anyList())).thenReturn(List.of(
+                new BatchAccountResultDto(0, createdAccountDto, null),
+                new BatchAccountResultDto(1, null, new ErrorResponse(400,
+                        "Client can't be null and should have either lastname or fisrtname"))));
+
+        mockMvc.perform(post("/account/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createClientDto, new CreateClientDto("", "")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].account.accountId").value("account123"))
+                .andExpect(jsonPath("$[1].error.statusCode").value(400));
+    }
+
     @Test
     @DisplayName("Should perform deposit and return CREATED status")
     void shouldPerformDepositAndReturnCreated() throws Exception {
@@ -120,6 +176,68 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.balance").value(100.0));
     }
 
+    @Test
+    @DisplayName("Should perform deposit once per idempotency key")
+    void shouldPerformDepositThroughIdempotencyKey() throws Exception {
+        when(idempotencyService.execute(eq("key-1"), any(CreateTransactionDto.class), eq(TransactionType.DEPOSIT),
+                any())).thenReturn(statementDto);
+
+        mockMvc.perform(post("/account/deposit")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTransactionDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(100.0));
+        Mockito.verify(accountService, Mockito.never()).performTransaction(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should handle IdempotencyKeyException for withdrawal")
+    void shouldHandleIdempotencyKeyExceptionForWithdrawal() throws Exception {
+        when(idempotencyService.execute(eq("key-1"), any(CreateTransactionDto.class), eq(TransactionType.WITHDRAW),
+                any())).thenThrow(new IdempotencyKeyException(
+                        "Idempotency key key-1 was already used for a different request"));
+
+        mockMvc.perform(post("/account/withdraw")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTransactionDto)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.statusCode").value(422));
+    }
+
+    @Test
+    @DisplayName("Should perform transfer and return OK status")
+    void shouldPerformTransfer() throws Exception {
+        CreateTransferDto transferDto = new CreateTransferDto("client456", "account123", "account789",
+                new BigDecimal("25.00"));
+        when(transferService.transfer(any(CreateTransferDto.class))).thenReturn(new TransferDto("transfer1",
+                "account123", "account789", new BigDecimal("25.00"), TransferStatus.COMPLETED, LocalDateTime.now()));
+
+        mockMvc.perform(post("/account/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transferId").value("transfer1"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.amount").value(25.0));
+    }
+
+    @Test
+    @DisplayName("Should handle AmountException for transfer")
+    void shouldHandleAmountExceptionForTransfer() throws Exception {
+        CreateTransferDto transferDto = new CreateTransferDto("client456", "account123", "account789",
+                new BigDecimal("25.00"));
+        when(transferService.transfer(any(CreateTransferDto.class))).thenThrow(new AmountException(
+                "Amount must be > 0 and must be <= balance in the case of a withdrawal"));
+
+        mockMvc.perform(post("/account/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+
     @Test
     @DisplayName("Should handle AccountNotFoundException for deposit")
     void shouldHandleAccountNotFoundExceptionForDeposit() throws Exception {
@@ -154,8 +272,8 @@ class AccountControllerTest {
     @DisplayName("Should handle ClientNotFoundException for deposit")
     void shouldHandleClientNotFoundExceptionForDeposit() throws Exception {
         Client mismatchedClient = new Client("mismatchedClient", "Another", "Person", LocalDateTime.now());
-        Account accountWithMismatchedClient = new Account("account123", BigDecimal.valueOf(100),
-                mismatchedClient, LocalDateTime.now(), new ArrayList<>());
+        Account accountWithMismatchedClient = new Account("account123", 10000L,
+                mismatchedClient.id(), LocalDateTime.now(), 0L, 0L);
         when(accountService.getAccountById(anyString())).thenReturn(accountWithMismatchedClient);
 
         when(accountService.performTransaction(any(CreateTransactionDto.class), eq(TransactionType.DEPOSIT)))
@@ -205,11 +323,32 @@ class AccountControllerTest {
                         .value("Amount must be <= balance in the case of a withdrawal"));
     }
 
+    @Test
+    @DisplayName("Should perform batch of transactions and return per-item results")
+    void shouldPerformBatchAndReturnResults() throws Exception {
+        List<BatchTransactionDto> batch = List.of(
+                new BatchTransactionDto(TransactionType.DEPOSIT, "client456", "account123", BigDecimal.valueOf(100)),
+                new BatchTransactionDto(TransactionType.WITHDRAW, "client456", "account123", BigDecimal.valueOf(500)));
+        when(accountService.performTransactions(anyList())).thenReturn(List.of(
+                new BatchTransactionResultDto(0, statementDto, null),
+                new BatchTransactionResultDto(1, null, new ErrorResponse(400, "Amount must be > 0"))));
+
+        mockMvc.perform(post("/account/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].statement.balance").value(100.0))
+                .andExpect(jsonPath("$[1].error.statusCode").value(400));
+    }
+
     @Test
     @DisplayName("Should print statement and return OK status")
     void shouldPrintStatementAndReturnOk() throws Exception {
         when(accountService.getAccountById("account123")).thenReturn(testAccount);
-        when(dtoMapper.accountToDto(any(Account.class))).thenReturn(accountDto);
+        when(accountService.getStatements("account123")).thenReturn(Collections.emptyList());
+        when(clientService.getClientById("client456")).thenReturn(testClient);
+        when(dtoMapper.accountToStatementsDto(testAccount, testClient, Collections.emptyList()))
+                .thenReturn(new AccountStatementsDto(testAccount, testClient, Collections.emptyList()));
 
         mockMvc.perform(get("/account/statement/{accountId}", "account123"))
                 .andExpect(status().isOk())
@@ -217,6 +356,154 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.balance").value(100.0));
     }
 
+    @Test
+    @DisplayName("Should print statement in CBOR when the Accept header asks for it")
+    void shouldPrintStatementInCbor() throws Exception {
+        when(accountService.getAccountById("account123")).thenReturn(testAccount);
+        when(accountService.getStatements("account123")).thenReturn(Collections.emptyList());
+        when(clientService.getClientById("client456")).thenReturn(testClient);
+        when(dtoMapper.accountToStatementsDto(testAccount, testClient, Collections.emptyList()))
+                .thenReturn(new AccountStatementsDto(testAccount, testClient, Collections.emptyList()));
+
+        MvcResult result = mockMvc.perform(get("/account/statement/{accountId}", "account123")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode statement = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(statement.get("client").get("id").asText()).isEqualTo("client456");
+        assertThat(statement.get("balance").isBigDecimal()).isTrue();
+        assertThat(statement.get("balance").decimalValue()).isEqualByComparingTo(new BigDecimal("100.00"));
+    }
+
+    @Test
+    @DisplayName("Should list the accounts of a client")
+    void shouldListAccountsOfClient() throws Exception {
+        when(accountService.getAccountsByClient("client456", 20, null)).thenReturn(new AccountPageDto(List.of(
+                new BalanceDto("account123", "client456", BigDecimal.valueOf(100), LocalDateTime.now()),
+                new BalanceDto("account789", "client456", BigDecimal.ZERO, LocalDateTime.now())), "next"));
+
+        mockMvc.perform(get("/account/client/{clientId}", "client456"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts[0].accountId").value("account123"))
+                .andExpect(jsonPath("$.accounts[1].accountId").value("account789"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("Should return the balance and OK status")
+    void shouldReturnBalanceAndOk() throws Exception {
+        when(accountService.getBalance("account123")).thenReturn(
+                new BalanceDto("account123", "client456", BigDecimal.valueOf(100), LocalDateTime.now()));
+
+        mockMvc.perform(get("/account/{accountId}/balance", "account123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clientId").value("client456"))
+                .andExpect(jsonPath("$.balance").value(100.0));
+    }
+
+    @Test
+    @DisplayName("Should handle AccountNotFoundException for balance")
+    void shouldHandleAccountNotFoundExceptionForBalance() throws Exception {
+        when(accountService.getBalance("nonExistentAccount")).thenThrow(
+                new AccountNotFoundException("Account not found for ID : nonExistentAccount"));
+
+        mockMvc.perform(get("/account/{accountId}/balance", "nonExistentAccount"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.statusCode").value(404));
+    }
+
+    @Test
+    @DisplayName("Should print statement page and return OK status")
+    void shouldPrintStatementPageAndReturnOk() throws Exception {
+        when(accountService.getStatementPage("account123", 20, "MTA"))
+                .thenReturn(new StatementPageDto(List.of(statementDto), "OQ"));
+
+        mockMvc.perform(get("/account/statement/{accountId}", "account123")
+                        .param("size", "20")
+                        .param("cursor", "MTA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statements[0].amount").value(100.0))
+                .andExpect(jsonPath("$.nextCursor").value("OQ"));
+    }
+
+    @Test
+    @DisplayName("Should return monthly rollups by default")
+    void shouldReturnMonthlyRollupsByDefault() throws Exception {
+        when(rollupService.getRollups("account123", RollupGranularity.MONTH, LocalDate.of(2024, 1, 1), null))
+                .thenReturn(List.of(new RollupDto("2024-01", 3, BigDecimal.valueOf(150), BigDecimal.valueOf(20),
+                        BigDecimal.valueOf(130))));
+
+        mockMvc.perform(get("/account/{accountId}/rollups", "account123")
+                        .param("from", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].period").value("2024-01"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[0].closingBalance").value(130));
+    }
+
+    @Test
+    @DisplayName("Should return BAD_REQUEST for an unknown rollup granularity")
+    void shouldReturnBadRequestForUnknownGranularity() throws Exception {
+        mockMvc.perform(get("/account/{accountId}/rollups", "account123")
+                        .param("granularity", "YEAR"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+
+    @Test
+    @DisplayName("Should search statements of a period")
+    void shouldSearchStatementsOfPeriod() throws Exception {
+        when(accountService.searchStatements("account123", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 15),
+                TransactionType.DEPOSIT, new BigDecimal("50"), null)).thenReturn(List.of(statementDto));
+
+        mockMvc.perform(get("/account/statement/{accountId}/search", "account123")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-15")
+                        .param("type", "DEPOSIT")
+                        .param("minAmount", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].amount").value(100.0));
+    }
+
+    @Test
+    @DisplayName("Should return BAD_REQUEST when the search period is missing")
+    void shouldReturnBadRequestWhenSearchPeriodIsMissing() throws Exception {
+        mockMvc.perform(get("/account/statement/{accountId}/search", "account123")
+                        .param("from", "2024-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+
+    @Test
+    @DisplayName("Should export statements as NDJSON")
+    void shouldExportStatementsAsNdjson() throws Exception {
+        Statement statement = new Statement("statement1", "account123", 1L, LocalDateTime.now(),
+                10000L, 10000L);
+        when(accountService.streamStatements("account123")).thenReturn(Stream.of(statement, statement));
+
+        MvcResult result = mockMvc.perform(get("/account/statement/{accountId}/export", "account123"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(StatementExporter.NDJSON_MEDIA_TYPE));
+        assertThat(result.getResponse().getContentAsString().lines()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should handle AccountNotFoundException for statement export")
+    void shouldHandleAccountNotFoundExceptionForExport() throws Exception {
+        when(accountService.streamStatements("nonExistentAccount")).thenThrow(
+                new AccountNotFoundException("Account not found for ID : nonExistentAccount"));
+
+        mockMvc.perform(get("/account/statement/{accountId}/export", "nonExistentAccount"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.statusCode").value(404));
+    }
+
     @Test
     @DisplayName("Should handle AccountNotFoundException for print statement")
     void shouldHandleAccountNotFoundExceptionForPrintStatement() throws Exception {
@@ -228,6 +515,8 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(404))
                 .andExpect(jsonPath("$.message")
                         .value("Account not found for ID : nonExistentAccount"));
+        assertThat(meterRegistry.get("bank.api.errors")
+                .tags("exception", "AccountNotFoundException", "status", "404").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -242,6 +531,19 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(400));
     }
 
+    @Test
+    @DisplayName("Should handle ConcurrentUpdateException with CONFLICT status")
+    void shouldHandleConcurrentUpdateException() throws Exception {
+        when(accountService.performTransaction(any(CreateTransactionDto.class), eq(TransactionType.WITHDRAW)))
+                .thenThrow(new ConcurrentUpdateException("Account account123 was modified concurrently, please retry"));
+
+        mockMvc.perform(post("/account/withdraw")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createTransactionDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.statusCode").value(409));
+    }
+
     @Test
     @DisplayName("Should handle generic Exception for unexpected errors")
     void shouldHandleGenericException() throws Exception {
@@ -0,0 +1,62 @@
+package com.sg.bank_account_api.controller;
+
+import com.sg.bank_account_api.controller.handler.ApiExceptionHandler;
+import com.sg.bank_account_api.dto.ClientDto;
+import com.sg.bank_account_api.dto.ClientPageDto;
+import com.sg.bank_account_api.service.ClientService;
+import com.sg.bank_account_api.service.IClientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ClientControllerTest {
+
+    private final IClientService clientService = Mockito.mock(ClientService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ClientController(clientService))
+                .setControllerAdvice(new ApiExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return a page of clients and the cursor of the next page")
+    void shouldSearchClients() throws Exception {
+        when(clientService.searchClients("dup", null, 20, null)).thenReturn(new ClientPageDto(
+                List.of(new ClientDto("client456", "Dupont", "Jean", LocalDateTime.now())), "cursor"));
+
+        mockMvc.perform(get("/client/search").param("lastname", "dup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clients[0].id").value("client456"))
+                .andExpect(jsonPath("$.nextCursor").value("cursor"));
+    }
+
+    @Test
+    @DisplayName("Should return BAD_REQUEST when the client search is invalid")
+    void shouldReturnBadRequestForInvalidSearch() throws Exception {
+        when(clientService.searchClients(null, null, 20, null))
+                .thenThrow(new IllegalArgumentException("Lastname or firstname is required to search clients"));
+
+        mockMvc.perform(get("/client/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+}
@@ -0,0 +1,134 @@
+package com.sg.bank_account_api.controller;
+
+import com.sg.bank_account_api.controller.handler.ApiExceptionHandler;
+import com.sg.bank_account_api.dto.CreateClientDto;
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.exceptions.AccountNotFoundException;
+import com.sg.bank_account_api.exceptions.AmountException;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.service.IReactiveAccountService;
+import com.sg.bank_account_api.service.ReactiveAccountService;
+import com.sg.bank_account_api.utils.DtoMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+class ReactiveAccountControllerTest {
+
+    private final IReactiveAccountService accountService = Mockito.mock(ReactiveAccountService.class);
+
+    private WebTestClient webTestClient;
+
+    private StatementDto statementDto;
+    private Client testClient;
+    private Account testAccount;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveAccountController accountController = new ReactiveAccountController(accountService, new DtoMapper());
+        webTestClient = WebTestClient.bindToController(accountController)
+                .controllerAdvice(new ApiExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+
+        statementDto = new StatementDto(LocalDateTime.now(), BigDecimal.valueOf(100), BigDecimal.valueOf(100));
+        testClient = new Client("client456", "Doe", "John", LocalDateTime.now());
+        testAccount = new Account("account123", 10000L, testClient.id(), LocalDateTime.now(), 1L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should create account and return CREATED status")
+    void shouldCreateAccountAndReturnCreated() {
+        when(accountService.createAccount(any(CreateClientDto.class)))
+                .thenReturn(Mono.just(new CreatedAccountDto("account123", "client456")));
+
+        webTestClient.post().uri("/account")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateClientDto("Doe", "John"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.accountId").isEqualTo("account123")
+                .jsonPath("$.clientId").isEqualTo("client456");
+    }
+
+    @Test
+    @DisplayName("Should perform deposit and return OK status")
+    void shouldPerformDepositAndReturnOk() {
+        when(accountService.performTransaction(any(CreateTransactionDto.class), eq(TransactionType.DEPOSIT)))
+                .thenReturn(Mono.just(statementDto));
+
+        webTestClient.post().uri("/account/deposit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateTransactionDto("client456", "account123", BigDecimal.valueOf(100)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.amount").isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should handle AmountException for withdraw")
+    void shouldHandleAmountExceptionForWithdraw() {
+        when(accountService.performTransaction(any(CreateTransactionDto.class), eq(TransactionType.WITHDRAW)))
+                .thenReturn(Mono.error(new AmountException("Amount must be > 0")));
+
+        webTestClient.post().uri("/account/withdraw")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateTransactionDto("client456", "account123", BigDecimal.valueOf(1000)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.statusCode").isEqualTo(HttpStatus.BAD_REQUEST.value())
+                .jsonPath("$.message").isEqualTo("Amount must be > 0");
+    }
+
+    @Test
+    @DisplayName("Should print statement and return OK status")
+    void shouldPrintStatementAndReturnOk() {
+        Statement statement = new Statement("statement1", "account123", 1L, LocalDateTime.now(),
+                10000L, 10000L);
+        when(accountService.getAccountById("account123")).thenReturn(Mono.just(testAccount));
+        when(accountService.getClientById("client456")).thenReturn(Mono.just(testClient));
+        when(accountService.getStatements("account123")).thenReturn(Flux.just(statement));
+
+        webTestClient.get().uri("/account/statement/{accountId}", "account123")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.client.id").isEqualTo("client456")
+                .jsonPath("$.statements.length()").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should handle AccountNotFoundException for print statement")
+    void shouldHandleAccountNotFoundExceptionForPrintStatement() {
+        when(accountService.getAccountById("nonExistentAccount")).thenReturn(
+                Mono.error(new AccountNotFoundException("Account not found for ID : nonExistentAccount")));
+        when(accountService.getStatements("nonExistentAccount")).thenReturn(Flux.empty());
+
+        webTestClient.get().uri("/account/statement/{accountId}", "nonExistentAccount")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.statusCode").isEqualTo(404);
+    }
+}
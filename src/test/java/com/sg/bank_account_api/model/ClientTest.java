@@ -0,0 +1,27 @@
+package com.sg.bank_account_api.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ClientTest {
+
+    @Test
+    @DisplayName("Should normalize names without case, accents and repeated spaces")
+    void shouldNormalizeNames() {
+        assertThat(Client.normalize("  Élodie   Marie ")).isEqualTo("elodie marie");
+        assertThat(Client.normalize("LEFÈVRE-Çaillé")).isEqualTo("lefevre-caille");
+        assertThat(Client.normalize(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should compute the search key of a client")
+    void shouldComputeSearchKey() {
+        Client client = new Client("client1", "Dupré", "Jérôme", LocalDateTime.now());
+
+        assertThat(client.searchKey()).isEqualTo(new Client.SearchKey("dupre", "jerome"));
+    }
+}
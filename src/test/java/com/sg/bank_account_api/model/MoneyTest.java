@@ -0,0 +1,54 @@
+package com.sg.bank_account_api.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sg.bank_account_api.exceptions.AmountException;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert decimal amounts to minor units and back")
+    void shouldConvertDecimalAmountsToMinorUnitsAndBack() {
+        assertThat(Money.toMinorUnits(new BigDecimal("12.34"))).isEqualTo(1234L);
+        assertThat(Money.toMinorUnits(new BigDecimal("5"))).isEqualTo(500L);
+        assertThat(Money.toMinorUnits(new BigDecimal("7.500"))).isEqualTo(750L);
+        assertThat(Money.toDecimal(-1234L)).isEqualTo(new BigDecimal("-12.34"));
+    }
+
+    @Test
+    @DisplayName("Should write minor units as the decimal amount")
+    void shouldWriteMinorUnitsAsDecimalChars() {
+        char[] buffer = new char[Money.DECIMAL_CHARS];
+        for (long minorUnits : new long[] { 0L, 5L, -5L, 99L, 100L, -1234L, 150_000L, Long.MAX_VALUE,
+                Long.MIN_VALUE }) {
+            int length = Money.toDecimalChars(minorUnits, buffer);
+
+            assertThat(new String(buffer, 0, length)).isEqualTo(Money.toDecimal(minorUnits).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject amounts with more than two decimals")
+    void shouldRejectAmountsWithMoreThanTwoDecimals() {
+        assertThrows(AmountException.class, () -> Money.toMinorUnits(new BigDecimal("0.001")));
+    }
+
+    @Test
+    @DisplayName("Should reject amounts that do not fit in a long")
+    void shouldRejectAmountsThatDoNotFitInALong() {
+        assertThrows(AmountException.class, () -> Money.toMinorUnits(new BigDecimal("100000000000000000")));
+    }
+
+    @Test
+    @DisplayName("Should detect balance overflow")
+    void shouldDetectBalanceOverflow() {
+        assertThat(Money.add(Long.MAX_VALUE - 1, 1)).isEqualTo(Long.MAX_VALUE);
+        assertThrows(AmountException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+}
@@ -0,0 +1,42 @@
+package com.sg.bank_account_api.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StatementFilterTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 3, 16, 0, 0);
+
+    @Test
+    @DisplayName("Should keep statements from the start of the period up to its end excluded")
+    void shouldMatchPeriod() {
+        StatementFilter filter = new StatementFilter(FROM, TO, null, null, null);
+
+        assertThat(filter.matches(statement(FROM, 100L))).isTrue();
+        assertThat(filter.matches(statement(TO.minusNanos(1), 100L))).isTrue();
+        assertThat(filter.matches(statement(TO, 100L))).isFalse();
+        assertThat(filter.matches(statement(FROM.minusNanos(1), 100L))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should filter on the sign and the absolute value of the amount")
+    void shouldMatchTypeAndAmount() {
+        StatementFilter withdrawals = new StatementFilter(FROM, TO, TransactionType.WITHDRAW, 1_000L, 5_000L);
+        StatementFilter any = new StatementFilter(FROM, TO, null, 1_000L, null);
+
+        assertThat(withdrawals.matches(statement(FROM, -1_000L))).isTrue();
+        assertThat(withdrawals.matches(statement(FROM, 1_000L))).isFalse();
+        assertThat(withdrawals.matches(statement(FROM, -5_001L))).isFalse();
+        assertThat(any.matches(statement(FROM, -2_000L))).isTrue();
+        assertThat(any.matches(statement(FROM, 999L))).isFalse();
+    }
+
+    private static Statement statement(LocalDateTime date, long amount) {
+        return new Statement("statement1", "account456", 1L, date, amount, 10_000L);
+    }
+}
@@ -0,0 +1,198 @@
+package com.sg.bank_account_api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.UpdateResult;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Statement;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AccountRepositoryCustomImplTest {
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private WriteAheadLog writeAheadLog;
+
+    @Mock
+    private RollupRepository rollupRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AccountRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new AccountRepositoryCustomImpl(mongoTemplate, writeAheadLog, rollupRepository, 1000,
+                meterRegistry);
+        // les opérations tiennent dans un segment du journal, sauf indication contraire
+        lenient().when(writeAheadLog.fits(any(), anyString(), anyInt())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should undo the balance update when the statement can't be inserted")
+    void shouldUndoBalanceUpdateWhenInsertFails() {
+        stubAccountUpdate();
+        doThrow(new DataAccessResourceFailureException("statements insert failed"))
+                .when(mongoTemplate).insert(anyList(), eq(Statement.class));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Account.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> repository.applyTransaction("account456", "client123", 2_500L, DATE));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(Statement.class));
+        assertThat(removed.getValue().getQueryObject().get("sequence", Document.class))
+                .containsEntry("$gte", 5L)
+                .containsEntry("$lte", 5L);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Account.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("sequence", 5L);
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class))
+                .containsEntry("balance", -2_500L)
+                .containsEntry("sequence", -1);
+    }
+
+    @Test
+    @DisplayName("Should insert the statement again when the account changed since its update")
+    void shouldInsertStatementAgainWhenAccountChanged() {
+        stubAccountUpdate();
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Account.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        doThrow(new DataAccessResourceFailureException("statements insert failed"))
+                .doAnswer(invocation -> invocation.getArgument(0))
+                .when(mongoTemplate).insert(anyList(), eq(Statement.class));
+
+        Optional<Statement> statement = repository.applyTransaction("account456", "client123", 2_500L, DATE);
+
+        assertThat(statement).contains(new Statement(null, "account456", 5L, DATE, 2_500L, 10_000L));
+        verify(mongoTemplate, times(2)).insert(List.of(statement.get()), Statement.class);
+    }
+
+    @Test
+    @DisplayName("Should undo the balance update when the statement can't be logged")
+    void shouldUndoBalanceUpdateWhenLogFails() {
+        stubAccountUpdate();
+        when(writeAheadLog.append(eq("client123"), anyList()))
+                .thenThrow(new UncheckedIOException(new IOException("disk full")));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Account.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertThrows(UncheckedIOException.class,
+                () -> repository.applyTransaction("account456", "client123", 2_500L, DATE));
+
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(Account.class));
+        verify(mongoTemplate, never()).insert(anyList(), eq(Statement.class));
+    }
+
+    @Test
+    @DisplayName("Should leave the account untouched when a batch doesn't fit in the write-ahead log")
+    void shouldNotApplyBatchTooLargeForLog() {
+        when(writeAheadLog.fits("client123", "account456", 2)).thenReturn(false);
+
+        Optional<List<Statement>> statements = repository.applyTransactions("account456", "client123",
+                new long[] { 2_500L, -1_000L }, DATE);
+
+        assertThat(statements).isEmpty();
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should filter on the client even when the client id is missing")
+    void shouldAlwaysFilterOnClient() {
+        repository.applyTransaction("account456", null, 2_500L, DATE);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Account.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("clientId", null);
+    }
+
+    @Test
+    @DisplayName("Should credit a transfer leg whatever the client of the account")
+    void shouldCreditTransferLegWithoutClient() {
+        repository.applyTransferCredit("transfer1:credit", "account456", 2_500L, DATE);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Account.class));
+        assertThat(query.getValue().getQueryObject()).doesNotContainKey("clientId")
+                .containsKey("pendingTransfers");
+    }
+
+    @Test
+    @DisplayName("Should seek the accounts of a client after the last account of the previous page")
+    void shouldSeekAccountsOfClientAfterCursor() {
+        Account after = new Account("account456", 0L, null, DATE, 0L, null);
+
+        repository.findByClientId("client123", after, 21);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Account.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("clientId", "client123")
+                .containsKey("$or");
+        assertThat(query.getValue().getSortObject()).containsEntry("date", 1).containsEntry("id", 1);
+        assertThat(query.getValue().getLimit()).isEqualTo(21);
+    }
+
+    @Test
+    @DisplayName("Should keep the statement and count the failure when the rollups can't be updated")
+    void shouldCountRollupFailures() {
+        stubAccountUpdate();
+        when(mongoTemplate.insert(anyList(), eq(Statement.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new DataAccessResourceFailureException("rollups update failed"))
+                .when(rollupRepository).addAll(anyList());
+
+        Optional<Statement> statement = repository.applyTransaction("account456", "client123", 2_500L, DATE);
+
+        assertThat(statement).isPresent();
+        assertThat(meterRegistry.counter(AccountRepositoryCustomImpl.ROLLUP_FAILURES).count()).isEqualTo(1);
+    }
+
+    private void stubAccountUpdate() {
+        // solde de 100 après un dépôt de 25 : opération numéro 5
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Account.class)))
+                .thenReturn(new Account("account456", 10_000L, "client123", DATE, 5L, 6L));
+    }
+}
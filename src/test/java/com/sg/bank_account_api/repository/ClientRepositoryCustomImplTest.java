@@ -0,0 +1,55 @@
+package com.sg.bank_account_api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.sg.bank_account_api.model.Client;
+
+class ClientRepositoryCustomImplTest {
+
+    @Test
+    @DisplayName("Should search by lastname prefix in the order of the lastname index")
+    void shouldSearchByLastnamePrefix() {
+        Query query = ClientRepositoryCustomImpl.searchQuery("dup", "je", null);
+
+        assertThat(query.getQueryObject().get("searchKey.lastname", Document.class))
+                .containsEntry("$gte", "dup")
+                .containsEntry("$lt", "dup" + Character.MAX_VALUE);
+        assertThat(query.getQueryObject().get("searchKey.firstname", Document.class))
+                .containsEntry("$gte", "je");
+        assertThat(query.getSortObject().keySet())
+                .containsExactly("searchKey.lastname", "searchKey.firstname", "id");
+    }
+
+    @Test
+    @DisplayName("Should search by firstname prefix in the order of the firstname index")
+    void shouldSearchByFirstnamePrefix() {
+        Query query = ClientRepositoryCustomImpl.searchQuery("", "je", null);
+
+        assertThat(query.getQueryObject()).doesNotContainKey("searchKey.lastname");
+        assertThat(query.getSortObject().keySet())
+                .containsExactly("searchKey.firstname", "searchKey.lastname", "id");
+    }
+
+    @Test
+    @DisplayName("Should resume after the last client of the previous page")
+    void shouldResumeAfterLastClient() {
+        Client after = new Client("client1", null, null, null, new Client.SearchKey("dupont", "jean"));
+
+        Query query = ClientRepositoryCustomImpl.searchQuery("dup", "", after);
+
+        List<Object> or = query.getQueryObject().getList("$or", Object.class);
+        assertThat(or).containsExactly(
+                new Document("searchKey.lastname", new Document("$gt", "dupont")),
+                new Document("searchKey.lastname", "dupont").append("searchKey.firstname",
+                        new Document("$gt", "jean")),
+                new Document("searchKey.lastname", "dupont").append("searchKey.firstname", "jean")
+                        .append("id", new Document("$gt", "client1")));
+    }
+}
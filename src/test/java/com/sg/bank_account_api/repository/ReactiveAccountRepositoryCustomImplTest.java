@@ -0,0 +1,94 @@
+package com.sg.bank_account_api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Statement;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAccountRepositoryCustomImplTest {
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private ReactiveAccountRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ReactiveAccountRepositoryCustomImpl(mongoTemplate, 1000);
+        // solde de 100 après un dépôt de 25 : opération numéro 5
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Account.class)))
+                .thenReturn(Mono.just(new Account("account456", 10_000L, "client123", DATE, 5L, 6L)));
+        when(mongoTemplate.remove(any(Query.class), eq(Statement.class)))
+                .thenReturn(Mono.just(DeleteResult.acknowledged(0)));
+    }
+
+    @Test
+    @DisplayName("Should undo the balance update when the statement can't be inserted")
+    void shouldUndoBalanceUpdateWhenInsertFails() {
+        when(mongoTemplate.insert(any(Statement.class)))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("statement insert failed")));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Account.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+        Mono<Statement> result = repository.applyTransaction("account456", "client123", 2_500L, DATE);
+
+        assertThrows(DataAccessResourceFailureException.class, result::block);
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(Statement.class));
+        assertThat(removed.getValue().getQueryObject()).containsEntry("sequence", 5L);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(Account.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("sequence", 5L);
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class))
+                .containsEntry("balance", -2_500L)
+                .containsEntry("sequence", -1);
+    }
+
+    @Test
+    @DisplayName("Should insert the statement again when the account changed since its update")
+    void shouldInsertStatementAgainWhenAccountChanged() {
+        Statement expected = new Statement(null, "account456", 5L, DATE, 2_500L, 10_000L);
+        when(mongoTemplate.insert(any(Statement.class)))
+                .thenReturn(Mono.error(new DataAccessResourceFailureException("statement insert failed")))
+                .thenReturn(Mono.just(expected));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Account.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), any(Class.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+        Statement statement = repository.applyTransaction("account456", "client123", 2_500L, DATE).block();
+
+        assertThat(statement).isEqualTo(expected);
+        verify(mongoTemplate, times(2)).insert(expected);
+    }
+}
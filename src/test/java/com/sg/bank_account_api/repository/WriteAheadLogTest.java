@@ -0,0 +1,181 @@
+package com.sg.bank_account_api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.repository.WriteAheadLog.FsyncPolicy;
+
+@ExtendWith(MockitoExtension.class)
+class WriteAheadLogTest {
+    @Mock
+    private BulkInsertRepository bulkInsertRepository;
+
+    @Mock
+    private RollupRepository rollupRepository;
+
+    @TempDir
+    private Path directory;
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2023, 7, 15, 10, 30, 0, 123_456_789);
+
+    @Test
+    @DisplayName("Should replay unconfirmed statements on startup and delete the segments")
+    @SuppressWarnings("unchecked")
+    void shouldReplayUnconfirmedStatementsOnStartup() throws IOException {
+        WriteAheadLog wal = open(FsyncPolicy.PER_WRITE);
+        wal.append("client123", List.of(statement(1, 1_000, 1_000), statement(2, -250, 750)));
+        wal.close();
+        when(bulkInsertRepository.insertAll(any(), eq(Statement.class))).thenReturn(Map.of());
+
+        open(FsyncPolicy.BATCH);
+
+        ArgumentCaptor<List<Statement>> replayed = ArgumentCaptor.forClass(List.class);
+        verify(bulkInsertRepository).insertAll(replayed.capture(), eq(Statement.class));
+        assertThat(replayed.getValue()).extracting(Statement::sequence).containsExactly(1L, 2L);
+        assertThat(replayed.getValue()).extracting(Statement::amount).containsExactly(1_000L, -250L);
+        assertThat(replayed.getValue()).extracting(Statement::balance).containsExactly(1_000L, 750L);
+        assertThat(replayed.getValue()).extracting(Statement::date).containsOnly(DATE);
+        assertThat(replayed.getValue()).extracting(Statement::accountId).containsOnly("account456");
+        verify(rollupRepository).addAll(replayed.getValue());
+        // seul le nouveau segment reste
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should ignore statements already inserted when replaying")
+    void shouldIgnoreDuplicatesWhenReplaying() {
+        WriteAheadLog wal = open(FsyncPolicy.INTERVAL);
+        wal.append("client123", List.of(statement(1, 1_000, 1_000)));
+        wal.close();
+        when(bulkInsertRepository.insertAll(any(), eq(Statement.class)))
+                .thenReturn(Map.of(0, "E11000 duplicate key error collection: bank_account_db.statements"));
+
+        open(FsyncPolicy.BATCH);
+
+        // l'opération est déjà dans les cumuls
+        verify(rollupRepository).addAll(List.of());
+    }
+
+    @Test
+    @DisplayName("Should keep the log when a statement can't be replayed")
+    void shouldKeepLogWhenReplayFails() throws IOException {
+        WriteAheadLog wal = open(FsyncPolicy.BATCH);
+        wal.append("client123", List.of(statement(1, 1_000, 1_000)));
+        wal.close();
+        when(bulkInsertRepository.insertAll(any(), eq(Statement.class))).thenReturn(Map.of(0, "timeout"));
+
+        assertThrows(IllegalStateException.class, () -> open(FsyncPolicy.BATCH));
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should stop reading a segment at a corrupted record")
+    @SuppressWarnings("unchecked")
+    void shouldStopAtCorruptedRecord() throws IOException {
+        WriteAheadLog wal = open(FsyncPolicy.BATCH);
+        wal.append("client123", List.of(statement(1, 1_000, 1_000)));
+        wal.append("client123", List.of(statement(2, 500, 1_500)));
+        wal.close();
+        corruptLastByteOfSecondRecord(segments().getFirst());
+        when(bulkInsertRepository.insertAll(any(), eq(Statement.class))).thenReturn(Map.of());
+
+        open(FsyncPolicy.BATCH);
+
+        ArgumentCaptor<List<Statement>> replayed = ArgumentCaptor.forClass(List.class);
+        verify(bulkInsertRepository).insertAll(replayed.capture(), eq(Statement.class));
+        assertThat(replayed.getValue()).extracting(Statement::sequence).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should rotate segments and delete full segments once confirmed")
+    void shouldRotateAndDeleteConfirmedSegments() throws IOException {
+        WriteAheadLog wal = open(FsyncPolicy.BATCH);
+        // chaque enregistrement fait une soixantaine d'octets : 4KB en contiennent moins de 100
+        for (int i = 1; i <= 100; i++) {
+            wal.confirm(wal.append("client123", List.of(statement(i, 100, i * 100L))));
+        }
+        WriteAheadLog.Entry pending = wal.append("client123", List.of(statement(101, 100, 10_100)));
+
+        assertThat(segments()).hasSize(1);
+        wal.confirm(pending);
+        wal.close();
+        verifyNoInteractions(bulkInsertRepository);
+    }
+
+    @Test
+    @DisplayName("Should tell whether transactions fit in a segment")
+    void shouldTellWhetherTransactionsFit() {
+        WriteAheadLog wal = open(FsyncPolicy.BATCH);
+
+        // une soixantaine d'octets par enregistrement dans un segment de 4KB
+        assertThat(wal.fits("client123", "account456", 10)).isTrue();
+        assertThat(wal.fits("client123", "account456", 100)).isFalse();
+        assertThrows(IllegalArgumentException.class, () -> wal.append("client123",
+                LongStream.rangeClosed(1, 100).mapToObj(i -> statement(i, 100, i * 100)).toList()));
+        wal.close();
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(false, directory, DataSize.ofKilobytes(4), FsyncPolicy.BATCH, 10,
+                bulkInsertRepository, rollupRepository);
+        wal.open();
+
+        assertThat(wal.append("client123", List.of(statement(1, 100, 100)))).isNull();
+        assertThat(segments()).isEmpty();
+    }
+
+    private WriteAheadLog open(FsyncPolicy fsyncPolicy) {
+        WriteAheadLog wal = new WriteAheadLog(true, directory, DataSize.ofKilobytes(4), fsyncPolicy, 10,
+                bulkInsertRepository, rollupRepository);
+        wal.open();
+        return wal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void corruptLastByteOfSecondRecord(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int second = Integer.BYTES * 2 + buffer.getInt(0);
+            int end = second + Integer.BYTES * 2 + buffer.getInt(second);
+            buffer.put(end - 1, (byte) (buffer.get(end - 1) ^ 0xFF));
+        }
+    }
+
+    private static Statement statement(long sequence, long amount, long balance) {
+        return new Statement(null, "account456", sequence, DATE, amount, balance);
+    }
+}
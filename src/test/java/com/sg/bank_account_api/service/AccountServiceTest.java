@@ -2,47 +2,83 @@ package com.sg.bank_account_api.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import com.sg.bank_account_api.dto.AccountPageDto;
+import com.sg.bank_account_api.dto.BalanceDto;
+import com.sg.bank_account_api.dto.BatchAccountResultDto;
+import com.sg.bank_account_api.dto.BatchTransactionDto;
+import com.sg.bank_account_api.dto.BatchTransactionResultDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.dto.CreateTransactionDto;
 import com.sg.bank_account_api.dto.CreatedAccountDto;
 import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.dto.StatementPageDto;
 import com.sg.bank_account_api.exceptions.AccountNotFoundException;
 import com.sg.bank_account_api.exceptions.AmountException;
 import com.sg.bank_account_api.exceptions.ClientNotFoundException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
 import com.sg.bank_account_api.model.Account;
 import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.StatementFilter;
 import com.sg.bank_account_api.model.TransactionType;
 import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.BulkInsertRepository;
+import com.sg.bank_account_api.repository.StatementRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private StatementRepository statementRepository;
+
+    @Mock
+    private StatementArchiveService statementArchiveService;
+
+    @Mock
+    private BulkInsertRepository bulkInsertRepository;
+
     @Mock
     private ClientService clientService;
 
-    @InjectMocks
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private AccountService accountService;
 
     private Client testClient;
@@ -51,8 +87,16 @@ class AccountServiceTest {
 
     @BeforeEach
     void setUp() {
+        // les transactions sont exécutées dans le thread de l'appelant
+        AccountTransactionEngine transactionEngine = new AccountTransactionEngine(accountRepository, Runnable::run, 100);
+        // pas d'attente entre deux tentatives
+        OptimisticRetry optimisticRetry = new OptimisticRetry(meterRegistry, 3, 0, 0);
+        accountService = new AccountService(accountRepository, statementRepository, statementArchiveService,
+                bulkInsertRepository,
+                clientService, new DtoMapper(), transactionEngine, optimisticRetry, new ConcurrentMapCacheManager(),
+                meterRegistry);
         testClient = new Client("client123", "Doe", "John", LocalDateTime.now());
-        testAccount = new Account("account456", BigDecimal.ZERO, testClient, LocalDateTime.now(), new ArrayList<>());
+        testAccount = new Account("account456", 0L, testClient.id(), LocalDateTime.now(), 0L, 0L);
         createClientDto = new CreateClientDto("Doe", "John");
     }
 
@@ -71,65 +115,110 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).save(any(Account.class));
     }
 
+    @Test
+    @DisplayName("Should create accounts in bulk and report per-item failures")
+    void shouldCreateAccountsInBulk() {
+        CreateClientDto invalidDto = new CreateClientDto("", "");
+        CreateClientDto otherDto = new CreateClientDto("Smith", "Jane");
+        Client otherClient = new Client("client789", "Smith", "Jane", LocalDateTime.now());
+        when(clientService.prepareClient(createClientDto)).thenReturn(testClient);
+        when(clientService.prepareClient(invalidDto)).thenThrow(
+                new IllegalArgumentException("Client can't be null and should have either lastname or fisrtname"));
+        when(clientService.prepareClient(otherDto)).thenReturn(otherClient);
+        when(bulkInsertRepository.insertAll(List.of(testClient, otherClient), Client.class)).thenReturn(Map.of());
+        when(bulkInsertRepository.insertAll(anyList(), eq(Account.class))).thenReturn(Map.of(1, "duplicate key"));
+
+        List<BatchAccountResultDto> results = accountService.createAccounts(
+                List.of(createClientDto, invalidDto, otherDto));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).account().clientId()).isEqualTo("client123");
+        assertThat(results.get(0).account().accountId()).isNotNull();
+        assertThat(results.get(1).error().statusCode()).isEqualTo(400);
+        assertThat(results.get(2).error().statusCode()).isEqualTo(500);
+        assertThat(results.get(2).error().message()).isEqualTo("duplicate key");
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
     @Test
     @DisplayName("Should perform deposit successfully")
     void shouldPerformDepositSuccessfully() {
-        BigDecimal initialBalance = BigDecimal.valueOf(100);
-        BigDecimal depositAmount = BigDecimal.valueOf(50);
-        Account accountWithBalance = new Account("account456", initialBalance, testClient, LocalDateTime.now(),
-                new ArrayList<>());
-        CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", depositAmount);
+        CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", BigDecimal.valueOf(50));
 
-        when(accountRepository.findById("account456")).thenReturn(Optional.of(accountWithBalance));
-        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
-            Account savedAccount = invocation.getArgument(0);
-            assertThat(savedAccount.balance()).isEqualTo(initialBalance.add(depositAmount));
-            assertThat(savedAccount.statements()).hasSize(1);
-            return savedAccount;
-        });
+        // les montants sont enregistrés en centimes
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(5000L),
+                any(LocalDateTime.class))).thenAnswer(invocation -> Optional.of(new Statement("statement1",
+                        "account456", 1L, invocation.getArgument(3), 5000L, 15000L)));
 
         StatementDto result = accountService.performTransaction(depositDto, TransactionType.DEPOSIT);
 
         assertThat(result).isNotNull();
-        assertThat(result.amount()).isEqualTo(depositAmount);
-        assertThat(result.balance()).isEqualTo(initialBalance.add(depositAmount));
+        assertThat(result.amount()).isEqualByComparingTo("50");
+        assertThat(result.balance()).isEqualByComparingTo("150");
         assertThat(result.date().truncatedTo(ChronoUnit.SECONDS))
                 .isEqualTo(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
-        verify(accountRepository, times(1)).findById("account456");
-        verify(accountRepository, times(1)).save(any(Account.class));
+        verify(accountRepository, never()).findById(anyString());
+        verify(accountRepository, never()).save(any(Account.class));
     }
 
     @Test
     @DisplayName("Should perform withdrawal successfully")
     void shouldPerformWithdrawalSuccessfully() {
-        BigDecimal initialBalance = BigDecimal.valueOf(100);
-        BigDecimal withdrawalAmount = BigDecimal.valueOf(50);
-        Account accountWithBalance = new Account("account456", initialBalance, testClient, LocalDateTime.now(),
-                new ArrayList<>());
-        CreateTransactionDto withdrawalDto = new CreateTransactionDto("client123", "account456", withdrawalAmount);
+        CreateTransactionDto withdrawalDto = new CreateTransactionDto("client123", "account456",
+                BigDecimal.valueOf(50));
 
-        when(accountRepository.findById("account456")).thenReturn(Optional.of(accountWithBalance));
-        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
-            Account savedAccount = invocation.getArgument(0);
-            assertThat(savedAccount.balance()).isEqualTo(initialBalance.subtract(withdrawalAmount));
-            assertThat(savedAccount.statements()).hasSize(1);
-            return savedAccount;
-        });
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(-5000L),
+                any(LocalDateTime.class))).thenAnswer(invocation -> Optional.of(new Statement("statement1",
+                        "account456", 1L, invocation.getArgument(3), -5000L, 5000L)));
 
         StatementDto result = accountService.performTransaction(withdrawalDto, TransactionType.WITHDRAW);
 
         assertThat(result).isNotNull();
-        assertThat(result.amount()).isEqualTo(withdrawalAmount.negate());
-        assertThat(result.balance()).isEqualTo(initialBalance.subtract(withdrawalAmount));
+        assertThat(result.amount()).isEqualByComparingTo("-50");
+        assertThat(result.balance()).isEqualByComparingTo("50");
         assertThat(result.date().truncatedTo(ChronoUnit.SECONDS)).isEqualTo(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
-        verify(accountRepository, times(1)).findById("account456");
-        verify(accountRepository, times(1)).save(any(Account.class));
+        verify(accountRepository, never()).findById(anyString());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    @DisplayName("Should throw ClientNotFoundException before any write for a deposit without client")
+    void shouldRejectDepositWithoutClient() {
+        CreateTransactionDto depositDto = new CreateTransactionDto(null, "account456", BigDecimal.TEN);
+
+        assertThrows(ClientNotFoundException.class,
+                () -> accountService.performTransaction(depositDto, TransactionType.DEPOSIT));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw ClientNotFoundException before any write for a withdrawal without client")
+    void shouldRejectWithdrawalWithoutClient() {
+        CreateTransactionDto withdrawalDto = new CreateTransactionDto(null, "account456", BigDecimal.TEN);
+
+        assertThrows(ClientNotFoundException.class,
+                () -> accountService.performTransaction(withdrawalDto, TransactionType.WITHDRAW));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject the batch items without client before any write")
+    void shouldRejectBatchItemWithoutClient() {
+        List<BatchTransactionDto> batch = List.of(
+                new BatchTransactionDto(TransactionType.DEPOSIT, null, "account456", BigDecimal.TEN));
+
+        List<BatchTransactionResultDto> results = accountService.performTransactions(batch);
+
+        assertThat(results.getFirst().error().statusCode()).isEqualTo(404);
+        verifyNoInteractions(accountRepository);
     }
 
     @Test
     @DisplayName("Should throw AccountNotFoundException when performing transaction on non-existent account")
     void shouldThrowAccountNotFoundExceptionWhenTransactionOnNonExistentAccount() {
         CreateTransactionDto dto = new CreateTransactionDto("client123", "nonExistentAccount", BigDecimal.TEN);
+        when(accountRepository.applyTransaction(eq("nonExistentAccount"), eq("client123"), eq(1000L),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(accountRepository.findById("nonExistentAccount")).thenReturn(Optional.empty());
 
         AccountNotFoundException thrown = assertThrows(AccountNotFoundException.class,
@@ -144,39 +233,61 @@ class AccountServiceTest {
     @DisplayName("Should throw AmountException for negative deposit amount")
     void shouldThrowAmountExceptionForNegativeDeposit() {
         CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", BigDecimal.valueOf(-10));
-        when(accountRepository.findById("account456")).thenReturn(Optional.of(testAccount));
 
         AmountException thrown = assertThrows(AmountException.class,
                 () -> accountService.performTransaction(depositDto, TransactionType.DEPOSIT));
 
         assertThat(thrown.getMessage()).contains("Amount must be > 0");
-        verify(accountRepository, times(1)).findById("account456");
-        verify(accountRepository, never()).save(any(Account.class));
+        verifyNoInteractions(accountRepository);
     }
 
     @Test
     @DisplayName("Should throw AmountException for zero deposit amount")
     void shouldThrowAmountExceptionForZeroDeposit() {
         CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", BigDecimal.ZERO);
-        when(accountRepository.findById("account456")).thenReturn(Optional.of(testAccount));
 
         AmountException thrown = assertThrows(AmountException.class,
                 () -> accountService.performTransaction(depositDto, TransactionType.DEPOSIT));
 
         assertThat(thrown.getMessage()).contains("Amount must be > 0");
-        verify(accountRepository, times(1)).findById("account456");
-        verify(accountRepository, never()).save(any(Account.class));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw AmountException for an amount with more than two decimals")
+    void shouldThrowAmountExceptionForSubCentAmount() {
+        CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456",
+                new BigDecimal("10.005"));
+
+        assertThrows(AmountException.class,
+                () -> accountService.performTransaction(depositDto, TransactionType.DEPOSIT));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw AmountException for a deposit overflowing the balance")
+    void shouldThrowAmountExceptionForDepositOverflowingBalance() {
+        Account fullAccount = new Account("account456", Long.MAX_VALUE - 1, testClient.id(), LocalDateTime.now(), 0L, 0L);
+        CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", BigDecimal.ONE);
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(100L),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(accountRepository.findById("account456")).thenReturn(Optional.of(fullAccount));
+
+        AmountException thrown = assertThrows(AmountException.class,
+                () -> accountService.performTransaction(depositDto, TransactionType.DEPOSIT));
+
+        assertThat(thrown.getMessage()).contains("overflow");
     }
 
     @Test
     @DisplayName("Should throw AmountException for withdrawal exceeding balance")
     void shouldThrowAmountExceptionForWithdrawalExceedingBalance() {
-        BigDecimal initialBalance = BigDecimal.valueOf(50);
-        BigDecimal withdrawalAmount = BigDecimal.valueOf(100);
-        Account accountWithBalance = new Account("account456", initialBalance, testClient, LocalDateTime.now(),
-                new ArrayList<>());
-        CreateTransactionDto withdrawalDto = new CreateTransactionDto("client123", "account456", withdrawalAmount);
+        Account accountWithBalance = new Account("account456", 5000L, testClient.id(), LocalDateTime.now(), 0L, 0L);
+        CreateTransactionDto withdrawalDto = new CreateTransactionDto("client123", "account456",
+                BigDecimal.valueOf(100));
 
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(-10000L),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(accountRepository.findById("account456")).thenReturn(Optional.of(accountWithBalance));
 
         AmountException thrown = assertThrows(AmountException.class,
@@ -191,11 +302,12 @@ class AccountServiceTest {
     @Test
     @DisplayName("Should throw ClientNotFoundException when client ID does not match account's client")
     void shouldThrowClientNotFoundExceptionWhenClientDoesNotMatchAccount() {
-        Client anotherClient = new Client("anotherClient", "Smith", "Jane", LocalDateTime.now());
-        Account accountWithAnotherClient = new Account("account456", BigDecimal.TEN, anotherClient, LocalDateTime.now(),
-                new ArrayList<>());
+        Account accountWithAnotherClient = new Account("account456", 1000L, "anotherClient", LocalDateTime.now(), 0L,
+                0L);
         CreateTransactionDto dto = new CreateTransactionDto("client123", "account456", BigDecimal.TEN);
 
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(1000L),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
         when(accountRepository.findById("account456")).thenReturn(Optional.of(accountWithAnotherClient));
 
         ClientNotFoundException thrown = assertThrows(ClientNotFoundException.class,
@@ -206,6 +318,80 @@ class AccountServiceTest {
         verify(accountRepository, never()).save(any(Account.class));
     }
 
+    @Test
+    @DisplayName("Should retry transaction when account changed between update and check")
+    void shouldRetryTransactionWhenAccountChangedConcurrently() {
+        CreateTransactionDto withdrawalDto = new CreateTransactionDto("client123", "account456", BigDecimal.TEN);
+        Account accountWithBalance = new Account("account456", 10000L, testClient.id(), LocalDateTime.now(), 0L, 0L);
+
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(-1000L),
+                any(LocalDateTime.class)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new Statement("statement1", "account456", 1L, LocalDateTime.now(),
+                        -1000L, 9000L)));
+        when(accountRepository.findById("account456")).thenReturn(Optional.of(accountWithBalance));
+
+        StatementDto result = accountService.performTransaction(withdrawalDto, TransactionType.WITHDRAW);
+
+        assertThat(result.balance()).isEqualByComparingTo("90");
+        verify(accountRepository, times(2)).applyTransaction(eq("account456"), eq("client123"),
+                eq(-1000L), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("bank.account.retries", "endpoint", "withdraw").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give up with ConcurrentUpdateException when the account keeps changing")
+    void shouldGiveUpWhenAccountKeepsChanging() {
+        CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", BigDecimal.TEN);
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(1000L),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(accountRepository.findById("account456")).thenReturn(Optional.of(testAccount));
+
+        assertThrows(ConcurrentUpdateException.class,
+                () -> accountService.performTransaction(depositDto, TransactionType.DEPOSIT));
+
+        verify(accountRepository, times(3)).applyTransaction(eq("account456"), eq("client123"),
+                eq(1000L), any(LocalDateTime.class));
+        assertThat(meterRegistry.counter("bank.account.conflicts", "endpoint", "deposit").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("bank.account.give-ups", "endpoint", "deposit").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should apply a batch grouped by account and report per-item results")
+    void shouldPerformBatchGroupedByAccount() {
+        List<BatchTransactionDto> batch = List.of(
+                new BatchTransactionDto(TransactionType.DEPOSIT, "client123", "account456", BigDecimal.TEN),
+                new BatchTransactionDto(TransactionType.DEPOSIT, "client123", "account456", BigDecimal.valueOf(-1)),
+                new BatchTransactionDto(TransactionType.WITHDRAW, "client123", "account456", BigDecimal.ONE),
+                new BatchTransactionDto(null, "client123", "account456", BigDecimal.ONE),
+                new BatchTransactionDto(TransactionType.DEPOSIT, "client789", "nonExistentAccount", BigDecimal.ONE));
+        when(accountRepository.applyTransactions(eq("account456"), eq("client123"),
+                aryEq(new long[] { 1000, -100 }), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(List.of(
+                        new Statement("statement1", "account456", 1L, LocalDateTime.now(), 1000L, 1000L),
+                        new Statement("statement2", "account456", 2L, LocalDateTime.now(), -100L, 900L))));
+        when(accountRepository.applyTransaction(eq("nonExistentAccount"), eq("client789"), eq(100L),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(accountRepository.findById("nonExistentAccount")).thenReturn(Optional.empty());
+
+        List<BatchTransactionResultDto> results = accountService.performTransactions(batch);
+
+        assertThat(results).extracting(BatchTransactionResultDto::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(0).statement().balance()).isEqualByComparingTo("10");
+        assertThat(results.get(1).error().statusCode()).isEqualTo(400);
+        assertThat(results.get(2).statement().balance()).isEqualByComparingTo("9");
+        assertThat(results.get(3).error().statusCode()).isEqualTo(400);
+        assertThat(results.get(4).error().statusCode()).isEqualTo(404);
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for a null batch")
+    void shouldThrowIllegalArgumentExceptionForNullBatch() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.performTransactions(null));
+        verifyNoInteractions(accountRepository);
+    }
+
     @Test
     @DisplayName("Should retrieve account by ID successfully")
     void shouldGetAccountByIdSuccessfully() {
@@ -217,6 +403,134 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).findById("account456");
     }
 
+    @Test
+    @DisplayName("Should time the validate and persist phases of a transaction")
+    void shouldTimeTransactionPhases() {
+        CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", BigDecimal.TEN);
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(1000L),
+                any(LocalDateTime.class))).thenReturn(Optional.of(new Statement("statement1", "account456", 1L,
+                        LocalDateTime.now(), 1000L, 1000L)));
+
+        accountService.performTransaction(depositDto, TransactionType.DEPOSIT);
+
+        assertThat(meterRegistry.get(AccountService.PHASE_TIMER).tags("phase", "validate", "type", "deposit")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(AccountService.PHASE_TIMER).tags("phase", "persist", "type", "deposit")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(AccountService.PHASE_TIMER).tag("phase", "load").timer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated account reads from the cache")
+    void shouldServeRepeatedAccountReadsFromCache() {
+        when(accountRepository.findById("account456")).thenReturn(Optional.of(testAccount));
+
+        accountService.getAccountById("account456");
+        Account foundAccount = accountService.getAccountById("account456");
+
+        assertThat(foundAccount).isEqualTo(testAccount);
+        verify(accountRepository, times(1)).findById("account456");
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached account after a transaction")
+    void shouldInvalidateCachedAccountAfterTransaction() {
+        CreateTransactionDto depositDto = new CreateTransactionDto("client123", "account456", BigDecimal.TEN);
+        when(accountRepository.findById("account456")).thenReturn(Optional.of(testAccount));
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(1000L),
+                any(LocalDateTime.class))).thenReturn(Optional.of(new Statement("statement1", "account456", 1L,
+                        LocalDateTime.now(), 1000L, 1000L)));
+
+        accountService.getAccountById("account456");
+        accountService.performTransaction(depositDto, TransactionType.DEPOSIT);
+        accountService.getAccountById("account456");
+
+        verify(accountRepository, times(2)).findById("account456");
+    }
+
+    @Test
+    @DisplayName("Should read the balance through the projection query")
+    void shouldReadBalanceThroughProjection() {
+        when(accountRepository.findBalanceById("account456")).thenReturn(Optional.of(testAccount));
+
+        BalanceDto balance = accountService.getBalance("account456");
+
+        assertThat(balance.clientId()).isEqualTo("client123");
+        assertThat(balance.balance()).isEqualByComparingTo(BigDecimal.ZERO);
+        verify(accountRepository, never()).findById(anyString());
+        verify(statementRepository, never()).findByAccountIdOrderBySequenceAsc(anyString());
+    }
+
+    @Test
+    @DisplayName("Should throw AccountNotFoundException when balance of unknown account is requested")
+    void shouldThrowAccountNotFoundExceptionForUnknownBalance() {
+        when(accountRepository.findBalanceById("nonExistentAccount")).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> accountService.getBalance("nonExistentAccount"));
+    }
+
+    @Test
+    @DisplayName("Should list the accounts of a client without reading the client")
+    void shouldListAccountsOfClient() {
+        when(accountRepository.findByClientId("client123", null, 21)).thenReturn(List.of(testAccount));
+
+        AccountPageDto page = accountService.getAccountsByClient("client123", 20, null);
+
+        assertThat(page.accounts()).extracting(BalanceDto::accountId).containsExactly("account456");
+        assertThat(page.nextCursor()).isNull();
+        verify(clientService, never()).getClientById(anyString());
+        verify(clientService, never()).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should seek the next page of the accounts of a client from the cursor")
+    void shouldSeekNextAccountPageFromCursor() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 9, 0);
+        Account first = new Account("account1", 0L, "client123", date, 0L, 0L);
+        Account second = new Account("account2", 0L, "client123", date, 0L, 0L);
+        Account third = new Account("account3", 0L, "client123", date.plusDays(1), 0L, 0L);
+        when(accountRepository.findByClientId("client123", null, 2)).thenReturn(List.of(first, second));
+        when(accountRepository.findByClientId(eq("client123"), any(Account.class), eq(2)))
+                .thenReturn(List.of(second, third));
+
+        String cursor = accountService.getAccountsByClient("client123", 1, null).nextCursor();
+        AccountPageDto page = accountService.getAccountsByClient("client123", 1, cursor);
+
+        assertThat(page.accounts()).extracting(BalanceDto::accountId).containsExactly("account2");
+        ArgumentCaptor<Account> after = ArgumentCaptor.forClass(Account.class);
+        verify(accountRepository, times(2)).findByClientId(eq("client123"), after.capture(), eq(2));
+        assertThat(after.getValue().id()).isEqualTo("account1");
+        assertThat(after.getValue().date()).isEqualTo(date);
+    }
+
+    @Test
+    @DisplayName("Should return an empty page for a client without accounts")
+    void shouldReturnEmptyPageForClientWithoutAccounts() {
+        when(accountRepository.findByClientId("client123", null, 21)).thenReturn(List.of());
+        when(clientService.existsById("client123")).thenReturn(true);
+
+        AccountPageDto page = accountService.getAccountsByClient("client123", 20, null);
+
+        assertThat(page.accounts()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should throw ClientNotFoundException when the accounts of an unknown client are requested")
+    void shouldThrowClientNotFoundExceptionForAccountsOfUnknownClient() {
+        when(accountRepository.findByClientId("unknown", null, 21)).thenReturn(List.of());
+        when(clientService.existsById("unknown")).thenReturn(false);
+
+        assertThrows(ClientNotFoundException.class, () -> accountService.getAccountsByClient("unknown", 20, null));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for an invalid accounts cursor")
+    void shouldRejectInvalidAccountCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> accountService.getAccountsByClient("client123", 20, "bm90IGEgY3Vyc29y"));
+    }
+
     @Test
     @DisplayName("Should throw AccountNotFoundException when account by ID not found")
     void shouldThrowAccountNotFoundExceptionWhenGetAccountByIdNotFound() {
@@ -229,16 +543,173 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).findById("nonExistentAccount");
     }
 
+    @Test
+    @DisplayName("Should retrieve statements of an account from the statement store")
+    void shouldGetStatementsSuccessfully() {
+        Statement statement = new Statement("statement1", "account456", 1L, LocalDateTime.now(), 1000L, 1000L);
+        when(statementRepository.findByAccountIdOrderBySequenceAsc("account456")).thenReturn(List.of(statement));
+
+        List<Statement> result = accountService.getStatements("account456");
+
+        assertThat(result).containsExactly(statement);
+        verify(accountRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should read archived statements before the statements of the statement store")
+    void shouldGetArchivedStatementsBeforeHotStatements() {
+        when(statementRepository.findByAccountIdOrderBySequenceAsc("account456"))
+                .thenReturn(List.of(statement(3), statement(4)));
+        when(statementArchiveService.getArchivedStatements("account456", 3L))
+                .thenReturn(new ArrayList<>(List.of(statement(1), statement(2))));
+
+        List<Statement> result = accountService.getStatements("account456");
+
+        assertThat(result).extracting(Statement::sequence).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should throw AccountNotFoundException before opening an export cursor on non-existent account")
+    void shouldThrowAccountNotFoundExceptionWhenStreamingNonExistentAccount() {
+        when(accountRepository.existsById("nonExistentAccount")).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class, () -> accountService.streamStatements("nonExistentAccount"));
+        verifyNoInteractions(statementRepository);
+    }
+
+    @Test
+    @DisplayName("Should return first statement page with a cursor when more statements remain")
+    void shouldGetFirstStatementPageWithNextCursor() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        when(statementRepository.findByAccountIdAndSequenceLessThanOrderBySequenceDesc("account456", Long.MAX_VALUE,
+                Limit.of(3))).thenReturn(List.of(statement(10), statement(9), statement(8)));
+
+        StatementPageDto page = accountService.getStatementPage("account456", 2, null);
+
+        assertThat(page.statements()).hasSize(2);
+        assertThat(page.statements().get(0).balance()).isEqualByComparingTo("10");
+        assertThat(page.nextCursor()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should seek the next statement page from the cursor")
+    void shouldSeekNextStatementPageFromCursor() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        when(statementRepository.findByAccountIdAndSequenceLessThanOrderBySequenceDesc(eq("account456"),
+                anyLong(), any(Limit.class))).thenReturn(List.of(statement(10), statement(9), statement(8)))
+                .thenReturn(List.of(statement(8), statement(7)));
+
+        String cursor = accountService.getStatementPage("account456", 2, null).nextCursor();
+        StatementPageDto page = accountService.getStatementPage("account456", 2, cursor);
+
+        assertThat(page.statements()).extracting(StatementDto::balance)
+                .containsExactly(new BigDecimal("8.00"), new BigDecimal("7.00"));
+        assertThat(page.nextCursor()).isNull();
+        verify(statementRepository).findByAccountIdAndSequenceLessThanOrderBySequenceDesc("account456", 9L,
+                Limit.of(3));
+    }
+
+    @Test
+    @DisplayName("Should complete the last statement page with archived statements")
+    void shouldCompleteStatementPageWithArchivedStatements() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        when(statementRepository.findByAccountIdAndSequenceLessThanOrderBySequenceDesc("account456", Long.MAX_VALUE,
+                Limit.of(3))).thenReturn(List.of(statement(10)));
+        when(statementArchiveService.getArchivedStatements("account456", 10L, 2))
+                .thenReturn(List.of(statement(9), statement(8)));
+
+        StatementPageDto page = accountService.getStatementPage("account456", 2, null);
+
+        assertThat(page.statements()).extracting(StatementDto::balance)
+                .containsExactly(new BigDecimal("10.00"), new BigDecimal("9.00"));
+        assertThat(page.nextCursor()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should search archived then recent statements of the period")
+    void shouldSearchArchivedThenRecentStatements() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        StatementFilter filter = new StatementFilter(LocalDateTime.of(2024, 3, 1, 0, 0),
+                LocalDateTime.of(2024, 3, 16, 0, 0), TransactionType.WITHDRAW, 1_000L, null);
+        when(statementArchiveService.getArchivedStatements("account456", filter)).thenReturn(List.of(statement(1)));
+        when(statementRepository.findByFilter("account456", filter, AccountService.MAX_SEARCH_SIZE))
+                .thenReturn(List.of(statement(2)));
+
+        List<StatementDto> result = accountService.searchStatements("account456", LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 15), TransactionType.WITHDRAW, BigDecimal.TEN, null);
+
+        assertThat(result).extracting(StatementDto::balance)
+                .containsExactly(new BigDecimal("1.00"), new BigDecimal("2.00"));
+    }
+
+    @Test
+    @DisplayName("Should refuse a search returning too many statements")
+    void shouldRefuseSearchReturningTooManyStatements() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        when(statementRepository.findByFilter(eq("account456"), any(StatementFilter.class),
+                eq(AccountService.MAX_SEARCH_SIZE + 1)))
+                .thenReturn(Collections.nCopies(AccountService.MAX_SEARCH_SIZE + 1, statement(1)));
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> accountService.searchStatements("account456", LocalDate.of(2020, 1, 1),
+                        LocalDate.of(2024, 12, 31), null, null, null));
+
+        assertThat(thrown.getMessage()).contains("narrow the period");
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when the search period is reversed")
+    void shouldThrowIllegalArgumentExceptionForReversedSearchPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.searchStatements("account456",
+                LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 1), null, null, null));
+        verifyNoInteractions(accountRepository, statementRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for an invalid statement cursor")
+    void shouldThrowIllegalArgumentExceptionForInvalidCursor() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> accountService.getStatementPage("account456", 2, "not-a-cursor"));
+
+        assertThat(thrown.getMessage()).contains("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for an invalid page size")
+    void shouldThrowIllegalArgumentExceptionForInvalidPageSize() {
+        assertThrows(IllegalArgumentException.class, () -> accountService.getStatementPage("account456", 0, null));
+        verifyNoInteractions(accountRepository, statementRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw AccountNotFoundException when paging statements of non-existent account")
+    void shouldThrowAccountNotFoundExceptionWhenPagingNonExistentAccount() {
+        when(accountRepository.existsById("nonExistentAccount")).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class,
+                () -> accountService.getStatementPage("nonExistentAccount", 2, null));
+        verifyNoInteractions(statementRepository);
+    }
+
     @Test
     @DisplayName("Should update account successfully")
     void shouldUpdateAccountSuccessfully() {
-        Account updatedAccount = new Account("account456", BigDecimal.valueOf(200), testClient, LocalDateTime.now(),
-                new ArrayList<>());
+        Account updatedAccount = new Account("account456", 20000L, testClient.id(), LocalDateTime.now(), 0L, 0L);
         when(accountRepository.save(any(Account.class))).thenReturn(updatedAccount);
 
         Account result = accountService.updateAcount(updatedAccount);
 
         assertThat(result).isEqualTo(updatedAccount);
         verify(accountRepository, times(1)).save(updatedAccount);
+        // le compte mis à jour est servi par le cache
+        assertThat(accountService.getAccountById("account456")).isEqualTo(updatedAccount);
+        verify(accountRepository, never()).findById("account456");
+    }
+
+    private static Statement statement(long sequence) {
+        return new Statement("statement" + sequence, "account456", sequence, LocalDateTime.now(), 100L,
+                sequence * 100);
     }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sg.bank_account_api.exceptions.AmountException;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.repository.AccountRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AccountTransactionEngineTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    // les traitements sont mis en attente et lancés explicitement par le test
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private AccountTransactionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new AccountTransactionEngine(accountRepository, tasks::add, 100);
+    }
+
+    @Test
+    @DisplayName("Should commit queued transactions of the same account in one write")
+    void shouldGroupCommitQueuedTransactions() {
+        when(accountRepository.applyTransactions(eq("account456"), eq("client123"), any(long[].class),
+                any(LocalDateTime.class))).thenReturn(Optional.of(List.of(statement(1, 10), statement(2, 30),
+                        statement(3, 25))));
+
+        CompletableFuture<Statement> first = engine.submit("account456", "client123", 1000L,
+                this::unexpected);
+        CompletableFuture<Statement> second = engine.submit("account456", "client123", 2000L,
+                this::unexpected);
+        CompletableFuture<Statement> third = engine.submit("account456", "client123", -500L,
+                this::unexpected);
+        runTasks();
+
+        assertThat(tasks).isEmpty();
+        assertThat(first.join().sequence()).isEqualTo(1L);
+        assertThat(second.join().sequence()).isEqualTo(2L);
+        assertThat(third.join().balance()).isEqualTo(25L);
+        verify(accountRepository, times(1)).applyTransactions(eq("account456"), eq("client123"),
+                aryEq(new long[] { 1000, 2000, -500 }),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should apply a lone transaction through its fallback")
+    void shouldApplyLoneTransactionThroughFallback() {
+        Statement expected = statement(1, 10);
+
+        Statement result = new AccountTransactionEngine(accountRepository, Runnable::run, 100)
+                .execute("account456", "client123", 1000L, () -> expected);
+
+        assertThat(result).isEqualTo(expected);
+        verify(accountRepository, never()).applyTransactions(any(), any(), any(long[].class), any());
+    }
+
+    @Test
+    @DisplayName("Should apply transactions one by one when the batch is refused")
+    void shouldFallBackOneByOneWhenBatchIsRefused() {
+        when(accountRepository.applyTransactions(eq("account456"), eq("client123"), any(long[].class),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        CompletableFuture<Statement> first = engine.submit("account456", "client123", 1000L,
+                () -> statement(1, 10));
+        CompletableFuture<Statement> second = engine.submit("account456", "client123", -5000L,
+                () -> {
+                    throw new AmountException("Amount must be > 0 and must be <= balance in the case of a withdrawal");
+                });
+        runTasks();
+
+        assertThat(first.join().balance()).isEqualTo(10L);
+        assertThat(second).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("Should not group transactions of different clients")
+    void shouldNotGroupTransactionsOfDifferentClients() {
+        AtomicInteger fallbacks = new AtomicInteger();
+
+        engine.submit("account456", "client123", 1000L, () -> statement(fallbacks.incrementAndGet(), 10));
+        engine.submit("account456", "intruder", 1000L, () -> statement(fallbacks.incrementAndGet(), 20));
+        engine.submit("account456", "client123", 1000L, () -> statement(fallbacks.incrementAndGet(), 30));
+        runTasks();
+
+        assertThat(fallbacks.get()).isEqualTo(3);
+        verify(accountRepository, never()).applyTransactions(any(), any(), any(long[].class), any());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the validation exception to the caller")
+    void shouldRethrowValidationException() {
+        AccountTransactionEngine syncEngine = new AccountTransactionEngine(accountRepository, Runnable::run, 100);
+
+        AmountException thrown = assertThrows(AmountException.class,
+                () -> syncEngine.execute("account456", "client123", 1000L, () -> {
+                    throw new AmountException("Amount must be > 0");
+                }));
+
+        assertThat(thrown.getMessage()).isEqualTo("Amount must be > 0");
+    }
+
+    @Test
+    @DisplayName("Should never run two transactions of the same account at the same time")
+    void shouldRunTransactionsOfAnAccountSerially() throws InterruptedException {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        AccountTransactionEngine concurrentEngine = new AccountTransactionEngine(accountRepository,
+                Executors.newVirtualThreadPerTaskExecutor(), 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int transactions = 200;
+        CountDownLatch done = new CountDownLatch(transactions);
+
+        for (int i = 0; i < transactions; i++) {
+            callers.execute(() -> {
+                concurrentEngine.execute("account456", "client123", 100L, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.yield();
+                    running.decrementAndGet();
+                    return statement(1, 1);
+                });
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+        callers.shutdown();
+        concurrentEngine.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fail queued transactions when the engine is shut down")
+    void shouldFailTransactionsWhenExecutorRejectsThem() {
+        AccountTransactionEngine stoppedEngine = new AccountTransactionEngine(accountRepository, task -> {
+            throw new RejectedExecutionException("engine stopped");
+        }, 100);
+
+        CompletableFuture<Statement> result = stoppedEngine.submit("account456", "client123", 1000L,
+                this::unexpected);
+
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertThat(thrown.getCause()).isInstanceOf(RejectedExecutionException.class);
+        assertThrows(RejectedExecutionException.class,
+                () -> stoppedEngine.execute("account456", "client123", 1000L, this::unexpected));
+    }
+
+    @Test
+    @DisplayName("Should fail queued transactions and accept new ones after an error")
+    void shouldFailQueuedTransactionsAfterError() {
+        CompletableFuture<Statement> failing = engine.submit("account456", "client123", 1000L, () -> {
+            throw new StackOverflowError();
+        });
+        CompletableFuture<Statement> queued = engine.submit("account456", "client456", 2000L,
+                this::unexpected);
+
+        assertThrows(StackOverflowError.class, this::runTasks);
+
+        assertThat(failing).isCompletedExceptionally();
+        assertThat(queued).isCompletedExceptionally();
+        Statement expected = statement(1, 10);
+        CompletableFuture<Statement> next = engine.submit("account456", "client123", 1000L, () -> expected);
+        runTasks();
+        assertThat(next.join()).isEqualTo(expected);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.removeFirst().run();
+        }
+    }
+
+    private Statement unexpected() {
+        throw new AssertionError("Transaction should have been committed with its batch");
+    }
+
+    private static Statement statement(long sequence, long balance) {
+        return new Statement("statement" + sequence, "account456", sequence, LocalDateTime.now(), 100L, balance);
+    }
+}
@@ -3,32 +3,48 @@ package com.sg.bank_account_api.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
 
+import com.sg.bank_account_api.dto.ClientPageDto;
 import com.sg.bank_account_api.dto.CreateClientDto;
 import com.sg.bank_account_api.exceptions.AmountException;
 import com.sg.bank_account_api.model.Client;
 import com.sg.bank_account_api.repository.ClientRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
 
 @ExtendWith(MockitoExtension.class)
 class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @Spy
+    private DtoMapper mapper = new DtoMapper();
+
     @InjectMocks
     private ClientService clientService;
 
@@ -87,6 +103,23 @@ class ClientServiceTest {
         verify(clientRepository, never()).save(any(Client.class));
     }
 
+    @Test
+    @DisplayName("Should prepare client with an identifier without saving it")
+    void shouldPrepareClientWithoutSavingIt() {
+        Client result = clientService.prepareClient(createClientDto);
+
+        assertThat(result.id()).isNotBlank();
+        assertThat(result.lastname()).isEqualTo("Doe");
+        assertThat(result.firstname()).isEqualTo("John");
+        verify(clientRepository, never()).save(any(Client.class));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when preparing client with blank lastname")
+    void shouldThrowIllegalArgumentExceptionWhenPrepareClientWithBlankLastname() {
+        assertThrows(IllegalArgumentException.class, () -> clientService.prepareClient(new CreateClientDto("", "John")));
+    }
+
     @Test
     @DisplayName("Should retrieve client by ID successfully")
     void shouldGetClientByIdSuccessfully() {
@@ -98,6 +131,31 @@ class ClientServiceTest {
         verify(clientRepository, times(1)).findById("client123");
     }
 
+    @Test
+    @DisplayName("Should serve repeated client reads from the cache")
+    void shouldServeRepeatedClientReadsFromCache() {
+        when(clientRepository.findById("client123")).thenReturn(Optional.of(savedClient));
+
+        clientService.getClientById("client123");
+        Client result = clientService.getClientById("client123");
+
+        assertThat(result).isEqualTo(savedClient);
+        verify(clientRepository, times(1)).findById("client123");
+    }
+
+    @Test
+    @DisplayName("Should read clients from the repository when the cache is disabled")
+    void shouldReadClientsFromRepositoryWhenCacheIsDisabled() {
+        ClientService uncachedService = new ClientService(clientRepository, new NoOpCacheManager(),
+                new DtoMapper());
+        when(clientRepository.findById("client123")).thenReturn(Optional.of(savedClient));
+
+        uncachedService.getClientById("client123");
+        uncachedService.getClientById("client123");
+
+        verify(clientRepository, times(2)).findById("client123");
+    }
+
     @Test
     @DisplayName("Should throw AmountException when client by ID not found")
     void shouldThrowAmountExceptionWhenGetClientByIdNotFound() {
@@ -109,4 +167,51 @@ class ClientServiceTest {
         assertThat(thrown.getMessage()).contains("Client not found for ID : nonExistentClient");
         verify(clientRepository, times(1)).findById("nonExistentClient");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should search clients by normalized prefixes and return the cursor of the next page")
+    void shouldSearchClientsByNormalizedPrefixes() {
+        Client first = new Client("client1", "Dupont", "Élodie", LocalDateTime.now());
+        Client second = new Client("client2", "Dupré", "Jean", LocalDateTime.now());
+        when(clientRepository.findBySearchKeyPrefix("dup", "", null, 2))
+                .thenReturn(List.of(first, second));
+
+        ClientPageDto page = clientService.searchClients(" DÛP ", null, 1, null);
+
+        assertThat(page.clients()).extracting("id").containsExactly("client1");
+        assertThat(page.nextCursor()).isNotNull();
+
+        clientService.searchClients("dup", null, 1, page.nextCursor());
+
+        ArgumentCaptor<Client> after = ArgumentCaptor.forClass(Client.class);
+        verify(clientRepository, times(2)).findBySearchKeyPrefix(eq("dup"), eq(""), after.capture(), eq(2));
+        assertThat(after.getValue().id()).isEqualTo("client1");
+        assertThat(after.getValue().searchKey()).isEqualTo(new Client.SearchKey("dupont", "elodie"));
+    }
+
+    @Test
+    @DisplayName("Should return the last page without cursor")
+    void shouldReturnLastPageWithoutCursor() {
+        when(clientRepository.findBySearchKeyPrefix("", "jean", null, 21)).thenReturn(List.of(savedClient));
+
+        ClientPageDto page = clientService.searchClients(null, "Jean", 20, null);
+
+        assertThat(page.clients()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when searching clients without name")
+    void shouldThrowIllegalArgumentExceptionWhenSearchingWithoutName() {
+        assertThrows(IllegalArgumentException.class, () -> clientService.searchClients(" ", null, 20, null));
+        verify(clientRepository, never()).findBySearchKeyPrefix(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for an invalid client cursor")
+    void shouldThrowIllegalArgumentExceptionForInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> clientService.searchClients("doe", null, 20, "%%%"));
+        assertThrows(IllegalArgumentException.class, () -> clientService.searchClients("doe", null, 20, "ZG9l"));
+        verify(clientRepository, never()).findBySearchKeyPrefix(any(), any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,196 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.exceptions.AmountException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.exceptions.IdempotencyKeyException;
+import com.sg.bank_account_api.model.IdempotencyRecord;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.repository.IdempotencyRepository;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    private IdempotencyService idempotencyService;
+
+    private final CreateTransactionDto deposit = new CreateTransactionDto("client123", "account456",
+            new BigDecimal("10.00"));
+    private final StatementDto statement = new StatementDto(LocalDateTime.now(), new BigDecimal("10.00"),
+            new BigDecimal("60.00"));
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRepository, Duration.ofHours(24),
+                Duration.ofMillis(100), 1_000);
+    }
+
+    @Test
+    @DisplayName("Should execute a transaction once and return the stored result on retry")
+    void shouldExecuteOnceAndReturnResultOnRetry() {
+        when(idempotencyRepository.findById("key-1")).thenReturn(Optional.empty());
+        AtomicInteger executions = new AtomicInteger();
+
+        StatementDto first = idempotencyService.execute("key-1", deposit, TransactionType.DEPOSIT, () -> {
+            executions.incrementAndGet();
+            return statement;
+        });
+        StatementDto retry = idempotencyService.execute("key-1", deposit, TransactionType.DEPOSIT, () -> {
+            executions.incrementAndGet();
+            return statement;
+        });
+
+        assertThat(first).isEqualTo(statement);
+        assertThat(retry).isEqualTo(statement);
+        assertThat(executions.get()).isEqualTo(1);
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRepository).save(saved.capture());
+        assertThat(saved.getValue().response()).isEqualTo(statement);
+    }
+
+    @Test
+    @DisplayName("Should return the result stored in MongoDB without executing the transaction")
+    void shouldReturnStoredResultWithoutExecuting() {
+        when(idempotencyRepository.findById("key-1")).thenReturn(Optional.of(new IdempotencyRecord("key-1",
+                IdempotencyService.fingerprint(deposit, TransactionType.DEPOSIT), statement,
+                LocalDateTime.now().plusHours(1))));
+
+        StatementDto result = idempotencyService.execute("key-1", deposit, TransactionType.DEPOSIT, () -> {
+            throw new AssertionError("Transaction should not be executed twice");
+        });
+
+        assertThat(result).isEqualTo(statement);
+        verify(idempotencyRepository, never()).insert(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should throw IdempotencyKeyException when a key is reused for another request")
+    void shouldRejectKeyReusedForAnotherRequest() {
+        when(idempotencyRepository.findById("key-1")).thenReturn(Optional.empty());
+        idempotencyService.execute("key-1", deposit, TransactionType.DEPOSIT, () -> statement);
+
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute("key-1", deposit, TransactionType.WITHDRAW, () -> statement));
+    }
+
+    @Test
+    @DisplayName("Should release the key when the transaction fails")
+    void shouldReleaseKeyWhenTransactionFails() {
+        when(idempotencyRepository.findById("key-1")).thenReturn(Optional.empty());
+
+        assertThrows(AmountException.class, () -> idempotencyService.execute("key-1", deposit,
+                TransactionType.DEPOSIT, () -> {
+                    throw new AmountException("Amount must be > 0");
+                }));
+        StatementDto retry = idempotencyService.execute("key-1", deposit, TransactionType.DEPOSIT, () -> statement);
+
+        assertThat(retry).isEqualTo(statement);
+        verify(idempotencyRepository).deleteById("key-1");
+    }
+
+    @Test
+    @DisplayName("Should keep the key reserved when the outcome of the transaction is unknown")
+    void shouldKeepKeyWhenOutcomeIsUnknown() {
+        IdempotencyRecord reserved = new IdempotencyRecord("key-1",
+                IdempotencyService.fingerprint(deposit, TransactionType.DEPOSIT), null,
+                LocalDateTime.now().plusHours(1));
+        when(idempotencyRepository.findById("key-1")).thenReturn(Optional.empty(), Optional.of(reserved));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> idempotencyService.execute("key-1", deposit,
+                TransactionType.DEPOSIT, () -> {
+                    throw new DataAccessResourceFailureException("statements insert failed");
+                }));
+
+        // la nouvelle tentative ne doit pas appliquer le dépôt une seconde fois
+        assertThrows(ConcurrentUpdateException.class,
+                () -> idempotencyService.execute("key-1", deposit, TransactionType.DEPOSIT, () -> statement));
+        verify(idempotencyRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Should make concurrent duplicates wait for the first request")
+    void shouldMakeConcurrentDuplicatesWait() throws Exception {
+        when(idempotencyRepository.findById("key-1")).thenReturn(Optional.empty());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        CompletableFuture<StatementDto> first = CompletableFuture.supplyAsync(() -> idempotencyService.execute(
+                "key-1", deposit, TransactionType.DEPOSIT, () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return statement;
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<StatementDto> duplicate = CompletableFuture.supplyAsync(() -> idempotencyService.execute(
+                "key-1", deposit, TransactionType.DEPOSIT, () -> {
+                    executions.incrementAndGet();
+                    return statement;
+                }));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(statement);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(statement);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give up waiting for a request in progress on another instance")
+    void shouldGiveUpWaitingForRequestInProgressElsewhere() {
+        IdempotencyRecord reserved = new IdempotencyRecord("key-1",
+                IdempotencyService.fingerprint(deposit, TransactionType.DEPOSIT), null,
+                LocalDateTime.now().plusHours(1));
+        when(idempotencyRepository.findById("key-1")).thenReturn(Optional.empty(), Optional.of(reserved));
+        when(idempotencyRepository.insert(any(IdempotencyRecord.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThrows(ConcurrentUpdateException.class,
+                () -> idempotencyService.execute("key-1", deposit, TransactionType.DEPOSIT, () -> statement));
+        verify(idempotencyRepository, times(1)).insert(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for a blank key")
+    void shouldRejectBlankKey() {
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute(" ", deposit, TransactionType.DEPOSIT, () -> statement));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
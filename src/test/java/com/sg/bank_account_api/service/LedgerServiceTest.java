@@ -0,0 +1,218 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sg.bank_account_api.exceptions.AccountNotFoundException;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Rollup;
+import com.sg.bank_account_api.model.Snapshot;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.RollupRepository;
+import com.sg.bank_account_api.repository.SnapshotRepository;
+import com.sg.bank_account_api.repository.StatementRepository;
+import com.sg.bank_account_api.service.ILedgerService.CheckReport;
+import com.sg.bank_account_api.service.ILedgerService.RebuildReport;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private StatementRepository statementRepository;
+
+    @Mock
+    private StatementArchiveService statementArchiveService;
+
+    @Mock
+    private SnapshotRepository snapshotRepository;
+
+    @Mock
+    private RollupRepository rollupRepository;
+
+    private LedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new LedgerService(accountRepository, statementRepository, statementArchiveService,
+                snapshotRepository, rollupRepository, 2, 4);
+    }
+
+    @Test
+    @DisplayName("Should compute the current balance from the last snapshot and the following statements")
+    void shouldComputeCurrentStateFromSnapshotAndTail() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account456"))
+                .thenReturn(Optional.of(Snapshot.of("account456", 4L, 10_000L, LocalDateTime.now())));
+        when(statementRepository.streamByAccountIdAndSequenceGreaterThanOrderBySequenceAsc("account456", 4L))
+                .thenReturn(Stream.of(statement(5, 500, 10_500), statement(6, -2_000, 8_500)));
+
+        Snapshot state = ledgerService.getCurrentState("account456");
+
+        assertThat(state.sequence()).isEqualTo(6L);
+        assertThat(state.balance()).isEqualTo(8_500L);
+    }
+
+    @Test
+    @DisplayName("Should replay the whole history when the account has no snapshot")
+    void shouldReplayWholeHistoryWithoutSnapshot() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account456")).thenReturn(Optional.empty());
+        when(statementRepository.streamByAccountIdAndSequenceGreaterThanOrderBySequenceAsc("account456", 0L))
+                .thenReturn(Stream.of(statement(1, 1_000, 1_000)));
+
+        assertThat(ledgerService.getCurrentState("account456").balance()).isEqualTo(1_000L);
+    }
+
+    @Test
+    @DisplayName("Should throw AccountNotFoundException for an unknown account")
+    void shouldThrowAccountNotFoundForUnknownAccount() {
+        when(accountRepository.existsById("unknown")).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class, () -> ledgerService.getCurrentState("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should rewrite snapshots and leave a consistent account untouched")
+    @SuppressWarnings("unchecked")
+    void shouldRewriteSnapshotsOfConsistentAccount() {
+        when(accountRepository.findById("account456"))
+                .thenReturn(Optional.of(new Account("account456", 500L, null, LocalDateTime.now(), 5L, 5L)));
+        when(statementArchiveService.streamStatements("account456"))
+                .thenReturn(LongStream.rangeClosed(1, 5).mapToObj(i -> statement(i, 100, i * 100)));
+
+        RebuildReport report = ledgerService.rebuildAccount("account456");
+
+        ArgumentCaptor<List<Snapshot>> snapshots = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(snapshots.capture());
+        assertThat(snapshots.getValue()).extracting(Snapshot::sequence).containsExactly(2L, 4L);
+        assertThat(snapshots.getValue()).extracting(Snapshot::balance).containsExactly(200L, 400L);
+        assertThat(report).isEqualTo(new RebuildReport(1, 5, 0, 0));
+        verify(accountRepository, never()).resetBalance(anyString(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should rewrite the daily and monthly rollups of the account")
+    @SuppressWarnings("unchecked")
+    void shouldRewriteRollups() {
+        LocalDateTime march = LocalDateTime.of(2024, 3, 31, 23, 0);
+        when(accountRepository.findById("account456"))
+                .thenReturn(Optional.of(new Account("account456", 1_300L, null, march, 3L, 3L)));
+        when(statementArchiveService.streamStatements("account456")).thenReturn(Stream.of(
+                new Statement(null, "account456", 1L, march, 1_000L, 1_000L),
+                new Statement(null, "account456", 2L, march, 500L, 1_500L),
+                new Statement(null, "account456", 3L, march.plusHours(2), -200L, 1_300L)));
+
+        ledgerService.rebuildAccount("account456");
+
+        ArgumentCaptor<Collection<Rollup>> rollups = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository).saveAll(rollups.capture());
+        assertThat(rollups.getValue()).extracting(Rollup::period)
+                .containsExactlyInAnyOrder("2024-03-31", "2024-03", "2024-04-01", "2024-04");
+        Rollup marchRollup = rollups.getValue().stream().filter(rollup -> rollup.period().equals("2024-03"))
+                .findFirst().orElseThrow();
+        assertThat(marchRollup.count()).isEqualTo(2L);
+        assertThat(marchRollup.deposits()).isEqualTo(1_500L);
+        assertThat(marchRollup.closing().balance()).isEqualTo(1_500L);
+    }
+
+    @Test
+    @DisplayName("Should realign the account balance on its history")
+    void shouldRealignAccountBalanceOnHistory() {
+        // le solde du compte ne correspond plus à ses opérations
+        when(accountRepository.findById("account456"))
+                .thenReturn(Optional.of(new Account("account456", 1_500L, null, LocalDateTime.now(), 1L, 7L)));
+        when(statementArchiveService.streamStatements("account456"))
+                .thenReturn(Stream.of(statement(1, 1_000, 1_000)));
+        when(accountRepository.resetBalance("account456", 7L, 1_000L, 1L)).thenReturn(true);
+
+        RebuildReport report = ledgerService.rebuildAccount("account456");
+
+        assertThat(report).isEqualTo(new RebuildReport(1, 1, 1, 0));
+    }
+
+    @Test
+    @DisplayName("Should not realign an account ahead of its history")
+    void shouldNotRealignAccountAheadOfHistory() {
+        // la dernière opération est en cours d'insertion
+        when(accountRepository.findById("account456"))
+                .thenReturn(Optional.of(new Account("account456", 1_500L, null, LocalDateTime.now(), 2L, 7L)));
+        when(statementArchiveService.streamStatements("account456"))
+                .thenReturn(Stream.of(statement(1, 1_000, 1_000)));
+
+        RebuildReport report = ledgerService.rebuildAccount("account456");
+
+        assertThat(report).isEqualTo(new RebuildReport(1, 1, 0, 1));
+        verify(accountRepository, never()).resetBalance(anyString(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should rebuild every account and count the failures")
+    void shouldRebuildEveryAccount() {
+        when(accountRepository.streamIdsBy()).thenReturn(Stream.of(id("account1"), id("account2"), id("missing")));
+        when(accountRepository.findById(any())).thenReturn(Optional.empty());
+        when(accountRepository.findById("account1"))
+                .thenReturn(Optional.of(new Account("account1", 100L, null, LocalDateTime.now(), 1L, 1L)));
+        when(accountRepository.findById("account2"))
+                .thenReturn(Optional.of(new Account("account2", 0L, null, LocalDateTime.now(), 0L, 0L)));
+        when(statementArchiveService.streamStatements("account1"))
+                .thenReturn(Stream.of(statement(1, 100, 100)));
+        when(statementArchiveService.streamStatements("account2")).thenReturn(Stream.empty());
+
+        RebuildReport report = ledgerService.rebuild();
+
+        assertThat(report).isEqualTo(new RebuildReport(3, 1, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Should check every account against its last snapshot and the following statements")
+    void shouldCheckEveryAccount() {
+        when(accountRepository.streamIdsBy()).thenReturn(Stream.of(id("account1"), id("account2")));
+        when(accountRepository.existsById(anyString())).thenReturn(true);
+        when(accountRepository.findById("account1"))
+                .thenReturn(Optional.of(new Account("account1", 100L, null, LocalDateTime.now(), 1L, 1L)));
+        when(accountRepository.findById("account2"))
+                .thenReturn(Optional.of(new Account("account2", 500L, null, LocalDateTime.now(), 1L, 1L)));
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc(anyString())).thenReturn(Optional.empty());
+        when(statementRepository.streamByAccountIdAndSequenceGreaterThanOrderBySequenceAsc("account1", 0L))
+                .thenReturn(Stream.of(statement(1, 100, 100)));
+        when(statementRepository.streamByAccountIdAndSequenceGreaterThanOrderBySequenceAsc("account2", 0L))
+                .thenAnswer(invocation -> Stream.of(statement(1, 100, 100)));
+
+        CheckReport report = ledgerService.check();
+
+        assertThat(report).isEqualTo(new CheckReport(2, 1));
+        verify(accountRepository, never()).resetBalance(anyString(), anyLong(), anyLong(), anyLong());
+    }
+
+    private static Account id(String accountId) {
+        return new Account(accountId, 0L, null, null, 0L, null);
+    }
+
+    private static Statement statement(long sequence, long amount, long balance) {
+        return new Statement("statement" + sequence, "account456", sequence, LocalDateTime.now(), amount, balance);
+    }
+}
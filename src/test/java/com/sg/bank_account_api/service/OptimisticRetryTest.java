@@ -0,0 +1,114 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import com.sg.bank_account_api.exceptions.AmountException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class OptimisticRetryTest {
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticRetry optimisticRetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        optimisticRetry = new OptimisticRetry(meterRegistry, 3, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Should return the first result without conflict")
+    void shouldReturnFirstResultWithoutConflict() {
+        String result = optimisticRetry.execute("deposit", "account456", () -> Optional.of("done"));
+
+        assertThat(result).isEqualTo("done");
+        assertThat(meterRegistry.find(OptimisticRetry.CONFLICTS).counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should retry after a version conflict")
+    void shouldRetryAfterVersionConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.execute("withdraw", "account456", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return Optional.of("done");
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter(OptimisticRetry.CONFLICTS, "endpoint", "withdraw").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(OptimisticRetry.RETRIES, "endpoint", "withdraw").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum number of attempts")
+    void shouldGiveUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        ConcurrentUpdateException thrown = assertThrows(ConcurrentUpdateException.class,
+                () -> optimisticRetry.execute("deposit", "account456", () -> {
+                    attempts.incrementAndGet();
+                    return Optional.empty();
+                }));
+
+        assertThat(thrown.getMessage()).contains("account456");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter(OptimisticRetry.RETRIES, "endpoint", "deposit").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter(OptimisticRetry.GIVE_UPS, "endpoint", "deposit").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not retry on validation errors")
+    void shouldNotRetryOnValidationErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(AmountException.class, () -> optimisticRetry.execute("deposit", "account456", () -> {
+            attempts.incrementAndGet();
+            throw new AmountException("Amount must be > 0");
+        }));
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should retry a reactive attempt that completes without result")
+    void shouldRetryReactiveAttemptWithoutResult() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticRetry.executeReactive("deposit", "account456",
+                () -> attempts.incrementAndGet() == 1 ? Mono.<String>empty() : Mono.just("done")).block();
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(meterRegistry.counter(OptimisticRetry.RETRIES, "endpoint", "deposit").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should give up a reactive attempt after the maximum number of attempts")
+    void shouldGiveUpReactiveAttemptAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> result = optimisticRetry.executeReactive("withdraw", "account456",
+                () -> Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(new OptimisticLockingFailureException("stale version"));
+                }));
+
+        assertThrows(ConcurrentUpdateException.class, result::block);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter(OptimisticRetry.GIVE_UPS, "endpoint", "withdraw").count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,216 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.sg.bank_account_api.dto.CreateClientDto;
+import com.sg.bank_account_api.dto.CreateTransactionDto;
+import com.sg.bank_account_api.dto.CreatedAccountDto;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.exceptions.AccountNotFoundException;
+import com.sg.bank_account_api.exceptions.AmountException;
+import com.sg.bank_account_api.exceptions.ClientNotFoundException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.TransactionType;
+import com.sg.bank_account_api.repository.ClientRepository;
+import com.sg.bank_account_api.repository.ReactiveAccountRepository;
+import com.sg.bank_account_api.repository.ReactiveClientRepository;
+import com.sg.bank_account_api.repository.ReactiveStatementRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAccountServiceTest {
+    @Mock
+    private ReactiveAccountRepository accountRepository;
+
+    @Mock
+    private ReactiveStatementRepository statementRepository;
+
+    @Mock
+    private ReactiveClientRepository clientRepository;
+
+    @Mock
+    private ClientRepository blockingClientRepository;
+
+    @Mock
+    private StatementArchiveService statementArchiveService;
+
+    private ReactiveAccountService accountService;
+
+    private Client testClient;
+    private Account testAccount;
+
+    @BeforeEach
+    void setUp() {
+        ClientService clientService = new ClientService(blockingClientRepository, new ConcurrentMapCacheManager(),
+                new DtoMapper());
+        OptimisticRetry optimisticRetry = new OptimisticRetry(new SimpleMeterRegistry(), 3, 0, 0);
+        accountService = new ReactiveAccountService(accountRepository, statementRepository, clientRepository,
+                statementArchiveService, clientService, new DtoMapper(), optimisticRetry);
+
+        testClient = new Client("client123", "Doe", "John", LocalDateTime.now());
+        testAccount = new Account("account456", 10000L, testClient.id(), LocalDateTime.now(), 0L, 0L);
+    }
+
+    @Test
+    @DisplayName("Should create client and account without blocking repositories")
+    void shouldCreateClientAndAccount() {
+        when(clientRepository.insert(any(Client.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
+            Account account = invocation.getArgument(0);
+            return Mono.just(new Account("account456", account.balance(), account.clientId(), account.date(), 0L, 0L));
+        });
+
+        CreatedAccountDto created = accountService.createAccount(new CreateClientDto("Doe", "John")).block();
+
+        assertThat(created.accountId()).isEqualTo("account456");
+        assertThat(created.clientId()).isNotNull();
+        verify(blockingClientRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid client before any write")
+    void shouldRejectInvalidClientBeforeAnyWrite() {
+        Mono<CreatedAccountDto> created = accountService.createAccount(new CreateClientDto("", ""));
+
+        assertThrows(IllegalArgumentException.class, created::block);
+        verify(clientRepository, never()).insert(any(Client.class));
+    }
+
+    @Test
+    @DisplayName("Should perform a withdrawal through the conditional update")
+    void shouldPerformWithdrawal() {
+        Statement statement = new Statement("statement1", "account456", 1L, LocalDateTime.now(),
+                -4000L, 6000L);
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(-4000L),
+                any(LocalDateTime.class))).thenReturn(Mono.just(statement));
+
+        StatementDto result = accountService.performTransaction(
+                new CreateTransactionDto("client123", "account456", BigDecimal.valueOf(40)), TransactionType.WITHDRAW)
+                .block();
+
+        assertThat(result.balance()).isEqualByComparingTo("60");
+        verify(accountRepository, never()).findById(any(String.class));
+    }
+
+    @Test
+    @DisplayName("Should apply the shared amount rule before reading the account")
+    void shouldRejectNonPositiveAmount() {
+        Mono<StatementDto> result = accountService.performTransaction(
+                new CreateTransactionDto("client123", "account456", BigDecimal.ZERO), TransactionType.DEPOSIT);
+
+        assertThrows(AmountException.class, result::block);
+        verify(accountRepository, never()).applyTransaction(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should explain a refused withdrawal by an insufficient balance")
+    void shouldExplainInsufficientBalance() {
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(-50000L),
+                any(LocalDateTime.class))).thenReturn(Mono.empty());
+        when(accountRepository.findById("account456")).thenReturn(Mono.just(testAccount));
+
+        Mono<StatementDto> result = accountService.performTransaction(
+                new CreateTransactionDto("client123", "account456", BigDecimal.valueOf(500)), TransactionType.WITHDRAW);
+
+        assertThrows(AmountException.class, result::block);
+    }
+
+    @Test
+    @DisplayName("Should explain a refused transaction by the wrong client")
+    void shouldExplainWrongClient() {
+        when(accountRepository.applyTransaction(eq("account456"), eq("intruder"), eq(1000L),
+                any(LocalDateTime.class))).thenReturn(Mono.empty());
+        when(accountRepository.findById("account456")).thenReturn(Mono.just(testAccount));
+
+        Mono<StatementDto> result = accountService.performTransaction(
+                new CreateTransactionDto("intruder", "account456", BigDecimal.TEN), TransactionType.DEPOSIT);
+
+        assertThrows(ClientNotFoundException.class, result::block);
+    }
+
+    @Test
+    @DisplayName("Should retry then give up when the account keeps changing")
+    void shouldGiveUpWhenAccountKeepsChanging() {
+        when(accountRepository.applyTransaction(eq("account456"), eq("client123"), eq(1000L),
+                any(LocalDateTime.class))).thenReturn(Mono.empty());
+        when(accountRepository.findById("account456")).thenReturn(Mono.just(testAccount));
+
+        Mono<StatementDto> result = accountService.performTransaction(
+                new CreateTransactionDto("client123", "account456", BigDecimal.TEN), TransactionType.DEPOSIT);
+
+        assertThrows(ConcurrentUpdateException.class, result::block);
+        verify(accountRepository, times(3)).findById("account456");
+    }
+
+    @Test
+    @DisplayName("Should throw AccountNotFoundException when account by ID not found")
+    void shouldThrowAccountNotFoundException() {
+        when(accountRepository.findById("nonExistentAccount")).thenReturn(Mono.empty());
+
+        AccountNotFoundException thrown = assertThrows(AccountNotFoundException.class,
+                () -> accountService.getAccountById("nonExistentAccount").block());
+
+        assertThat(thrown.getMessage()).isEqualTo("Account not found for ID : nonExistentAccount");
+    }
+
+    @Test
+    @DisplayName("Should throw ClientNotFoundException when client by ID not found")
+    void shouldThrowClientNotFoundException() {
+        when(clientRepository.findById("unknown")).thenReturn(Mono.empty());
+
+        assertThrows(ClientNotFoundException.class, () -> accountService.getClientById("unknown").block());
+    }
+
+    @Test
+    @DisplayName("Should stream statements in sequence order")
+    void shouldStreamStatements() {
+        Statement first = new Statement("statement1", "account456", 1L, LocalDateTime.now(), 1000L, 1000L);
+        Statement second = new Statement("statement2", "account456", 2L, LocalDateTime.now(), 100L, 1100L);
+        when(statementRepository.findByAccountIdOrderBySequenceAsc("account456")).thenReturn(Flux.just(first, second));
+        when(statementArchiveService.getArchivedStatements("account456", 1L)).thenReturn(List.of());
+
+        List<Statement> statements = accountService.getStatements("account456").collectList().block();
+
+        assertThat(statements).containsExactly(first, second);
+    }
+
+    @Test
+    @DisplayName("Should prepend archived statements to recent ones")
+    void shouldPrependArchivedStatements() {
+        Statement archived = new Statement("statement1", "account456", 1L, LocalDateTime.now(), 1000L, 1000L);
+        Statement recent = new Statement("statement2", "account456", 2L, LocalDateTime.now(), 100L, 1100L);
+        when(statementRepository.findByAccountIdOrderBySequenceAsc("account456")).thenReturn(Flux.just(recent));
+        when(statementArchiveService.getArchivedStatements("account456", 2L)).thenReturn(List.of(archived));
+
+        List<Statement> statements = accountService.getStatements("account456").collectList().block();
+
+        assertThat(statements).containsExactly(archived, recent);
+    }
+}
@@ -0,0 +1,101 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Range;
+
+import com.sg.bank_account_api.dto.RollupDto;
+import com.sg.bank_account_api.exceptions.AccountNotFoundException;
+import com.sg.bank_account_api.model.Rollup;
+import com.sg.bank_account_api.model.RollupGranularity;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.RollupRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+@ExtendWith(MockitoExtension.class)
+class RollupServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private RollupRepository rollupRepository;
+
+    private RollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new RollupService(accountRepository, rollupRepository, new DtoMapper());
+    }
+
+    @Test
+    @DisplayName("Should read the monthly rollups of the requested months")
+    @SuppressWarnings("unchecked")
+    void shouldReadMonthlyRollupsOfRequestedMonths() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+        when(rollupRepository.findByAccountIdAndGranularityAndPeriodBetweenOrderByPeriodAsc(eq("account456"),
+                eq(RollupGranularity.MONTH), any(Range.class)))
+                .thenReturn(List.of(new Rollup("account456:2024-01", "account456", RollupGranularity.MONTH,
+                        "2024-01", 3L, 15_000L, 2_050L, new Rollup.Closing(12L, 12_950L))));
+
+        List<RollupDto> rollups = rollupService.getRollups("account456", RollupGranularity.MONTH,
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 12, 31));
+
+        ArgumentCaptor<Range<String>> periods = ArgumentCaptor.forClass(Range.class);
+        verify(rollupRepository).findByAccountIdAndGranularityAndPeriodBetweenOrderByPeriodAsc(eq("account456"),
+                eq(RollupGranularity.MONTH), periods.capture());
+        assertThat(periods.getValue().getLowerBound().getValue()).contains("2024-01");
+        assertThat(periods.getValue().getUpperBound().getValue()).contains("2024-12");
+        assertThat(rollups).containsExactly(new RollupDto("2024-01", 3L, new BigDecimal("150.00"),
+                new BigDecimal("20.50"), new BigDecimal("129.50")));
+    }
+
+    @Test
+    @DisplayName("Should read every daily rollup without dates")
+    @SuppressWarnings("unchecked")
+    void shouldReadEveryDailyRollupWithoutDates() {
+        when(accountRepository.existsById("account456")).thenReturn(true);
+
+        rollupService.getRollups("account456", RollupGranularity.DAY, null, null);
+
+        ArgumentCaptor<Range<String>> periods = ArgumentCaptor.forClass(Range.class);
+        verify(rollupRepository).findByAccountIdAndGranularityAndPeriodBetweenOrderByPeriodAsc(eq("account456"),
+                eq(RollupGranularity.DAY), periods.capture());
+        assertThat(periods.getValue().getLowerBound().isBounded()).isFalse();
+        assertThat(periods.getValue().getUpperBound().isBounded()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when the start date is after the end date")
+    void shouldThrowIllegalArgumentExceptionForReversedDates() {
+        assertThrows(IllegalArgumentException.class, () -> rollupService.getRollups("account456",
+                RollupGranularity.DAY, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+        verifyNoInteractions(accountRepository, rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw AccountNotFoundException for an unknown account")
+    void shouldThrowAccountNotFoundExceptionForUnknownAccount() {
+        when(accountRepository.existsById("unknown")).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class,
+                () -> rollupService.getRollups("unknown", RollupGranularity.MONTH, null, null));
+        verifyNoInteractions(rollupRepository);
+    }
+}
@@ -0,0 +1,208 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Range;
+
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Snapshot;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.StatementArchive;
+import com.sg.bank_account_api.model.StatementFilter;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.SnapshotRepository;
+import com.sg.bank_account_api.repository.StatementArchiveRepository;
+import com.sg.bank_account_api.repository.StatementRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class StatementArchiveServiceTest {
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2020, 1, 30, 10, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2020, 2, 1, 10, 0);
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private StatementRepository statementRepository;
+
+    @Mock
+    private StatementArchiveRepository statementArchiveRepository;
+
+    @Mock
+    private SnapshotRepository snapshotRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StatementArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archiveService = new StatementArchiveService(accountRepository, statementRepository,
+                statementArchiveRepository, snapshotRepository, 365, 2, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should archive the other accounts and count the failure when an account can't be archived")
+    void shouldCountArchiveFailures() {
+        when(accountRepository.streamIdsBy()).thenReturn(Stream.of(account("account123"), account("account456")));
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account123"))
+                .thenThrow(new DataAccessResourceFailureException("archive failed"));
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account456")).thenReturn(Optional.empty());
+        when(statementRepository.findFirstByAccountIdOrderBySequenceDesc("account456")).thenReturn(Optional.empty());
+
+        long archived = archiveService.archive();
+
+        assertThat(archived).isZero();
+        verify(snapshotRepository).findFirstByAccountIdOrderBySequenceDesc("account456");
+        assertThat(meterRegistry.counter(StatementArchiveService.ARCHIVE_FAILURES).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should move old statements into one archive per month and keep the recent ones")
+    void shouldArchiveOldStatementsByMonth() {
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account456"))
+                .thenReturn(Optional.of(Snapshot.of("account456", 4L, 400L, FEBRUARY)));
+        when(statementRepository.findFirstByAccountIdOrderBySequenceDesc("account456"))
+                .thenReturn(Optional.of(statement(6, FEBRUARY)));
+        when(statementRepository.streamByAccountIdAndSequenceLessThanEqualAndDateBeforeOrderBySequenceAsc(
+                eq("account456"), eq(4L), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(statement(1, JANUARY), statement(2, JANUARY), statement(3, FEBRUARY),
+                        statement(4, FEBRUARY)));
+
+        int archived = archiveService.archiveAccount("account456");
+
+        ArgumentCaptor<StatementArchive> archives = ArgumentCaptor.forClass(StatementArchive.class);
+        verify(statementArchiveRepository, times(2)).save(archives.capture());
+        assertThat(archived).isEqualTo(4);
+        assertThat(archives.getAllValues()).extracting(StatementArchive::month).containsExactly("2020-01", "2020-02");
+        assertThat(archives.getAllValues().get(1).statements()).extracting(Statement::sequence)
+                .containsExactly(3L, 4L);
+        verify(statementRepository).deleteByAccountIdAndSequenceBetween("account456", Range.closed(1L, 2L));
+        verify(statementRepository).deleteByAccountIdAndSequenceBetween("account456", Range.closed(3L, 4L));
+    }
+
+    @Test
+    @DisplayName("Should complete the archive of the same month")
+    void shouldCompleteArchiveOfSameMonth() {
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account456"))
+                .thenReturn(Optional.of(Snapshot.of("account456", 10L, 1_000L, FEBRUARY)));
+        when(statementRepository.findFirstByAccountIdOrderBySequenceDesc("account456"))
+                .thenReturn(Optional.of(statement(12, FEBRUARY)));
+        when(statementRepository.streamByAccountIdAndSequenceLessThanEqualAndDateBeforeOrderBySequenceAsc(
+                eq("account456"), eq(10L), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(statement(3, JANUARY)));
+        when(statementArchiveRepository.findFirstByAccountIdAndFirstSequenceLessThanOrderByFirstSequenceDesc(
+                "account456", 3L))
+                .thenReturn(Optional.of(StatementArchive.of("account456",
+                        List.of(statement(1, JANUARY), statement(2, JANUARY)))));
+
+        archiveService.archiveAccount("account456");
+
+        ArgumentCaptor<StatementArchive> archive = ArgumentCaptor.forClass(StatementArchive.class);
+        verify(statementArchiveRepository).save(archive.capture());
+        assertThat(archive.getValue().id()).isEqualTo("account456:1");
+        assertThat(archive.getValue().statements()).extracting(Statement::sequence).containsExactly(1L, 2L, 3L);
+        verify(statementRepository).deleteByAccountIdAndSequenceBetween("account456", Range.closed(3L, 3L));
+    }
+
+    @Test
+    @DisplayName("Should not archive an account without snapshot")
+    void shouldNotArchiveAccountWithoutSnapshot() {
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account456")).thenReturn(Optional.empty());
+
+        assertThat(archiveService.archiveAccount("account456")).isZero();
+        verify(statementRepository, never()).deleteByAccountIdAndSequenceBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not archive the most recent statements")
+    void shouldKeepMostRecentStatements() {
+        when(snapshotRepository.findFirstByAccountIdOrderBySequenceDesc("account456"))
+                .thenReturn(Optional.of(Snapshot.of("account456", 2L, 200L, JANUARY)));
+        when(statementRepository.findFirstByAccountIdOrderBySequenceDesc("account456"))
+                .thenReturn(Optional.of(statement(2, JANUARY)));
+
+        assertThat(archiveService.archiveAccount("account456")).isZero();
+        verify(statementRepository, never()).streamByAccountIdAndSequenceLessThanEqualAndDateBeforeOrderBySequenceAsc(
+                any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should stream archived statements then the statements of the statement store without duplicates")
+    void shouldStreamArchivedThenHotStatements() {
+        // le bloc a été enregistré mais l'opération 3 n'a pas encore été supprimée
+        when(statementRepository.findFirstByAccountIdOrderBySequenceAsc("account456"))
+                .thenReturn(Optional.of(statement(3, FEBRUARY)));
+        when(statementArchiveRepository.streamByAccountIdOrderByFirstSequenceAsc("account456"))
+                .thenReturn(Stream.of(StatementArchive.of("account456",
+                        List.of(statement(1, JANUARY), statement(2, JANUARY), statement(3, FEBRUARY)))));
+        when(statementRepository.streamByAccountIdOrderBySequenceAsc("account456"))
+                .thenReturn(Stream.of(statement(3, FEBRUARY), statement(4, FEBRUARY)));
+
+        try (Stream<Statement> statements = archiveService.streamStatements("account456")) {
+            assertThat(statements).extracting(Statement::sequence).containsExactly(1L, 2L, 3L, 4L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should read archived statements from the most recent one for a page")
+    void shouldReadArchivedStatementsBackwards() {
+        when(statementArchiveRepository.streamByAccountIdAndFirstSequenceLessThanOrderByFirstSequenceDesc(
+                "account456", 4L))
+                .thenReturn(Stream.of(
+                        StatementArchive.of("account456", List.of(statement(3, FEBRUARY), statement(4, FEBRUARY))),
+                        StatementArchive.of("account456", List.of(statement(1, JANUARY), statement(2, JANUARY)))));
+
+        List<Statement> statements = archiveService.getArchivedStatements("account456", 4L, 2);
+
+        assertThat(statements).extracting(Statement::sequence).containsExactly(3L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should read only the archives of the searched period")
+    void shouldSearchArchivedStatementsOfPeriod() {
+        StatementFilter filter = new StatementFilter(LocalDateTime.of(2020, 1, 30, 0, 0),
+                LocalDateTime.of(2020, 1, 31, 0, 0), null, null, null);
+        when(statementArchiveRepository.findByAccountIdAndFirstDateLessThanAndLastDateGreaterThanEqualOrderByFirstSequenceAsc(
+                "account456", filter.to(), filter.from()))
+                .thenReturn(List.of(StatementArchive.of("account456",
+                        List.of(statement(1, JANUARY.minusDays(2)), statement(2, JANUARY), statement(3, JANUARY)))));
+        when(statementRepository.findFirstByAccountIdOrderBySequenceAsc("account456"))
+                .thenReturn(Optional.of(statement(3, JANUARY)));
+
+        List<Statement> statements = archiveService.getArchivedStatements("account456", filter);
+
+        assertThat(statements).extracting(Statement::sequence).containsExactly(2L);
+    }
+
+    private static Statement statement(long sequence, LocalDateTime date) {
+        return new Statement(null, "account456", sequence, date, 100L, sequence * 100);
+    }
+
+    private static Account account(String id) {
+        return new Account(id, 0L, "client123", JANUARY, 0L, 0L);
+    }
+}
@@ -0,0 +1,318 @@
+package com.sg.bank_account_api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.sg.bank_account_api.dto.CreateTransferDto;
+import com.sg.bank_account_api.dto.TransferDto;
+import com.sg.bank_account_api.exceptions.AccountNotFoundException;
+import com.sg.bank_account_api.exceptions.AmountException;
+import com.sg.bank_account_api.exceptions.ClientNotFoundException;
+import com.sg.bank_account_api.exceptions.ConcurrentUpdateException;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+import com.sg.bank_account_api.model.Transfer;
+import com.sg.bank_account_api.model.TransferStatus;
+import com.sg.bank_account_api.repository.AccountRepository;
+import com.sg.bank_account_api.repository.TransferRepository;
+import com.sg.bank_account_api.utils.DtoMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TransferServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransferService transferService;
+
+    private final Client client = new Client("client123", "Doe", "John", LocalDateTime.now());
+    private final Account source = new Account("account1", 10_000L, client.id(), LocalDateTime.now(), 3L, 3L);
+    private final Account target = new Account("account2", 500L,
+            "client789", LocalDateTime.now(), 1L, 1L);
+    private final CreateTransferDto dto = new CreateTransferDto("client123", "account1", "account2",
+            new BigDecimal("25.00"));
+
+    @BeforeEach
+    void setUp() {
+        // pas d'attente entre deux tentatives
+        meterRegistry = new SimpleMeterRegistry();
+        OptimisticRetry optimisticRetry = new OptimisticRetry(meterRegistry, 3, 0, 0);
+        transferService = new TransferService(accountRepository, transferRepository, optimisticRetry,
+                new DtoMapper(), new ConcurrentMapCacheManager(), Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should debit the source account then credit the target account")
+    void shouldDebitThenCredit() {
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.of(target));
+        when(transferRepository.insert(any(Transfer.class)))
+                .thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        stubAdvance();
+        when(accountRepository.applyTransferLeg(eq("transfer1:debit"), eq("account1"), eq("client123"),
+                eq(-2_500L), any(LocalDateTime.class))).thenReturn(Optional.of(statement("account1", -2_500L)));
+        when(accountRepository.applyTransferCredit(eq("transfer1:credit"), eq("account2"), eq(2_500L),
+                any(LocalDateTime.class))).thenReturn(Optional.of(statement("account2", 2_500L)));
+
+        TransferDto result = transferService.transfer(dto);
+
+        assertThat(result.status()).isEqualTo(TransferStatus.COMPLETED);
+        assertThat(result.amount()).isEqualByComparingTo("25");
+        verify(accountRepository).clearTransferLegs("account1", "transfer1:debit");
+        verify(accountRepository).clearTransferLegs("account2", "transfer1:credit");
+    }
+
+    @Test
+    @DisplayName("Should mark the transfer as failed when the source balance is insufficient")
+    void shouldFailWhenSourceBalanceIsInsufficient() {
+        Account poorSource = new Account("account1", 1_000L, client.id(), LocalDateTime.now(), 3L, 3L);
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.of(target));
+        when(transferRepository.insert(any(Transfer.class)))
+                .thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        when(accountRepository.applyTransferLeg(anyString(), eq("account1"), eq("client123"), anyLong(),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(accountRepository.findById("account1")).thenReturn(Optional.of(poorSource));
+        stubAdvance();
+
+        assertThrows(AmountException.class, () -> transferService.transfer(dto));
+
+        verify(transferRepository).advance(any(Transfer.class), eq(TransferStatus.FAILED), any(LocalDateTime.class));
+        verify(accountRepository, never()).applyTransferCredit(anyString(), eq("account2"), anyLong(),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should throw ClientNotFoundException when the source account belongs to another client")
+    void shouldRejectSourceAccountOfAnotherClient() {
+        CreateTransferDto intruder = new CreateTransferDto("intruder", "account1", "account2",
+                new BigDecimal("25.00"));
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.of(target));
+        when(transferRepository.insert(any(Transfer.class)))
+                .thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        when(accountRepository.applyTransferLeg(anyString(), eq("account1"), eq("intruder"), anyLong(),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(accountRepository.findById("account1")).thenReturn(Optional.of(source));
+
+        assertThrows(ClientNotFoundException.class, () -> transferService.transfer(intruder));
+    }
+
+    @Test
+    @DisplayName("Should throw ClientNotFoundException before any write when the client is missing")
+    void shouldRejectTransferWithoutClient() {
+        CreateTransferDto anonymous = new CreateTransferDto(null, "account1", "account2", new BigDecimal("25.00"));
+
+        assertThrows(ClientNotFoundException.class, () -> transferService.transfer(anonymous));
+        verifyNoInteractions(accountRepository, transferRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw AccountNotFoundException before any write when the target account doesn't exist")
+    void shouldRejectUnknownTargetBeforeAnyWrite() {
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.empty());
+
+        assertThrows(AccountNotFoundException.class, () -> transferService.transfer(dto));
+        verify(transferRepository, never()).insert(any(Transfer.class));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for a transfer to the same account")
+    void shouldRejectTransferToSameAccount() {
+        CreateTransferDto sameAccount = new CreateTransferDto("client123", "account1", "account1", BigDecimal.TEN);
+
+        assertThrows(IllegalArgumentException.class, () -> transferService.transfer(sameAccount));
+    }
+
+    @Test
+    @DisplayName("Should refund the source account when the target account can't be credited")
+    void shouldRefundWhenTargetCantBeCredited() {
+        Account fullTarget = new Account("account2", Long.MAX_VALUE - 100, target.clientId(), LocalDateTime.now(),
+                1L, 1L);
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.of(target));
+        when(transferRepository.insert(any(Transfer.class)))
+                .thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        stubAdvance();
+        when(accountRepository.applyTransferLeg(eq("transfer1:debit"), any(), any(), anyLong(),
+                any(LocalDateTime.class))).thenReturn(Optional.of(statement("account1", -2_500L)));
+        when(accountRepository.applyTransferCredit(eq("transfer1:credit"), any(), anyLong(),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(accountRepository.hasTransferLeg("account2", "transfer1:credit")).thenReturn(false);
+        when(accountRepository.applyTransferCredit(eq("transfer1:refund"), eq("account1"), eq(2_500L),
+                any(LocalDateTime.class))).thenReturn(Optional.of(statement("account1", 2_500L)));
+        when(accountRepository.findById("account2")).thenReturn(Optional.of(fullTarget));
+
+        assertThrows(AmountException.class, () -> transferService.transfer(dto));
+
+        ArgumentCaptor<TransferStatus> statuses = ArgumentCaptor.forClass(TransferStatus.class);
+        verify(transferRepository, times(2)).advance(any(Transfer.class), statuses.capture(),
+                any(LocalDateTime.class));
+        assertThat(statuses.getAllValues()).containsExactly(TransferStatus.DEBITED, TransferStatus.REFUNDED);
+    }
+
+    @Test
+    @DisplayName("Should credit an interrupted transfer whose source was already debited")
+    void shouldRecoverDebitedTransfer() {
+        Transfer debited = new Transfer("transfer1", "account1", "account2", "client123", 2_500L,
+                TransferStatus.DEBITED, LocalDateTime.now().minusMinutes(5), null, null);
+        when(transferRepository.findByStatusInAndDateBefore(any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(debited));
+        when(transferRepository.claim(eq("transfer1"), any(), anyString(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Optional.of(claimed(debited, invocation.getArgument(2))));
+        stubAdvance();
+        // le crédit avait déjà été appliqué avant l'interruption : il n'est pas rejoué
+        when(accountRepository.applyTransferCredit(eq("transfer1:credit"), eq("account2"), eq(2_500L),
+                any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(accountRepository.hasTransferLeg("account2", "transfer1:credit")).thenReturn(true);
+
+        int recovered = transferService.recoverTransfers();
+
+        assertThat(recovered).isEqualTo(1);
+        ArgumentCaptor<Transfer> advanced = ArgumentCaptor.forClass(Transfer.class);
+        verify(transferRepository).advance(advanced.capture(), eq(TransferStatus.COMPLETED), any(LocalDateTime.class));
+        // seule l'exécution qui a réservé le virement le fait avancer
+        assertThat(advanced.getValue().owner()).isNotNull();
+        verify(accountRepository, never()).applyTransferLeg(eq("transfer1:debit"), any(), any(), anyLong(),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should mark the transfer as debited when the debit was applied before an infrastructure error")
+    void shouldMarkDebitedAfterInfrastructureError() {
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.of(target));
+        when(transferRepository.insert(any(Transfer.class)))
+                .thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        stubAdvance();
+        // le débit est écrit mais sa réponse est perdue
+        when(accountRepository.applyTransferLeg(eq("transfer1:debit"), any(), any(), anyLong(),
+                any(LocalDateTime.class))).thenThrow(new DataAccessResourceFailureException("connection reset"));
+        when(accountRepository.hasTransferLeg("account1", "transfer1:debit")).thenReturn(true);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> transferService.transfer(dto));
+
+        verify(transferRepository).advance(any(Transfer.class), eq(TransferStatus.DEBITED), any(LocalDateTime.class));
+        verify(transferRepository, never()).advance(any(Transfer.class), eq(TransferStatus.FAILED),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should leave the transfer pending when the debit wasn't applied before an infrastructure error")
+    void shouldLeavePendingAfterInfrastructureError() {
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.of(target));
+        when(transferRepository.insert(any(Transfer.class)))
+                .thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        when(accountRepository.applyTransferLeg(eq("transfer1:debit"), any(), any(), anyLong(),
+                any(LocalDateTime.class))).thenThrow(new DataAccessResourceFailureException("connection reset"));
+        when(accountRepository.hasTransferLeg("account1", "transfer1:debit")).thenReturn(false);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> transferService.transfer(dto));
+
+        verify(transferRepository, never()).advance(any(Transfer.class), any(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the legs when another request completed the transfer first")
+    void shouldKeepLegsWhenTransferIsAdvancedElsewhere() {
+        when(accountRepository.findBalanceById("account2")).thenReturn(Optional.of(target));
+        when(transferRepository.insert(any(Transfer.class)))
+                .thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        when(accountRepository.applyTransferLeg(eq("transfer1:debit"), any(), any(), anyLong(),
+                any(LocalDateTime.class))).thenReturn(Optional.of(statement("account1", -2_500L)));
+        // la réservation a expiré et le virement a été repris par une autre exécution
+        when(transferRepository.advance(any(Transfer.class), eq(TransferStatus.DEBITED), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ConcurrentUpdateException.class, () -> transferService.transfer(dto));
+
+        verify(accountRepository, never()).applyTransferCredit(eq("transfer1:credit"), any(), anyLong(),
+                any(LocalDateTime.class));
+        verify(accountRepository, never()).clearTransferLegs(anyString(), any(String[].class));
+    }
+
+    @Test
+    @DisplayName("Should skip an interrupted transfer claimed by another execution")
+    void shouldSkipTransferClaimedElsewhere() {
+        Transfer pending = new Transfer("transfer1", "account1", "account2", "client123", 2_500L,
+                TransferStatus.PENDING, LocalDateTime.now().minusMinutes(5), "other",
+                LocalDateTime.now().plusMinutes(1));
+        when(transferRepository.findByStatusInAndDateBefore(any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(pending));
+        when(transferRepository.claim(eq("transfer1"), any(), anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        transferService.recoverTransfers();
+
+        verify(accountRepository, never()).applyTransferLeg(anyString(), anyString(), any(), anyLong(),
+                any(LocalDateTime.class));
+        verify(accountRepository, never()).applyTransferCredit(anyString(), anyString(), anyLong(),
+                any(LocalDateTime.class));
+        verify(transferRepository, never()).advance(any(Transfer.class), any(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should count a recovery that fails for another reason than a rejection")
+    void shouldCountRecoveryFailures() {
+        Transfer debited = new Transfer("transfer1", "account1", "account2", "client123", 2_500L,
+                TransferStatus.DEBITED, LocalDateTime.now().minusMinutes(5), null, null);
+        when(transferRepository.findByStatusInAndDateBefore(any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(debited));
+        when(transferRepository.claim(eq("transfer1"), any(), anyString(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Optional.of(claimed(debited, invocation.getArgument(2))));
+        when(accountRepository.applyTransferCredit(eq("transfer1:credit"), any(), anyLong(),
+                any(LocalDateTime.class))).thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        int recovered = transferService.recoverTransfers();
+
+        assertThat(recovered).isEqualTo(1);
+        assertThat(meterRegistry.counter(TransferService.RECOVERY_FAILURES).count()).isEqualTo(1);
+    }
+
+    private void stubAdvance() {
+        when(transferRepository.advance(any(Transfer.class), any(TransferStatus.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Optional
+                        .of(invocation.<Transfer>getArgument(0).withStatus(invocation.getArgument(1))));
+    }
+
+    private static Transfer claimed(Transfer transfer, String owner) {
+        return new Transfer(transfer.id(), transfer.fromAccountId(), transfer.toAccountId(), transfer.clientId(),
+                transfer.amount(), transfer.status(), transfer.date(), owner, LocalDateTime.now().plusMinutes(1));
+    }
+
+    private static Transfer withId(Transfer transfer) {
+        return new Transfer("transfer1", transfer.fromAccountId(), transfer.toAccountId(), transfer.clientId(),
+                transfer.amount(), transfer.status(), transfer.date(), transfer.owner(), transfer.lockedUntil());
+    }
+
+    private static Statement statement(String accountId, long amount) {
+        return new Statement("statement1", accountId, 1L, LocalDateTime.now(), amount, 0L);
+    }
+}
@@ -0,0 +1,51 @@
+package com.sg.bank_account_api.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sg.bank_account_api.model.Account;
+import com.sg.bank_account_api.model.Client;
+import com.sg.bank_account_api.model.Statement;
+
+class AccountStatementsSerializerTest {
+    private final DtoMapper mapper = new DtoMapper();
+
+    private final Client client = new Client("client123", "Doe", null, LocalDateTime.of(2023, 1, 1, 9, 25));
+    private final Account account = new Account("account456", 13_000L, "client123",
+            LocalDateTime.of(2023, 1, 5, 15, 30), 2L, 0L);
+    private final List<Statement> statements = List.of(
+            new Statement("statement1", "account456", 1L, LocalDateTime.of(2024, 1, 10, 7, 43), 5_000L, 5_000L),
+            new Statement("statement2", "account456", 2L, LocalDateTime.of(2024, 1, 11, 8, 0, 0, 120_000_000),
+                    8_000L, 13_000L));
+
+    @Test
+    @DisplayName("Should write the same JSON as the AccountDto of the account")
+    void shouldWriteSameJsonAsAccountDto() throws JsonProcessingException {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        assertThat(objectMapper.writeValueAsString(mapper.accountToStatementsDto(account, client, statements)))
+                .isEqualTo(objectMapper.writeValueAsString(mapper.accountToDto(account, client, statements)));
+    }
+
+    @Test
+    @DisplayName("Should follow the date configuration of the ObjectMapper")
+    void shouldFollowDateConfiguration() throws JsonProcessingException {
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        assertThat(objectMapper.writeValueAsString(mapper.accountToStatementsDto(account, client, List.of())))
+                .isEqualTo(objectMapper.writeValueAsString(mapper.accountToDto(account, client, List.of())));
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.sg.bank_account_api.dto.AccountDto;
+import com.sg.bank_account_api.dto.BalanceDto;
 import com.sg.bank_account_api.dto.ClientDto;
 import com.sg.bank_account_api.dto.StatementDto;
 import com.sg.bank_account_api.model.Account;
@@ -33,10 +34,10 @@ class DtoMapperTest {
     void shouldMapAccountToAccountDtoSuccessfully() {
         Account account = getAccount();
 
-        AccountDto accountDto = dtoMapper.accountToDto(account);
+        AccountDto accountDto = dtoMapper.accountToDto(account, getClient(), getStatements());
 
         assertThat(accountDto).isNotNull();
-        assertThat(accountDto.balance()).isEqualTo(BigDecimal.valueOf(130));
+        assertThat(accountDto.balance()).isEqualByComparingTo("130");
         assertThat(accountDto.date()).isEqualTo(LocalDateTime.of(2023, 1, 5, 15, 30));
 
         assertThat(accountDto.client()).isNotNull();
@@ -45,31 +46,42 @@ class DtoMapperTest {
         assertThat(accountDto.client().firstname()).isEqualTo("John");
 
         assertThat(accountDto.statements()).hasSize(2);
-        assertThat(accountDto.statements().get(0).amount()).isEqualTo(BigDecimal.valueOf(50));
-        assertThat(accountDto.statements().get(1).balance()).isEqualTo(BigDecimal.valueOf(130));
+        assertThat(accountDto.statements().get(0).amount()).isEqualByComparingTo("50");
+        assertThat(accountDto.statements().get(1).balance()).isEqualByComparingTo("130");
     }
 
     @Test
     @DisplayName("Should throw IllegalArgumentException when mapping null Account to AccountDto")
     void shouldThrowIllegalArgumentExceptionWhenMappingNullAccountToAccountDto() {
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
-                () -> dtoMapper.accountToDto(null));
+                () -> dtoMapper.accountToDto(null, getClient(), Collections.emptyList()));
 
         assertThat(thrown.getMessage()).contains("Account can't be null");
     }
 
+    @Test
+    @DisplayName("Should map Account to BalanceDto successfully")
+    void shouldMapAccountToBalanceDtoSuccessfully() {
+        BalanceDto balanceDto = dtoMapper.balanceToDto(getAccount());
+
+        assertThat(balanceDto.accountId()).isEqualTo(getAccount().id());
+        assertThat(balanceDto.clientId()).isEqualTo("client123");
+        assertThat(balanceDto.balance()).isEqualByComparingTo("130");
+        assertThat(balanceDto.date()).isEqualTo(LocalDateTime.of(2023, 1, 5, 15, 30));
+    }
+
     @Test
     @DisplayName("Should map Statement to StatementDto successfully")
     void shouldMapStatementToStatementDtoSuccessfully() {
-        Statement statement = new Statement(LocalDateTime.of(2024, 2, 1, 10, 12), BigDecimal.valueOf(200),
-                BigDecimal.valueOf(300));
+        Statement statement = new Statement("statement1", "account456", 1L, LocalDateTime.of(2024, 2, 1, 10, 12),
+                20000L, 30000L);
 
         StatementDto statementDto = dtoMapper.statementToDto(statement);
 
         assertThat(statementDto).isNotNull();
         assertThat(statementDto.date()).isEqualTo(LocalDateTime.of(2024, 2, 1, 10, 12));
-        assertThat(statementDto.amount()).isEqualTo(BigDecimal.valueOf(200));
-        assertThat(statementDto.balance()).isEqualTo(BigDecimal.valueOf(300));
+        assertThat(statementDto.amount()).isEqualByComparingTo("200");
+        assertThat(statementDto.balance()).isEqualByComparingTo("300");
     }
 
     @Test
@@ -84,18 +96,18 @@ class DtoMapperTest {
     @Test
     @DisplayName("Should map List of Statement to List of StatementDto successfully")
     void shouldMapListOfStatementToListOfStatementDtoSuccessfully() {
-        Statement statement1 = new Statement(LocalDateTime.of(2024, 3, 1, 13, 20), BigDecimal.valueOf(100),
-                BigDecimal.valueOf(100));
-        Statement statement2 = new Statement(LocalDateTime.of(2024, 3, 5, 17, 14), BigDecimal.valueOf(-30),
-                BigDecimal.valueOf(70));
+        Statement statement1 = new Statement("statement1", "account456", 1L, LocalDateTime.of(2024, 3, 1, 13, 20),
+                10000L, 10000L);
+        Statement statement2 = new Statement("statement2", "account456", 2L, LocalDateTime.of(2024, 3, 5, 17, 14),
+                -3000L, 7000L);
         List<Statement> statements = Arrays.asList(statement1, statement2);
 
         List<StatementDto> statementDtos = dtoMapper.toStatementDtoList(statements);
 
         assertThat(statementDtos).isNotNull();
         assertThat(statementDtos).hasSize(2);
-        assertThat(statementDtos.get(0).amount()).isEqualTo(BigDecimal.valueOf(100));
-        assertThat(statementDtos.get(1).balance()).isEqualTo(BigDecimal.valueOf(70));
+        assertThat(statementDtos.get(0).amount()).isEqualByComparingTo("100");
+        assertThat(statementDtos.get(1).balance()).isEqualByComparingTo("70");
     }
 
     @Test
@@ -140,13 +152,18 @@ class DtoMapperTest {
     }
 
     private static Account getAccount() {
-        Client client = new Client("client123", "Doe", "John", LocalDateTime.of(2023, 1, 1, 9, 25));
-        Statement statement1 = new Statement(LocalDateTime.of(2024, 1, 10, 7, 43), BigDecimal.valueOf(50),
-                BigDecimal.valueOf(150));
-        Statement statement2 = new Statement(LocalDateTime.of(2024, 1, 15, 11, 45), BigDecimal.valueOf(-20),
-                BigDecimal.valueOf(130));
-        List<Statement> statements = Arrays.asList(statement1, statement2);
-        return new Account("account456", BigDecimal.valueOf(130), client, LocalDateTime.of(2023, 1, 5, 15, 30),
-                statements);
+        return new Account("account456", 13000L, "client123", LocalDateTime.of(2023, 1, 5, 15, 30), 2L, 0L);
+    }
+
+    private static Client getClient() {
+        return new Client("client123", "Doe", "John", LocalDateTime.of(2023, 1, 1, 9, 25));
+    }
+
+    private static List<Statement> getStatements() {
+        Statement statement1 = new Statement("statement1", "account456", 1L, LocalDateTime.of(2024, 1, 10, 7, 43),
+                5000L, 15000L);
+        Statement statement2 = new Statement("statement2", "account456", 2L, LocalDateTime.of(2024, 1, 15, 11, 45),
+                -2000L, 13000L);
+        return Arrays.asList(statement1, statement2);
     }
 }
\ No newline at end of file
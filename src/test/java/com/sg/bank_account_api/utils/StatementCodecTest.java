@@ -0,0 +1,51 @@
+package com.sg.bank_account_api.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sg.bank_account_api.model.Statement;
+
+class StatementCodecTest {
+
+    @Test
+    @DisplayName("Should decode the statements it encoded")
+    void shouldRoundTripStatements() {
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_789);
+        List<Statement> statements = List.of(
+                new Statement(null, "account456", 41L, date, 150_000L, 150_000L),
+                new Statement(null, "account456", 42L, date.plusHours(2), -2_550L, 147_450L),
+                new Statement(null, "account456", 43L, date.plusDays(3), Long.MAX_VALUE / 2, Long.MAX_VALUE / 2));
+
+        List<Statement> decoded = StatementCodec.decode("account456", StatementCodec.encode(statements));
+
+        assertThat(decoded).isEqualTo(statements);
+    }
+
+    @Test
+    @DisplayName("Should store a statement in a few bytes")
+    void shouldCompressStatements() {
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 0, 0);
+        List<Statement> statements = LongStream.rangeClosed(1, 1_000)
+                .mapToObj(i -> new Statement("statement" + i, "account456", i, date.plusMinutes(i * 37), 1_000L,
+                        i * 1_000))
+                .toList();
+
+        byte[] data = StatementCodec.encode(statements);
+
+        assertThat(data.length).isLessThan(statements.size() * 8);
+        assertThat(StatementCodec.decode("account456", data)).extracting(Statement::balance)
+                .endsWith(1_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should encode an empty block")
+    void shouldEncodeEmptyBlock() {
+        assertThat(StatementCodec.decode("account456", StatementCodec.encode(List.of()))).isEmpty();
+    }
+}
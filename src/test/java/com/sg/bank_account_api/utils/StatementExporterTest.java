@@ -0,0 +1,89 @@
+package com.sg.bank_account_api.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sg.bank_account_api.dto.StatementDto;
+import com.sg.bank_account_api.model.Statement;
+
+class StatementExporterTest {
+    private ObjectMapper objectMapper;
+    private StatementExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        exporter = new StatementExporter(objectMapper, new DtoMapper());
+    }
+
+    @Test
+    @DisplayName("Should write one StatementDto per line")
+    void shouldWriteOneStatementPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.writeNdjson(Stream.of(statement(1), statement(2)), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines.get(1), StatementDto.class).balance())
+                .isEqualByComparingTo(BigDecimal.valueOf(2));
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n");
+    }
+
+    @Test
+    @DisplayName("Should flush the output in chunks while writing")
+    void shouldFlushOutputInChunks() throws IOException {
+        AtomicInteger flushes = new AtomicInteger();
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        exporter.writeNdjson(LongStream.rangeClosed(1, 2L * StatementExporter.FLUSH_EVERY)
+                .mapToObj(StatementExporterTest::statement), out);
+
+        assertThat(flushes.get()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should stop writing when the client disconnects")
+    void shouldStopWritingWhenClientDisconnects() {
+        AtomicInteger read = new AtomicInteger();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        Stream<Statement> statements = LongStream.rangeClosed(1, 10L * StatementExporter.FLUSH_EVERY)
+                .mapToObj(StatementExporterTest::statement)
+                .peek(statement -> read.incrementAndGet());
+
+        assertThrows(IOException.class, () -> exporter.writeNdjson(statements, out));
+        assertThat(read.get()).isLessThan(10 * StatementExporter.FLUSH_EVERY);
+    }
+
+    private static Statement statement(long sequence) {
+        return new Statement("statement" + sequence, "account456", sequence, LocalDateTime.of(2024, 1, 1, 10, 0),
+                100L, sequence * 100);
+    }
+}